@@ -0,0 +1,169 @@
+package ProjectTracker;
+
+import java.util.Arrays;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Burkhard-Keller tree of strings under Levenshtein distance. Each child
+ * hangs off its parent by its distance to the parent, so by the triangle
+ * inequality a search for words within k of a query only descends into
+ * children whose edge lies within k of the query's distance to the parent.
+ * A lookup therefore computes a distance for a small fraction of the words.
+ * Every word carries int ids that are returned in place of the word; adding
+ * a word that is already present only records another id for it.
+ */
+final class BKTree {
+    private Node root;
+    private int size;
+
+    /**
+     * Word, its ids and its children keyed by their distance to the word
+     */
+    private static final class Node {
+        final String word;
+        final IntDynamicArray ids;
+        int[] distances;
+        Node[] children;
+        int childCount;
+        int maxEdge;
+
+        Node(String word, int id) {
+            this.word = word;
+            this.ids = new IntDynamicArray(1);
+            this.ids.add(id);
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (distances[i] == distance) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            if (children == null) {
+                distances = new int[2];
+                children = new Node[2];
+            } else if (childCount == children.length) {
+                distances = Arrays.copyOf(distances, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            maxEdge = Math.max(maxEdge, distance);
+            distances[childCount] = distance;
+            children[childCount++] = child;
+        }
+    }
+
+    /**
+     * Adds a word, or another id for a word already in the tree
+     * @param word word to add
+     * @param id id returned when the word matches a search
+     */
+    void add(String word, int id) {
+        if (root == null) {
+            root = new Node(word, id);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word, Integer.MAX_VALUE);
+            if (distance == 0) {
+                node.ids.add(id);
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(word, id));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Collects the ids of all words within a distance of the query
+     * @param query word to search for
+     * @param maxDistance largest edit distance accepted
+     * @param ids receives the ids of matching words
+     * @return number of distances computed, a measure of the work done
+     */
+    int search(String query, int maxDistance, IntDynamicArray ids) {
+        if (root == null) {
+            return 0;
+        }
+        int computed = 0;
+        Node[] stack = new Node[16];
+        int depth = 0;
+        stack[depth++] = root;
+        while (depth > 0) {
+            Node node = stack[--depth];
+            // Past this distance neither the node nor any of its children can match
+            int distance = distance(query, node.word, node.maxEdge + maxDistance);
+            computed++;
+            if (distance <= maxDistance) {
+                node.ids.forEach(ids::add);
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                if (Math.abs(node.distances[i] - distance) <= maxDistance) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = node.children[i];
+                }
+            }
+        }
+        return computed;
+    }
+
+    /**
+     * Returns the number of distinct words in the tree
+     * @return word count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings with two rows,
+     * stopping early once every entry of a row exceeds the limit
+     * @param a first string
+     * @param b second string
+     * @param limit distance above which the exact value is not needed
+     * @return edit distance, or a value above limit if the distance exceeds it
+     */
+    static int distance(String a, String b, int limit) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                int value = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return rowMin;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,153 @@
+package ProjectTracker;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Symbol table that dictionary-encodes class names into small int ids.
+ * Every distinct class name is stored once together with its lower-cased
+ * form, so projects only hold an id and class name comparisons become
+ * int comparisons. Ids are never reused, which keeps them stable for the
+ * lifetime of the JVM. The distinct lower-cased names are also kept in a
+ * BK-tree for typo-tolerant lookups.
+ *
+ * Since entries are never released, the table is capped: once it holds
+ * MAX_NAMES names, or for a name longer than MAX_NAME_LENGTH, intern
+ * returns -1 and the project keeps the name as a plain String. Memory used
+ * by names from untrusted input is then freed along with the projects.
+ */
+final class ClassNameTable {
+    private static final ClassNameTable SHARED = new ClassNameTable();
+    private static final int INITIAL_CAPACITY = 16;
+    static final int MAX_NAMES = 1 << 14;
+    static final int MAX_NAME_LENGTH = 64;
+
+    private final int maxNames;
+    private final Map<String, Integer> ids;
+    private final BKTree lowerNameTree;
+    private volatile String[] names;
+    private volatile String[] lowerNames;
+    private volatile int size;
+
+    /**
+     * Constructs an empty table holding at most MAX_NAMES names
+     */
+    ClassNameTable() {
+        this(MAX_NAMES);
+    }
+
+    /**
+     * Constructs an empty table
+     * @param maxNames largest number of names the table will hold
+     */
+    ClassNameTable(int maxNames) {
+        this.maxNames = maxNames;
+        this.ids = new HashMap<>();
+        this.lowerNameTree = new BKTree();
+        this.names = new String[INITIAL_CAPACITY];
+        this.lowerNames = new String[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * Returns the table shared by all projects
+     * @return shared class name table
+     */
+    static ClassNameTable shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the id of a class name, adding it to the table if needed
+     * @param name class name to encode
+     * @return id of the class name, or -1 if the name is too long or the
+     *         table is full and does not already hold it
+     * @throws IllegalArgumentException if name is null
+     */
+    synchronized int intern(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Class name cannot be null");
+        }
+        Integer existing = ids.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        int id = size;
+        if (id == maxNames || name.length() > MAX_NAME_LENGTH) {
+            return -1;
+        }
+        String[] currentNames = names;
+        String[] currentLower = lowerNames;
+        if (id == currentNames.length) {
+            String[] grownNames = new String[currentNames.length * 2];
+            String[] grownLower = new String[currentLower.length * 2];
+            System.arraycopy(currentNames, 0, grownNames, 0, id);
+            System.arraycopy(currentLower, 0, grownLower, 0, id);
+            currentNames = grownNames;
+            currentLower = grownLower;
+        }
+        currentNames[id] = name;
+        currentLower[id] = name.toLowerCase();
+        lowerNames = currentLower;
+        names = currentNames;
+        ids.put(name, id);
+        lowerNameTree.add(currentLower[id], id);
+        size = id + 1;
+        return id;
+    }
+
+    /**
+     * Looks up the id of a class name without adding it
+     * @param name class name to look up
+     * @return id of the class name, or -1 if it has never been encoded;
+     *         projects may still use an unencoded name as a plain String
+     */
+    synchronized int find(String name) {
+        Integer existing = ids.get(name);
+        return existing == null ? -1 : existing;
+    }
+
+    /**
+     * Finds every class name within an edit distance of a term, ignoring case
+     * @param term term to match against whole class names
+     * @param maxDistance largest Levenshtein distance accepted
+     * @return flags indexed by id, true where the class name matches
+     */
+    synchronized boolean[] findWithin(String term, int maxDistance) {
+        IntDynamicArray found = new IntDynamicArray();
+        lowerNameTree.search(term.toLowerCase(), maxDistance, found);
+        boolean[] matches = new boolean[size];
+        for (int i = 0; i < found.size(); i++) {
+            matches[found.get(i)] = true;
+        }
+        return matches;
+    }
+
+    /**
+     * Gets the class name for an id
+     * @param id id returned by intern
+     * @return the class name
+     */
+    String name(int id) {
+        return names[id];
+    }
+
+    /**
+     * Gets the cached lower-cased class name for an id
+     * @param id id returned by intern
+     * @return the lower-cased class name
+     */
+    String lowerName(int id) {
+        return lowerNames[id];
+    }
+
+    /**
+     * Returns the number of distinct class names encoded so far
+     * @return number of ids in use
+     */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,466 @@
+package ProjectTracker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Cold storage for completed projects. Projects are appended in blocks of
+ * up to BLOCK_SIZE, each block deflated and written to the current segment
+ * file; a segment is closed once it passes SEGMENT_BYTES and the next one
+ * started. Only a sparse index stays on the heap: the first position, file
+ * and offset of each block. Reads decode one block at a time and keep the
+ * last block decoded, so walking the archive in order inflates every block once.
+ *
+ * Block layout: [int count][int rawLength][int compressedLength][int crc32][deflated projects].
+ */
+public final class CompletedArchive implements AutoCloseable {
+    static final int BLOCK_SIZE = 64;
+    static final long SEGMENT_BYTES = 4L << 20;
+    private static final int HEADER_BYTES = 16;
+    private static final String SEGMENT_PREFIX = "completed-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+    private final List<FileChannel> segments;
+    // Sparse index: first archive position, segment and file offset of each block
+    private final IntDynamicArray blockFirst;
+    private final IntDynamicArray blockSegment;
+    private final LongDynamicArray blockOffset;
+    private long segmentLength;
+    private long diskBytes;
+    private volatile int size;
+    private volatile Block cached;
+    private volatile boolean closed;
+
+    /**
+     * Decoded block and the archive position of its first project
+     */
+    private static final class Block {
+        final int first;
+        final Project[] projects;
+
+        Block(int first, Project[] projects) {
+            this.first = first;
+            this.projects = projects;
+        }
+    }
+
+    private CompletedArchive(Path directory) {
+        this.directory = directory;
+        this.segments = new ArrayList<>();
+        this.blockFirst = new IntDynamicArray(16);
+        this.blockSegment = new IntDynamicArray(16);
+        this.blockOffset = new LongDynamicArray(16);
+    }
+
+    /**
+     * Opens the archive in a directory, creating the directory if needed and
+     * rebuilding the sparse index from the block headers. A block cut short
+     * by a crash is dropped.
+     * @param directory archive directory
+     * @return open archive
+     * @throws IOException if the directory or a segment cannot be read
+     * @throws IllegalArgumentException if directory is null
+     */
+    public static CompletedArchive open(Path directory) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory cannot be null");
+        }
+        Files.createDirectories(directory);
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+
+        CompletedArchive archive = new CompletedArchive(directory);
+        try {
+            for (Path file : files) {
+                archive.scan(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            }
+        } catch (IOException | RuntimeException e) {
+            archive.close();
+            throw e;
+        }
+        return archive;
+    }
+
+    /**
+     * Indexes the blocks of one segment and truncates a torn final block
+     */
+    private void scan(FileChannel channel) throws IOException {
+        int segment = segments.size();
+        segments.add(channel);
+        long length = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= length) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int count = header.getInt();
+            header.getInt();
+            int compressed = header.getInt();
+            if (count <= 0 || compressed < 0 || position + HEADER_BYTES + compressed > length) {
+                break;
+            }
+            addBlock(segment, position, count);
+            position += HEADER_BYTES + compressed;
+        }
+        if (position < length) {
+            channel.truncate(position);
+        }
+        segmentLength = position;
+        diskBytes += position;
+    }
+
+    private void addBlock(int segment, long offset, int count) {
+        blockFirst.add(size);
+        blockSegment.add(segment);
+        blockOffset.add(offset);
+        size += count;
+    }
+
+    /**
+     * Appends projects in blocks and forces them to disk before returning.
+     * Projects keep their archive position for the life of the archive.
+     * The append is all or nothing: the new blocks are indexed only once
+     * every one of them has been forced, and a failure truncates what was
+     * written so that neither this archive nor a reopened one sees any of them.
+     * @param projects projects to append
+     * @throws IOException if writing fails; no project is archived
+     */
+    synchronized void append(List<Project> projects) throws IOException {
+        checkOpen();
+        if (projects.isEmpty()) {
+            return;
+        }
+        int startSegments = segments.size();
+        long startLength = segmentLength;
+        long startDiskBytes = diskBytes;
+        int blocks = (projects.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int[] pendingSegment = new int[blocks];
+        long[] pendingOffset = new long[blocks];
+        try {
+            FileChannel channel = null;
+            for (int block = 0; block < blocks; block++) {
+                if (segments.isEmpty() || segmentLength >= SEGMENT_BYTES) {
+                    if (channel != null) {
+                        channel.force(true);
+                    }
+                    startSegment();
+                }
+                channel = segments.get(segments.size() - 1);
+                int from = block * BLOCK_SIZE;
+                ByteBuffer encoded = encode(projects.subList(from, Math.min(projects.size(), from + BLOCK_SIZE)));
+                long offset = segmentLength;
+                int length = encoded.remaining();
+                while (encoded.hasRemaining()) {
+                    channel.write(encoded, offset + length - encoded.remaining());
+                }
+                segmentLength += length;
+                diskBytes += length;
+                pendingSegment[block] = segments.size() - 1;
+                pendingOffset[block] = offset;
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            rollback(startSegments, startLength, e);
+            segmentLength = startLength;
+            diskBytes = startDiskBytes;
+            throw e;
+        }
+        for (int block = 0; block < blocks; block++) {
+            addBlock(pendingSegment[block], pendingOffset[block],
+                Math.min(BLOCK_SIZE, projects.size() - block * BLOCK_SIZE));
+        }
+    }
+
+    /**
+     * Removes the segments an append started and truncates the one it
+     * continued, recording any failure on the append's exception
+     */
+    private void rollback(int startSegments, long startLength, Exception failure) {
+        while (segments.size() > startSegments) {
+            int segment = segments.size() - 1;
+            try {
+                segments.remove(segment).close();
+                Files.deleteIfExists(segmentFile(segment));
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+        if (startSegments > 0) {
+            try {
+                segments.get(startSegments - 1).truncate(startLength);
+            } catch (IOException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private void startSegment() throws IOException {
+        segments.add(FileChannel.open(segmentFile(segments.size()), StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE));
+        segmentLength = 0;
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static ByteBuffer encode(List<Project> block) throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(block.size() * 96);
+        DataOutputStream out = new DataOutputStream(raw);
+        for (Project p : block) {
+            ProjectCodec.write(out, p);
+        }
+        out.flush();
+        byte[] input = raw.toByteArray();
+
+        Deflater deflater = new Deflater();
+        byte[] output = new byte[input.length + 64];
+        int compressed;
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            compressed = deflater.deflate(output);
+            while (!deflater.finished()) {
+                output = Arrays.copyOf(output, output.length * 2);
+                compressed += deflater.deflate(output, compressed, output.length - compressed);
+            }
+        } finally {
+            deflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(output, 0, compressed);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + compressed);
+        buffer.putInt(block.size()).putInt(input.length).putInt(compressed).putInt((int) crc.getValue());
+        buffer.put(output, 0, compressed);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Gets the number of archived projects
+     * @return archived project count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the bytes the archive occupies on disk
+     * @return total segment length
+     */
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    /**
+     * Gets the number of blocks, which is also the number of sparse index entries
+     * @return block count
+     */
+    public synchronized int getBlockCount() {
+        return blockFirst.size();
+    }
+
+    /**
+     * Gets an archived project, reading its block from disk unless it was
+     * the last block read. Each call that reads a block returns new frozen
+     * Project instances equal to the archived ones.
+     * @param index archive position
+     * @return archived project
+     * @throws IndexOutOfBoundsException if index is invalid
+     * @throws UncheckedIOException if the block cannot be read or is corrupt
+     */
+    public Project get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        Block block = cached;
+        if (block == null || index < block.first || index >= block.first + block.projects.length) {
+            block = readBlock(index);
+            cached = block;
+        }
+        return block.projects[index - block.first];
+    }
+
+    /**
+     * Passes the first count archived projects to an action in archive order,
+     * reading each block once. The blocks are not cached, so a full walk does
+     * not evict the block other readers are using.
+     * @param count number of archived projects to walk
+     * @param action action to run for each project
+     * @throws IllegalArgumentException if count is negative or past the end of the archive
+     * @throws UncheckedIOException if a block cannot be read or is corrupt
+     */
+    public void forEach(int count, Consumer<? super Project> action) {
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Count must be between 0 and " + size);
+        }
+        int index = 0;
+        while (index < count) {
+            Block block = readBlock(index);
+            int end = Math.min(count, block.first + block.projects.length);
+            for (; index < end; index++) {
+                action.accept(block.projects[index - block.first]);
+            }
+        }
+    }
+
+    /**
+     * Gets a read-only list over the first count archived projects. The list
+     * reads blocks lazily as it is walked; nothing is loaded up front.
+     * @param count number of archived projects the view covers
+     * @return lazy list view
+     * @throws IllegalArgumentException if count is negative or past the end of the archive
+     */
+    public List<Project> view(int count) {
+        if (count < 0 || count > size) {
+            throw new IllegalArgumentException("Count must be between 0 and " + size);
+        }
+        return new ArchiveView(count);
+    }
+
+    private final class ArchiveView extends AbstractList<Project> implements RandomAccess {
+        private final int count;
+
+        ArchiveView(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public Project get(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+            }
+            return CompletedArchive.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    private Block readBlock(int index) {
+        FileChannel channel;
+        long offset;
+        int first;
+        synchronized (this) {
+            checkOpen();
+            // Block positions are distinct and ascending; a miss lands just past the block holding index
+            int found = blockFirst.binarySearch(index);
+            int block = found >= 0 ? found : -found - 2;
+            channel = segments.get(blockSegment.get(block));
+            offset = blockOffset.get(block);
+            first = blockFirst.get(block);
+        }
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            readFully(channel, header, offset);
+            header.flip();
+            int count = header.getInt();
+            int rawLength = header.getInt();
+            int compressedLength = header.getInt();
+            int crc = header.getInt();
+            byte[] compressed = new byte[compressedLength];
+            readFully(channel, ByteBuffer.wrap(compressed), offset + HEADER_BYTES);
+            CRC32 check = new CRC32();
+            check.update(compressed);
+            if ((int) check.getValue() != crc) {
+                throw new IOException("Corrupt archive block at offset " + offset);
+            }
+
+            byte[] raw = new byte[rawLength];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                int read = 0;
+                while (read < rawLength && !inflater.finished()) {
+                    read += inflater.inflate(raw, read, rawLength - read);
+                }
+            } finally {
+                inflater.end();
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+            Project[] projects = new Project[count];
+            for (int i = 0; i < count; i++) {
+                // Frozen like every other copy a tracker hands out
+                projects[i] = ProjectCodec.read(in).storedCopy(0);
+            }
+            return new Block(first, projects);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Corrupt archive block at offset " + offset, e));
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of archive segment");
+            }
+            position += read;
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Archive is closed");
+        }
+    }
+
+    /**
+     * Closes every segment file
+     * @throws IOException if a segment cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        cached = null;
+        IOException failure = null;
+        for (FileChannel channel : segments) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -10,18 +10,16 @@ public class DynamicArray<T> {
     private T[] array;
     private int size;
     private int capacity;
+    private final GrowthPolicy policy;
+    private long resizeCount;
+    private long bytesCopied;
     private static final int INITIAL_CAPACITY = 10;
-    private static final double GROWTH_FACTOR = 2.0;
-    private static final double SHRINK_FACTOR = 0.25;
 
     /**
      * Constructs a new dynamic array with default initial capacity
      */
-    @SuppressWarnings("unchecked")
     public DynamicArray() {
-        this.capacity = INITIAL_CAPACITY;
-        this.size = 0;
-        this.array = (T[]) new Object[capacity];
+        this(INITIAL_CAPACITY, GrowthPolicy.DOUBLING);
     }
 
     /**
@@ -29,11 +27,25 @@ public class DynamicArray<T> {
      * @param initialCapacity the initial capacity of the array
      * @throws IllegalArgumentException if initialCapacity is negative
      */
-    @SuppressWarnings("unchecked")
     public DynamicArray(int initialCapacity) {
+        this(initialCapacity, GrowthPolicy.DOUBLING);
+    }
+
+    /**
+     * Constructs a new dynamic array with specified initial capacity and growth policy
+     * @param initialCapacity the initial capacity of the array
+     * @param policy policy deciding when and how far the array grows and shrinks
+     * @throws IllegalArgumentException if initialCapacity is negative or policy is null
+     */
+    @SuppressWarnings("unchecked")
+    public DynamicArray(int initialCapacity, GrowthPolicy policy) {
         if (initialCapacity < 0) {
             throw new IllegalArgumentException("Initial capacity cannot be negative");
         }
+        if (policy == null) {
+            throw new IllegalArgumentException("Growth policy cannot be null");
+        }
+        this.policy = policy;
         this.capacity = initialCapacity;
         this.size = 0;
         this.array = (T[]) new Object[capacity];
@@ -49,7 +61,7 @@ public class DynamicArray<T> {
             throw new IllegalArgumentException("Cannot add null element");
         }
         if (size == capacity) {
-            resize(Math.max(capacity + 1, (int)(capacity * GROWTH_FACTOR)));
+            resize(policy.grow(capacity, size + 1));
         }
         array[size++] = element;
     }
@@ -69,7 +81,7 @@ public class DynamicArray<T> {
             throw new IllegalArgumentException("Cannot add null element");
         }
         if (size == capacity) {
-            resize(Math.max(capacity + 1, (int)(capacity * GROWTH_FACTOR)));
+            resize(policy.grow(capacity, size + 1));
         }
         System.arraycopy(array, index, array, index + 1, size - index);
         array[index] = element;
@@ -90,9 +102,10 @@ public class DynamicArray<T> {
         System.arraycopy(array, index + 1, array, index, size - index - 1);
         array[--size] = null;
 
-        // Shrink array if necessary
-        if (size > 0 && size < capacity * SHRINK_FACTOR) {
-            resize(Math.max(INITIAL_CAPACITY, (int)(capacity / GROWTH_FACTOR)));
+        // Shrink array if the policy asks for it
+        int shrunk = policy.shrink(capacity, size);
+        if (shrunk != capacity) {
+            resize(shrunk);
         }
         return removedElement;
     }
@@ -190,6 +203,8 @@ public class DynamicArray<T> {
         System.arraycopy(array, 0, newArray, 0, size);
         array = newArray;
         capacity = newCapacity;
+        resizeCount++;
+        bytesCopied += (long) size * MemoryReport.REFERENCE_BYTES;
     }
 
     /**
@@ -208,6 +223,22 @@ public class DynamicArray<T> {
         return capacity; 
     }
 
+    /**
+     * Gets the policy deciding how the array grows and shrinks
+     * @return growth policy
+     */
+    public GrowthPolicy getGrowthPolicy() {
+        return policy;
+    }
+
+    /**
+     * Reports the memory the backing array reserves and what resizing has cost
+     * @return memory report of this array
+     */
+    public MemoryReport memoryReport() {
+        return MemoryReport.of(capacity, size, MemoryReport.REFERENCE_BYTES, resizeCount, bytesCopied);
+    }
+
     /**
      * Checks if the array is empty
      * @return true if array is empty
@@ -0,0 +1,128 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Decides how the dynamic arrays grow when full and shrink when mostly
+ * empty. Doubling keeps appends cheap but can leave half of a huge array
+ * unused; smaller factors, fixed chunks or a fixed reserve trade more
+ * copying for less slack. Policies are stateless and may be shared.
+ */
+public interface GrowthPolicy {
+
+    /** Doubles when full, halves when under a quarter full; the default */
+    GrowthPolicy DOUBLING = geometric(2.0);
+
+    /** Grows by half when full, shrinks by a third once under 44% full */
+    GrowthPolicy ONE_AND_A_HALF = geometric(1.5);
+
+    /**
+     * Returns the capacity to grow to
+     * @param capacity current capacity
+     * @param required smallest capacity that fits the pending elements
+     * @return new capacity, at least required
+     */
+    int grow(int capacity, int required);
+
+    /**
+     * Returns the capacity to shrink to after a removal
+     * @param capacity current capacity
+     * @param size number of elements now stored
+     * @return new capacity, at least size; capacity itself to keep the array
+     */
+    int shrink(int capacity, int size);
+
+    /**
+     * Creates a policy that multiplies the capacity by a factor when full
+     * and divides it by the factor once the array is less than 1 / factor^2
+     * full, never shrinking below the default initial capacity of 10
+     * @param factor growth factor, greater than 1
+     * @return geometric policy
+     * @throws IllegalArgumentException if factor is not greater than 1
+     */
+    static GrowthPolicy geometric(double factor) {
+        if (!(factor > 1.0)) {
+            throw new IllegalArgumentException("Growth factor must be greater than 1");
+        }
+        double shrinkBelow = 1.0 / (factor * factor);
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int required) {
+                return (int) Math.max(required, Math.min(Integer.MAX_VALUE - 8, (long) (capacity * factor)));
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                if (size > 0 && size < capacity * shrinkBelow) {
+                    return Math.max(size, Math.max(10, (int) (capacity / factor)));
+                }
+                return capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "geometric(" + factor + ")";
+            }
+        };
+    }
+
+    /**
+     * Creates a policy that grows in fixed chunks and gives a chunk back once
+     * two whole chunks are unused, so slack never exceeds two chunks
+     * @param chunk number of elements added per growth step
+     * @return chunked-linear policy
+     * @throws IllegalArgumentException if chunk is not positive
+     */
+    static GrowthPolicy chunked(int chunk) {
+        if (chunk <= 0) {
+            throw new IllegalArgumentException("Chunk must be positive");
+        }
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int required) {
+                long rounded = ((long) required + chunk - 1) / chunk * chunk;
+                return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(rounded, (long) capacity + chunk));
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                return capacity - size >= 2 * chunk ? capacity - chunk : capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "chunked(" + chunk + ")";
+            }
+        };
+    }
+
+    /**
+     * Creates a policy that keeps a fixed number of free slots: it grows to
+     * the required size plus the reserve and trims back to that once more
+     * than twice the reserve is free
+     * @param reserve free slots kept after each resize
+     * @return fixed-reserve policy
+     * @throws IllegalArgumentException if reserve is negative
+     */
+    static GrowthPolicy fixedReserve(int reserve) {
+        if (reserve < 0) {
+            throw new IllegalArgumentException("Reserve cannot be negative");
+        }
+        return new GrowthPolicy() {
+            @Override
+            public int grow(int capacity, int required) {
+                return (int) Math.min(Integer.MAX_VALUE - 8, (long) required + Math.max(1, reserve));
+            }
+
+            @Override
+            public int shrink(int capacity, int size) {
+                return capacity - size > 2 * Math.max(1, reserve) ? size + reserve : capacity;
+            }
+
+            @Override
+            public String toString() {
+                return "fixedReserve(" + reserve + ")";
+            }
+        };
+    }
+}
@@ -0,0 +1,330 @@
+package ProjectTracker;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Dynamic array of primitive longs. It follows the growth and shrink policy
+ * of DynamicArray but stores values unboxed, so timestamps, epoch days and hour totals
+ * kept alongside projects cost eight bytes each and no Long objects.
+ */
+public class LongDynamicArray {
+    private long[] array;
+    private int size;
+    private int capacity;
+    private final GrowthPolicy policy;
+    private long resizeCount;
+    private long bytesCopied;
+    private static final int INITIAL_CAPACITY = 10;
+
+    /**
+     * Constructs a new dynamic array with default initial capacity
+     */
+    public LongDynamicArray() {
+        this(INITIAL_CAPACITY, GrowthPolicy.DOUBLING);
+    }
+
+    /**
+     * Constructs a new dynamic array with specified initial capacity
+     * @param initialCapacity the initial capacity of the array
+     * @throws IllegalArgumentException if initialCapacity is negative
+     */
+    public LongDynamicArray(int initialCapacity) {
+        this(initialCapacity, GrowthPolicy.DOUBLING);
+    }
+
+    /**
+     * Constructs a new dynamic array with specified initial capacity and growth policy
+     * @param initialCapacity the initial capacity of the array
+     * @param policy policy deciding when and how far the array grows and shrinks
+     * @throws IllegalArgumentException if initialCapacity is negative or policy is null
+     */
+    public LongDynamicArray(int initialCapacity, GrowthPolicy policy) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Growth policy cannot be null");
+        }
+        this.policy = policy;
+        this.capacity = initialCapacity;
+        this.size = 0;
+        this.array = new long[capacity];
+    }
+
+    /**
+     * Adds a value to the end of the array
+     * @param value value to add
+     */
+    public void add(long value) {
+        if (size == capacity) {
+            resize(policy.grow(capacity, size + 1));
+        }
+        array[size++] = value;
+    }
+
+    /**
+     * Adds a value at a specific index
+     * @param index index at which to add the value
+     * @param value value to add
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    public void add(int index, long value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (size == capacity) {
+            resize(policy.grow(capacity, size + 1));
+        }
+        System.arraycopy(array, index, array, index + 1, size - index);
+        array[index] = value;
+        size++;
+    }
+
+    /**
+     * Adds every value of an array to the end, growing at most once
+     * @param values values to add
+     * @throws IllegalArgumentException if values is null
+     */
+    public void addAll(long[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, array, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Removes and returns the value at the specified index
+     * @param index index of value to remove
+     * @return the removed value
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    public long remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        long removedValue = array[index];
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+
+        // Shrink array if the policy asks for it
+        int shrunk = policy.shrink(capacity, size);
+        if (shrunk != capacity) {
+            resize(shrunk);
+        }
+        return removedValue;
+    }
+
+    /**
+     * Removes and returns the last value, so the array can serve as a stack
+     * @return the removed value
+     * @throws IllegalStateException if array is empty
+     */
+    public long removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("Array is empty");
+        }
+        return remove(size - 1);
+    }
+
+    /**
+     * Gets the value at the specified index
+     * @param index index of value to get
+     * @return value at specified index
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return array[index];
+    }
+
+    /**
+     * Sets the value at the specified index
+     * @param index index at which to set value
+     * @param value value to set
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    public void set(int index, long value) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        array[index] = value;
+    }
+
+    /**
+     * Clears all values from the array
+     */
+    public void clear() {
+        this.capacity = INITIAL_CAPACITY;
+        this.size = 0;
+        this.array = new long[capacity];
+    }
+
+    /**
+     * Checks if the array contains the specified value
+     * @param value value to check for
+     * @return true if value is found
+     */
+    public boolean contains(long value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified value
+     * @param value value to find
+     * @return index of value, or -1 if not found
+     */
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sorts the values in ascending order
+     */
+    public void sort() {
+        Arrays.sort(array, 0, size);
+    }
+
+    /**
+     * Searches the array, which must be sorted, for a value
+     * @param value value to find
+     * @return index of value, or (-(insertion point) - 1) if not found
+     */
+    public int binarySearch(long value) {
+        return Arrays.binarySearch(array, 0, size, value);
+    }
+
+    /**
+     * Inserts a value into the array, which must be sorted, keeping it sorted.
+     * Equal values are placed after the ones already present.
+     * @param value value to insert
+     * @return index the value was inserted at
+     */
+    public int addSorted(long value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (array[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        add(low, value);
+        return low;
+    }
+
+    /**
+     * Returns the sum of all values
+     * @return sum of the values, 0 if the array is empty
+     */
+    public long sum() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += array[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns a copy of the values in order
+     * @return new array of the values
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(array, size);
+    }
+
+    /**
+     * Performs an action on every value in order without boxing.
+     * The array must not be modified by the action.
+     * @param action action to perform
+     */
+    public void forEach(LongConsumer action) {
+        long[] values = array;
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    /**
+     * Grows the array so it can hold at least minCapacity values
+     * @param minCapacity capacity required
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity) {
+            resize(policy.grow(capacity, minCapacity));
+        }
+    }
+
+    /**
+     * Resizes the array to the specified capacity
+     * @param newCapacity new capacity for the array
+     */
+    private void resize(int newCapacity) {
+        array = Arrays.copyOf(array, newCapacity);
+        capacity = newCapacity;
+        resizeCount++;
+        bytesCopied += (long) size * 8;
+    }
+
+    /**
+     * Returns the current size of the array
+     * @return current size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the current capacity of the array
+     * @return current capacity
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the policy deciding how the array grows and shrinks
+     * @return growth policy
+     */
+    public GrowthPolicy getGrowthPolicy() {
+        return policy;
+    }
+
+    /**
+     * Reports the memory the backing array reserves and what resizing has cost
+     * @return memory report of this array
+     */
+    public MemoryReport memoryReport() {
+        return MemoryReport.of(capacity, size, 8, resizeCount, bytesCopied);
+    }
+
+    /**
+     * Checks if the array is empty
+     * @return true if array is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Trims the capacity to the current size
+     */
+    public void trimToSize() {
+        if (size < capacity) {
+            resize(size);
+        }
+    }
+}
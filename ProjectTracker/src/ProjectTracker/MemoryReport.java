@@ -0,0 +1,111 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Immutable memory footprint of one or more array-backed containers: the
+ * bytes their backing arrays reserve and use, and how much resizing has
+ * cost so far. Reports from separate containers add up with plus. Sizes
+ * count backing array slots only, not the objects the slots refer to.
+ */
+public final class MemoryReport {
+    /** Bytes per reference slot: 4 with compressed references, which heaps under 32 GB use */
+    static final int REFERENCE_BYTES =
+        "32".equals(System.getProperty("sun.arch.data.model")) || Runtime.getRuntime().maxMemory() < (32L << 30)
+            ? 4 : 8;
+
+    /** Report of nothing, the identity for plus */
+    public static final MemoryReport EMPTY = new MemoryReport(0, 0, 0, 0, 0, 0);
+
+    private final long capacity;
+    private final long size;
+    private final long allocatedBytes;
+    private final long usedBytes;
+    private final long resizeCount;
+    private final long bytesCopied;
+
+    /**
+     * Constructs a report
+     * @param capacity slots reserved
+     * @param size slots in use
+     * @param allocatedBytes bytes reserved by the slots
+     * @param usedBytes bytes of the slots in use
+     * @param resizeCount number of times a backing array was replaced
+     * @param bytesCopied bytes copied by those replacements
+     */
+    MemoryReport(long capacity, long size, long allocatedBytes, long usedBytes, long resizeCount, long bytesCopied) {
+        this.capacity = capacity;
+        this.size = size;
+        this.allocatedBytes = allocatedBytes;
+        this.usedBytes = usedBytes;
+        this.resizeCount = resizeCount;
+        this.bytesCopied = bytesCopied;
+    }
+
+    /**
+     * Creates the report of one array
+     * @param capacity slots reserved
+     * @param size slots in use
+     * @param slotBytes bytes per slot
+     * @param resizeCount number of resizes so far
+     * @param bytesCopied bytes copied by resizes so far
+     * @return report
+     */
+    static MemoryReport of(int capacity, int size, int slotBytes, long resizeCount, long bytesCopied) {
+        return new MemoryReport(capacity, size, (long) capacity * slotBytes, (long) size * slotBytes,
+            resizeCount, bytesCopied);
+    }
+
+    /**
+     * Adds another report to this one
+     * @param other report to add
+     * @return combined report
+     * @throws IllegalArgumentException if other is null
+     */
+    public MemoryReport plus(MemoryReport other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Report cannot be null");
+        }
+        return new MemoryReport(capacity + other.capacity, size + other.size,
+            allocatedBytes + other.allocatedBytes, usedBytes + other.usedBytes,
+            resizeCount + other.resizeCount, bytesCopied + other.bytesCopied);
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Gets the bytes reserved but not in use
+     * @return bytes of slack capacity
+     */
+    public long getSlackBytes() {
+        return allocatedBytes - usedBytes;
+    }
+
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d slots, %d bytes allocated, %d slack, %d resizes, %d bytes copied",
+            size, capacity, allocatedBytes, getSlackBytes(), resizeCount, bytesCopied);
+    }
+}
@@ -0,0 +1,728 @@
+package ProjectTracker;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Immutable persistent vector, a B-tree of nodes up to 32 wide in which
+ * every internal node keeps the running sizes of its children, as relaxed
+ * radix balanced trees do, plus a tail leaf of up to 32 elements kept
+ * outside the tree. Every update returns a new vector that shares all
+ * untouched nodes with the old one, so keeping old versions around is
+ * cheap. Lookups descend by size. An append copies only the tail until it
+ * is full, and then moves the tail into the tree as a whole leaf. Updates,
+ * and inserts or removals at any index, copy one root-to-leaf path plus at
+ * most one neighbour per level, which is O(log n).
+ *
+ * The tree keeps running sizes rather than being a plain 32-way radix
+ * trie, because the tracker deletes and completes projects from the middle
+ * of its lists; a radix trie can only drop elements from the end, so a
+ * removal there would rebuild everything after it.
+ *
+ * A node that overflows is split in half, except at the end of the tree,
+ * where the full node is kept and a new one started so that appending
+ * fills nodes completely. A node that drops below a quarter full is merged
+ * with its right neighbour or takes entries from it; only the last node on
+ * each level may stay smaller.
+ *
+ * A Transient gives a mutable view for batch updates that edits its own
+ * nodes in place and is turned back into a persistent vector in O(1).
+ * @param <T> the type of elements in the vector
+ */
+public final class PersistentVector<T> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MIN = WIDTH / 4;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, newLeaf(null), newLeaf(null));
+
+    private final int size;
+    // Number of internal levels; 0 when the root is a leaf
+    private final int height;
+    private final Node root;
+    // Last elements of the vector, outside the tree; may be empty
+    private final Node tail;
+
+    /**
+     * Tree node; edit identifies the transient allowed to modify it in place.
+     * A leaf holds elements and has no sizes; an internal node holds child
+     * nodes, and sizes[i] is the number of elements in children 0 to i.
+     */
+    private static final class Node {
+        final Object edit;
+        final Object[] array;
+        final int[] sizes;
+        int count;
+
+        Node(Object edit, Object[] array, int[] sizes, int count) {
+            this.edit = edit;
+            this.array = array;
+            this.sizes = sizes;
+            this.count = count;
+        }
+    }
+
+    private PersistentVector(int size, int height, Node root, Node tail) {
+        this.size = size;
+        this.height = height;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * Returns the empty vector
+     * @param <T> the type of elements in the vector
+     * @return empty vector
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    /**
+     * Builds a vector from an iterable using a transient
+     * @param elements elements in order
+     * @param <T> the type of elements in the vector
+     * @return vector holding the elements
+     */
+    public static <T> PersistentVector<T> of(Iterable<? extends T> elements) {
+        Transient<T> builder = PersistentVector.<T>empty().asTransient();
+        for (T element : elements) {
+            builder.add(element);
+        }
+        return builder.persistent();
+    }
+
+    /**
+     * Returns the number of elements
+     * @return current size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the vector is empty
+     * @return true if vector is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the element at the specified index
+     * @param index index of element to get
+     * @return element at specified index
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        checkIndex(index, size);
+        int tailOffset = size - tail.count;
+        return (T) (index >= tailOffset ? tail.array[index - tailOffset] : elementAt(root, height, index));
+    }
+
+    /**
+     * Returns a vector with an element appended
+     * @param element element to add
+     * @return new vector
+     * @throws IllegalArgumentException if element is null
+     */
+    public PersistentVector<T> add(T element) {
+        return add(size, element);
+    }
+
+    /**
+     * Returns a vector with an element inserted at a specific index
+     * @param index index at which to add the element
+     * @param element element to add
+     * @return new vector
+     * @throws IndexOutOfBoundsException if index is invalid
+     * @throws IllegalArgumentException if element is null
+     */
+    public PersistentVector<T> add(int index, T element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        checkElement(element);
+        int tailOffset = size - tail.count;
+        Node[] overflow = new Node[1];
+        if (index < tailOffset) {
+            Node newRoot = insert(root, height, index, element, false, null, overflow);
+            if (overflow[0] != null) {
+                return new PersistentVector<>(size + 1, height + 1, parentOf(newRoot, overflow[0], null), tail);
+            }
+            return new PersistentVector<>(size + 1, height, newRoot, tail);
+        }
+        Node newTail = editable(tail, null);
+        putEntry(newTail, index - tailOffset, element, true, null, overflow);
+        if (overflow[0] == null) {
+            return new PersistentVector<>(size + 1, height, root, newTail);
+        }
+        // The tail was full: its first part goes into the tree and the rest starts a new tail
+        Node[] grown = {root};
+        int newHeight = pushLeaf(grown, height, tailOffset, newTail, null);
+        return new PersistentVector<>(size + 1, newHeight, grown[0], overflow[0]);
+    }
+
+    /**
+     * Returns a vector with the element at the specified index replaced
+     * @param index index at which to set element
+     * @param element element to set
+     * @return new vector
+     * @throws IndexOutOfBoundsException if index is invalid
+     * @throws IllegalArgumentException if element is null
+     */
+    public PersistentVector<T> set(int index, T element) {
+        checkIndex(index, size);
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot set null element");
+        }
+        int tailOffset = size - tail.count;
+        if (index >= tailOffset) {
+            return new PersistentVector<>(size, height, root, replace(tail, 0, index - tailOffset, element, null));
+        }
+        return new PersistentVector<>(size, height, replace(root, height, index, element, null), tail);
+    }
+
+    /**
+     * Returns a vector without the element at the specified index
+     * @param index index of element to remove
+     * @return new vector
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    public PersistentVector<T> remove(int index) {
+        checkIndex(index, size);
+        if (size == 1) {
+            return empty();
+        }
+        int tailOffset = size - tail.count;
+        if (index >= tailOffset) {
+            return new PersistentVector<>(size - 1, height, root, delete(tail, 0, index - tailOffset, null));
+        }
+        Node newRoot = delete(root, height, index, null);
+        int newHeight = height;
+        while (newHeight > 0 && newRoot.count == 1) {
+            newRoot = (Node) newRoot.array[0];
+            newHeight--;
+        }
+        return new PersistentVector<>(size - 1, newHeight, newRoot, tail);
+    }
+
+    /**
+     * Returns a vector without its last element
+     * @return new vector
+     * @throws IllegalStateException if the vector is empty
+     */
+    public PersistentVector<T> removeLast() {
+        if (size == 0) {
+            throw new IllegalStateException("Vector is empty");
+        }
+        return remove(size - 1);
+    }
+
+    /**
+     * Returns the index of the first occurrence of the specified element
+     * @param element element to find
+     * @return index of element, or -1 if not found
+     */
+    public int indexOf(T element) {
+        int tailOffset = size - tail.count;
+        int found = tailOffset == 0 ? -1 : indexOf(root, height, element);
+        if (found == -1) {
+            found = indexOf(tail, 0, element);
+            return found == -1 ? -1 : tailOffset + found;
+        }
+        return found;
+    }
+
+    /**
+     * Performs an action on every element in order without allocating
+     * @param action action to perform
+     */
+    public void forEach(Consumer<? super T> action) {
+        forEach(0, size, action);
+    }
+
+    /**
+     * Performs an action on the elements in an index range, one leaf at a
+     * time, without allocating
+     * @param fromIndex first index, inclusive
+     * @param toIndex last index, exclusive
+     * @param action action to perform
+     * @throws IndexOutOfBoundsException if the range is invalid
+     */
+    public void forEach(int fromIndex, int toIndex, Consumer<? super T> action) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        int tailOffset = size - tail.count;
+        if (fromIndex < Math.min(toIndex, tailOffset)) {
+            forEach(root, height, fromIndex, Math.min(toIndex, tailOffset), action);
+        }
+        if (Math.max(fromIndex, tailOffset) < toIndex) {
+            forEach(tail, 0, Math.max(fromIndex, tailOffset) - tailOffset, toIndex - tailOffset, action);
+        }
+    }
+
+    /**
+     * Checks if the vector contains the specified element
+     * @param element element to check for
+     * @return true if element is found
+     */
+    public boolean contains(T element) {
+        return indexOf(element) != -1;
+    }
+
+    /**
+     * Returns a mutable transient view that starts out equal to this vector
+     * @return new transient
+     */
+    public Transient<T> asTransient() {
+        return new Transient<>(this);
+    }
+
+    /**
+     * Mutable builder over a persistent vector. Nodes created by a transient
+     * are edited in place until persistent() is called, after which the
+     * transient can no longer be used.
+     * @param <T> the type of elements in the vector
+     */
+    public static final class Transient<T> {
+        private Object edit;
+        private int size;
+        private int height;
+        private final Node[] root = new Node[1];
+        private Node tail;
+        private final Node[] overflow = new Node[1];
+
+        private Transient(PersistentVector<T> source) {
+            this.edit = new Object();
+            this.size = source.size;
+            this.height = source.height;
+            this.root[0] = source.root;
+            this.tail = source.tail;
+        }
+
+        /**
+         * Returns the number of elements
+         * @return current size
+         */
+        public int size() {
+            ensureEditable();
+            return size;
+        }
+
+        /**
+         * Gets the element at the specified index
+         * @param index index of element to get
+         * @return element at specified index
+         * @throws IndexOutOfBoundsException if index is invalid
+         */
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            ensureEditable();
+            checkIndex(index, size);
+            int tailOffset = size - tail.count;
+            return (T) (index >= tailOffset ? tail.array[index - tailOffset] : elementAt(root[0], height, index));
+        }
+
+        /**
+         * Appends an element in place
+         * @param element element to add
+         * @return this transient
+         * @throws IllegalArgumentException if element is null
+         */
+        public Transient<T> add(T element) {
+            ensureEditable();
+            checkElement(element);
+            if (tail.count == WIDTH) {
+                height = pushLeaf(root, height, size - WIDTH, tail, edit);
+                tail = newLeaf(edit);
+            }
+            tail = editable(tail, edit);
+            tail.array[tail.count++] = element;
+            size++;
+            return this;
+        }
+
+        /**
+         * Replaces the element at the specified index in place
+         * @param index index at which to set element
+         * @param element element to set
+         * @return this transient
+         * @throws IndexOutOfBoundsException if index is invalid
+         * @throws IllegalArgumentException if element is null
+         */
+        public Transient<T> set(int index, T element) {
+            ensureEditable();
+            checkIndex(index, size);
+            if (element == null) {
+                throw new IllegalArgumentException("Cannot set null element");
+            }
+            int tailOffset = size - tail.count;
+            if (index >= tailOffset) {
+                tail = replace(tail, 0, index - tailOffset, element, edit);
+            } else {
+                root[0] = replace(root[0], height, index, element, edit);
+            }
+            return this;
+        }
+
+        /**
+         * Removes the last element in place
+         * @return this transient
+         * @throws IllegalStateException if the vector is empty
+         */
+        public Transient<T> removeLast() {
+            ensureEditable();
+            if (size == 0) {
+                throw new IllegalStateException("Vector is empty");
+            }
+            if (tail.count > 0) {
+                tail = delete(tail, 0, tail.count - 1, edit);
+            } else {
+                root[0] = delete(root[0], height, size - 1, edit);
+                while (height > 0 && root[0].count == 1) {
+                    root[0] = (Node) root[0].array[0];
+                    height--;
+                }
+            }
+            size--;
+            return this;
+        }
+
+        /**
+         * Returns a persistent vector with the current contents and retires this transient
+         * @return persistent vector
+         */
+        public PersistentVector<T> persistent() {
+            ensureEditable();
+            edit = null;
+            return size == 0 ? empty() : new PersistentVector<>(size, height, root[0], tail);
+        }
+
+        private void ensureEditable() {
+            if (edit == null) {
+                throw new IllegalStateException("Transient used after persistent() call");
+            }
+        }
+    }
+
+    private static Node newLeaf(Object edit) {
+        return new Node(edit, new Object[WIDTH], null, 0);
+    }
+
+    /**
+     * Returns the node itself if the given transient owns it, otherwise a copy
+     * owned by that transient; persistent updates pass a null edit and
+     * always copy
+     */
+    private static Node editable(Node node, Object edit) {
+        if (edit != null && node.edit == edit) {
+            return node;
+        }
+        return new Node(edit, node.array.clone(), node.sizes == null ? null : node.sizes.clone(), node.count);
+    }
+
+    private static Node parentOf(Node left, Node right, Object edit) {
+        Node parent = new Node(edit, new Object[WIDTH], new int[WIDTH], 2);
+        parent.array[0] = left;
+        parent.array[1] = right;
+        fixSizes(parent, 0);
+        return parent;
+    }
+
+    private static int sizeOf(Node node) {
+        if (node.sizes == null) {
+            return node.count;
+        }
+        return node.count == 0 ? 0 : node.sizes[node.count - 1];
+    }
+
+    /**
+     * Recomputes the running sizes of an internal node from a slot onward
+     */
+    private static void fixSizes(Node node, int from) {
+        int total = from == 0 ? 0 : node.sizes[from - 1];
+        for (int i = from; i < node.count; i++) {
+            total += sizeOf((Node) node.array[i]);
+            node.sizes[i] = total;
+        }
+    }
+
+    /**
+     * Finds the child holding an index. A child at this height holds at
+     * most 32^height elements, so index >>> (5 * height) is never past the
+     * right slot and is exact when the nodes to the left are full. An index
+     * equal to the subtree size, used for appending, maps to the last child.
+     */
+    private static int slotFor(Node node, int height, int index) {
+        int shift = BITS * height;
+        int slot = shift < Integer.SIZE - 1 ? Math.min(index >>> shift, node.count - 1) : 0;
+        while (slot < node.count - 1 && node.sizes[slot] <= index) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private static Object elementAt(Node node, int height, int index) {
+        for (int level = height; level > 0; level--) {
+            int slot = slotFor(node, level, index);
+            if (slot > 0) {
+                index -= node.sizes[slot - 1];
+            }
+            node = (Node) node.array[slot];
+        }
+        return node.array[index];
+    }
+
+    private static Node replace(Node node, int height, int index, Object element, Object edit) {
+        Node result = editable(node, edit);
+        if (height == 0) {
+            result.array[index] = element;
+            return result;
+        }
+        int slot = slotFor(result, height, index);
+        int local = slot == 0 ? index : index - result.sizes[slot - 1];
+        result.array[slot] = replace((Node) result.array[slot], height - 1, local, element, edit);
+        return result;
+    }
+
+    /**
+     * Inserts an element into a subtree and returns the subtree's new root.
+     * If the root had to split, the node split off to its right is left in
+     * overflow[0].
+     * @param atEnd whether the element goes after every other element of the vector
+     */
+    private static Node insert(Node node, int height, int index, Object element, boolean atEnd,
+                               Object edit, Node[] overflow) {
+        Node result = editable(node, edit);
+        if (height == 0) {
+            putEntry(result, index, element, atEnd, edit, overflow);
+            return result;
+        }
+        int slot = slotFor(result, height, index);
+        int local = slot == 0 ? index : index - result.sizes[slot - 1];
+        result.array[slot] = insert((Node) result.array[slot], height - 1, local, element, atEnd, edit, overflow);
+        Node split = overflow[0];
+        if (split == null) {
+            for (int i = slot; i < result.count; i++) {
+                result.sizes[i]++;
+            }
+            return result;
+        }
+        overflow[0] = null;
+        putEntry(result, slot + 1, split, atEnd, edit, overflow);
+        if (overflow[0] == null) {
+            fixSizes(result, slot);
+        } else {
+            fixSizes(result, 0);
+            fixSizes(overflow[0], 0);
+        }
+        return result;
+    }
+
+    /**
+     * Puts an entry at a slot of an editable node, shifting later entries
+     * right. A full node keeps its first half and moves the rest to a new
+     * node left in overflow[0]; at the end of the vector it stays full and
+     * the new node starts with just the entry. Running sizes of internal
+     * nodes are left to the caller.
+     */
+    private static void putEntry(Node node, int slot, Object entry, boolean atEnd, Object edit, Node[] overflow) {
+        if (node.count < WIDTH) {
+            System.arraycopy(node.array, slot, node.array, slot + 1, node.count - slot);
+            node.array[slot] = entry;
+            node.count++;
+            return;
+        }
+        Object[] all = new Object[WIDTH + 1];
+        System.arraycopy(node.array, 0, all, 0, slot);
+        all[slot] = entry;
+        System.arraycopy(node.array, slot, all, slot + 1, WIDTH - slot);
+        int leftCount = atEnd && slot == WIDTH ? WIDTH : (WIDTH + 1) / 2;
+        Node right = new Node(edit, new Object[WIDTH], node.sizes == null ? null : new int[WIDTH],
+            WIDTH + 1 - leftCount);
+        System.arraycopy(all, leftCount, right.array, 0, right.count);
+        System.arraycopy(all, 0, node.array, 0, leftCount);
+        Arrays.fill(node.array, leftCount, WIDTH, null);
+        node.count = leftCount;
+        overflow[0] = right;
+    }
+
+    /**
+     * Appends a leaf of at least MIN elements after the last element of a
+     * tree, keeping nodes along the right edge full. An underfull leaf that
+     * was last until now takes entries from the new one, so only the last
+     * leaf stays small.
+     * @param root holds the tree's root, replaced by the new root
+     * @param treeSize number of elements in the tree
+     * @return height of the new tree
+     */
+    private static int pushLeaf(Node[] root, int height, int treeSize, Node leaf, Object edit) {
+        if (treeSize == 0) {
+            root[0] = leaf;
+            return 0;
+        }
+        if (height == 0) {
+            Node parent = parentOf(root[0], leaf, edit);
+            if (root[0].count < MIN) {
+                parent.array[0] = editable(root[0], edit);
+                rebalance(parent, 0, edit);
+                if (parent.count == 1) {
+                    root[0] = (Node) parent.array[0];
+                    return 0;
+                }
+                fixSizes(parent, 0);
+            }
+            root[0] = parent;
+            return 1;
+        }
+        Node[] overflow = new Node[1];
+        Node newRoot = appendLeaf(root[0], height, leaf, edit, overflow);
+        if (overflow[0] != null) {
+            root[0] = parentOf(newRoot, overflow[0], edit);
+            return height + 1;
+        }
+        root[0] = newRoot;
+        return height;
+    }
+
+    private static Node appendLeaf(Node node, int height, Node leaf, Object edit, Node[] overflow) {
+        Node result = editable(node, edit);
+        int slot = result.count - 1;
+        if (height == 1) {
+            putEntry(result, result.count, leaf, true, edit, overflow);
+            if (overflow[0] == null && ((Node) result.array[slot]).count < MIN) {
+                result.array[slot] = editable((Node) result.array[slot], edit);
+                rebalance(result, slot, edit);
+            }
+        } else {
+            result.array[slot] = appendLeaf((Node) result.array[slot], height - 1, leaf, edit, overflow);
+            Node split = overflow[0];
+            if (split != null) {
+                overflow[0] = null;
+                putEntry(result, slot + 1, split, true, edit, overflow);
+            }
+        }
+        if (overflow[0] == null) {
+            fixSizes(result, slot);
+        } else {
+            fixSizes(result, 0);
+            fixSizes(overflow[0], 0);
+        }
+        return result;
+    }
+
+    /**
+     * Removes an element from a subtree and returns the subtree's new root,
+     * which may be left with fewer than MIN entries for its parent to fix
+     */
+    private static Node delete(Node node, int height, int index, Object edit) {
+        Node result = editable(node, edit);
+        if (height == 0) {
+            removeEntry(result, index);
+            return result;
+        }
+        int slot = slotFor(result, height, index);
+        int local = slot == 0 ? index : index - result.sizes[slot - 1];
+        Node child = delete((Node) result.array[slot], height - 1, local, edit);
+        result.array[slot] = child;
+        if (child.count == 0) {
+            removeEntry(result, slot);
+        } else if (child.count < MIN && slot < result.count - 1) {
+            rebalance(result, slot, edit);
+        }
+        fixSizes(result, slot);
+        return result;
+    }
+
+    /**
+     * Merges an underfull child with its right neighbour, or moves entries
+     * over from the neighbour when both do not fit in one node. The child
+     * must already be editable by this update.
+     */
+    private static void rebalance(Node parent, int slot, Object edit) {
+        Node left = (Node) parent.array[slot];
+        Node right = editable((Node) parent.array[slot + 1], edit);
+        int leftCount = left.count;
+        int total = leftCount + right.count;
+        if (total <= WIDTH) {
+            System.arraycopy(right.array, 0, left.array, leftCount, right.count);
+            left.count = total;
+            removeEntry(parent, slot + 1);
+        } else {
+            int moved = total / 2 - leftCount;
+            System.arraycopy(right.array, 0, left.array, leftCount, moved);
+            left.count += moved;
+            System.arraycopy(right.array, moved, right.array, 0, right.count - moved);
+            Arrays.fill(right.array, right.count - moved, right.count, null);
+            right.count -= moved;
+            if (right.sizes != null) {
+                fixSizes(right, 0);
+            }
+            parent.array[slot + 1] = right;
+        }
+        if (left.sizes != null) {
+            fixSizes(left, leftCount);
+        }
+    }
+
+    private static void removeEntry(Node node, int slot) {
+        System.arraycopy(node.array, slot + 1, node.array, slot, node.count - slot - 1);
+        node.array[--node.count] = null;
+    }
+
+    private static int indexOf(Node node, int height, Object element) {
+        if (height == 0) {
+            for (int i = 0; i < node.count; i++) {
+                if (node.array[i].equals(element)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int offset = 0;
+        for (int i = 0; i < node.count; i++) {
+            int found = indexOf((Node) node.array[i], height - 1, element);
+            if (found != -1) {
+                return offset + found;
+            }
+            offset = node.sizes[i];
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void forEach(Node node, int height, int from, int to, Consumer<? super T> action) {
+        if (height == 0) {
+            for (int i = from; i < to; i++) {
+                action.accept((T) node.array[i]);
+            }
+            return;
+        }
+        int slot = slotFor(node, height, from);
+        int offset = slot == 0 ? 0 : node.sizes[slot - 1];
+        while (offset < to) {
+            int end = node.sizes[slot];
+            forEach((Node) node.array[slot], height - 1, Math.max(from, offset) - offset,
+                Math.min(to, end) - offset, action);
+            offset = end;
+            slot++;
+        }
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static void checkElement(Object element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Cannot add null element");
+        }
+    }
+}
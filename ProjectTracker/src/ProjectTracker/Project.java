@@ -1,15 +1,20 @@
 package ProjectTracker;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.util.Collection;
 
 /**
  * @author Abdul Chaudhary
  * 
- * Represents a student project with enhanced tracking capabilities
+ * Represents a student project with enhanced tracking capabilities.
+ * A tracker keeps its own frozen copy of every project it is given, so the
+ * versions it publishes never change; setters on a frozen copy throw, and
+ * stored projects are changed through ProjectTracker.updateProject.
  */
 public class Project {
+    private int classNameId;
     private String className;
     private LocalDate dueDate;
     private String description;
@@ -18,13 +23,205 @@ public class Project {
     private String timeEstimate;
     private String actualTime;
     private LocalDate lastModified;
+    private String displayString;
+    private long displayDay;
+    private boolean frozen;
+    private long seq;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final ClassNameTable CLASS_NAMES = ClassNameTable.shared();
+    private static volatile Today today = new Today(LocalDate.now());
+    private static final long DAYS_0000_TO_1970 = 719528;
+    private static final long MAX_EPOCH_DAY = LocalDate.MAX.toEpochDay();
+
+    /** Returned by parseEpochDay for text that is not a valid MM/dd/yyyy date */
+    public static final long INVALID_DATE = Long.MIN_VALUE;
 
     // Enum for priority levels
     public enum Priority {
         HIGH, MEDIUM, LOW
     }
 
+    /**
+     * Result codes for project validation
+     */
+    public enum Validation {
+        VALID("Valid"),
+        EMPTY_CLASS_NAME("Class name cannot be empty"),
+        EMPTY_DESCRIPTION("Description cannot be empty"),
+        INVALID_DATE("Invalid date format. Use MM/dd/yyyy"),
+        PAST_DUE_DATE("Due date cannot be in the past"),
+        MISSING_PRIORITY("Priority cannot be null"),
+        INVALID_TIME_ESTIMATE("Time estimate must be a positive number"),
+        INVALID_ACTUAL_TIME("Actual time must be a positive number");
+
+        private final String message;
+
+        Validation(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Gets the message the constructor and setters use for this failure
+         * @return validation message
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Reusable builder for bulk construction. Each field is checked once, the
+     * due date is parsed without allocation or taken as an epoch day, and
+     * failures are reported as Validation codes instead of exceptions.
+     */
+    public static final class Builder {
+        private String className;
+        private long dueDay;
+        private String description;
+        private Priority priority;
+        private String timeEstimate;
+        private String actualTime;
+
+        /**
+         * Constructs an empty builder
+         */
+        public Builder() {
+            reset();
+        }
+
+        /**
+         * Clears every field so the builder can be reused for the next project
+         * @return this builder
+         */
+        public Builder reset() {
+            this.className = null;
+            this.dueDay = INVALID_DATE;
+            this.description = null;
+            this.priority = Priority.MEDIUM;
+            this.timeEstimate = "0";
+            this.actualTime = "0";
+            return this;
+        }
+
+        public Builder className(String className) {
+            this.className = className;
+            return this;
+        }
+
+        /**
+         * Sets the due date from MM/dd/yyyy text
+         * @param dueDate due date text
+         * @return this builder
+         */
+        public Builder dueDate(CharSequence dueDate) {
+            this.dueDay = parseEpochDay(dueDate);
+            return this;
+        }
+
+        /**
+         * Sets an already parsed due date
+         * @param epochDay due date as LocalDate.toEpochDay would return it
+         * @return this builder
+         */
+        public Builder dueEpochDay(long epochDay) {
+            this.dueDay = epochDay;
+            return this;
+        }
+
+        public Builder description(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Builder priority(Priority priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        public Builder timeEstimate(String timeEstimate) {
+            this.timeEstimate = timeEstimate;
+            return this;
+        }
+
+        public Builder actualTime(String actualTime) {
+            this.actualTime = actualTime;
+            return this;
+        }
+
+        /**
+         * Checks the fields without building
+         * @return VALID, or the first failure found
+         */
+        public Validation validate() {
+            Validation result = Project.validate(className, description, timeEstimate, actualTime, priority);
+            return result != Validation.VALID ? result : checkDueDay(dueDay);
+        }
+
+        /**
+         * Builds the project if the fields are valid and adds it to a collection
+         * @param target collection to add the project to
+         * @return VALID if a project was added, otherwise the failure
+         */
+        public Validation addTo(Collection<? super Project> target) {
+            Validation result = validate();
+            if (result == Validation.VALID) {
+                target.add(create());
+            }
+            return result;
+        }
+
+        /**
+         * Builds the project
+         * @return new project
+         * @throws IllegalArgumentException if a field is invalid
+         */
+        public Project build() {
+            Validation result = validate();
+            if (result != Validation.VALID) {
+                throw new IllegalArgumentException(result.getMessage());
+            }
+            return create();
+        }
+
+        private Project create() {
+            Project project = new Project(className, LocalDate.ofEpochDay(dueDay), description);
+            project.priority = priority;
+            project.timeEstimate = timeEstimate;
+            project.actualTime = actualTime;
+            return project;
+        }
+    }
+
+    /**
+     * Creates projects from parallel arrays of pre-parsed fields. Valid rows
+     * are added to the target in order; invalid rows are skipped.
+     * @param classNames class name of each row
+     * @param dueEpochDays due date of each row as an epoch day
+     * @param descriptions description of each row
+     * @param target collection the valid projects are added to
+     * @return validation result of each row
+     * @throws IllegalArgumentException if an array or the target is null, or the arrays differ in length
+     */
+    public static Validation[] createBatch(String[] classNames, long[] dueEpochDays, String[] descriptions,
+                                           Collection<? super Project> target) {
+        if (classNames == null || dueEpochDays == null || descriptions == null || target == null) {
+            throw new IllegalArgumentException("Batch arrays and target cannot be null");
+        }
+        if (classNames.length != dueEpochDays.length || classNames.length != descriptions.length) {
+            throw new IllegalArgumentException("Batch arrays must have the same length");
+        }
+        Validation[] results = new Validation[classNames.length];
+        Builder builder = new Builder();
+        for (int i = 0; i < results.length; i++) {
+            results[i] = builder.reset()
+                .className(classNames[i])
+                .dueEpochDay(dueEpochDays[i])
+                .description(descriptions[i])
+                .addTo(target);
+        }
+        return results;
+    }
+
     /**
      * Constructs a new Project with specified details
      * @param className the name of the class
@@ -33,9 +230,15 @@ public class Project {
      * @throws IllegalArgumentException if inputs are invalid
      */
     public Project(String className, String dueDate, String description) {
-        validateInputs(className, dueDate, description);
-        this.className = className;
-        this.dueDate = LocalDate.parse(dueDate, DATE_FORMATTER);
+        this(className, LocalDate.ofEpochDay(validatedDueDay(className, dueDate, description)), description);
+    }
+
+    /**
+     * Constructs a project from already validated fields
+     */
+    private Project(String className, LocalDate dueDate, String description) {
+        encodeClassName(className);
+        this.dueDate = dueDate;
         this.description = description;
         this.isCompleted = false;
         this.priority = Priority.MEDIUM;
@@ -45,36 +248,283 @@ public class Project {
     }
 
     /**
-     * Validates all input parameters
+     * Recreates a saved project. The due date is not checked against today,
+     * since a saved project may have fallen due since it was written.
+     * @param className the name of the class
+     * @param dueDate due date
+     * @param description project description
+     * @param priority priority level
+     * @param completed completion flag
+     * @param timeEstimate time estimate in hours
+     * @param actualTime actual time in hours
+     * @return restored project
+     * @throws IllegalArgumentException if a field is empty or invalid
+     */
+    static Project restore(String className, LocalDate dueDate, String description, Priority priority,
+                           boolean completed, String timeEstimate, String actualTime) {
+        if (dueDate == null) {
+            throw new IllegalArgumentException("Due date cannot be null");
+        }
+        Validation result = validate(className, description, timeEstimate, actualTime, priority);
+        if (result != Validation.VALID) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+        Project project = new Project(className, dueDate, description);
+        project.priority = priority;
+        project.isCompleted = completed;
+        project.timeEstimate = timeEstimate;
+        project.actualTime = actualTime;
+        return project;
+    }
+
+    /**
+     * Copies every field of another project
+     */
+    private Project(Project other) {
+        this.classNameId = other.classNameId;
+        this.className = other.className;
+        this.dueDate = other.dueDate;
+        this.description = other.description;
+        this.isCompleted = other.isCompleted;
+        this.priority = other.priority;
+        this.timeEstimate = other.timeEstimate;
+        this.actualTime = other.actualTime;
+        this.lastModified = other.lastModified;
+        this.displayString = other.displayString;
+        this.displayDay = other.displayDay;
+        this.seq = other.seq;
+    }
+
+    /**
+     * Gets a frozen copy of this project for a tracker to store
+     * @param seq storage sequence number; a tracker's active projects are
+     *        stored in ascending sequence order
+     * @return frozen copy
+     */
+    Project storedCopy(long seq) {
+        Project copy = new Project(this);
+        copy.frozen = true;
+        copy.seq = seq;
+        return copy;
+    }
+
+    /**
+     * Gets the storage sequence number the tracker gave this copy
+     * @return sequence number, 0 for a project no tracker holds
+     */
+    long getSeq() {
+        return seq;
+    }
+
+    /**
+     * Gets a frozen copy of this project marked completed today
+     * @return completed copy
+     */
+    Project completedCopy() {
+        Project copy = new Project(this);
+        copy.isCompleted = true;
+        copy.lastModified = LocalDate.now();
+        copy.displayString = null;
+        copy.frozen = true;
+        return copy;
+    }
+
+    /**
+     * Checks whether this project is a copy held by a tracker
+     * @return true if the setters are disabled
+     */
+    boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Validates all input parameters, parsing the due date once
+     * @return due date as an epoch day
      * @throws IllegalArgumentException if any input is invalid
      */
-    private void validateInputs(String className, String dueDate, String description) {
-        if (className == null || className.trim().isEmpty()) {
-            throw new IllegalArgumentException("Class name cannot be empty");
+    static long validatedDueDay(String className, String dueDate, String description) {
+        Validation result = validate(className, description, "0", "0", Priority.MEDIUM);
+        if (result == Validation.VALID) {
+            long dueDay = parseEpochDay(dueDate);
+            result = checkDueDay(dueDay);
+            if (result == Validation.VALID) {
+                return dueDay;
+            }
         }
-        if (description == null || description.trim().isEmpty()) {
-            throw new IllegalArgumentException("Description cannot be empty");
+        throw new IllegalArgumentException(result.getMessage());
+    }
+
+    /**
+     * Validates every input except the due date, for a recurring template
+     * read back from storage whose first due date may since have passed
+     * @throws IllegalArgumentException if any input is invalid
+     */
+    static void validateStored(String className, String description, Priority priority) {
+        Validation result = validate(className, description, "0", "0", priority);
+        if (result != Validation.VALID) {
+            throw new IllegalArgumentException(result.getMessage());
+        }
+    }
+
+    /**
+     * Checks every field except the due date
+     */
+    private static Validation validate(String className, String description, String timeEstimate,
+                                       String actualTime, Priority priority) {
+        if (isBlank(className)) {
+            return Validation.EMPTY_CLASS_NAME;
+        }
+        if (isBlank(description)) {
+            return Validation.EMPTY_DESCRIPTION;
+        }
+        if (priority == null) {
+            return Validation.MISSING_PRIORITY;
+        }
+        if (!isDigits(timeEstimate)) {
+            return Validation.INVALID_TIME_ESTIMATE;
         }
-        try {
-            LocalDate date = LocalDate.parse(dueDate, DATE_FORMATTER);
-            if (date.isBefore(LocalDate.now())) {
-                throw new IllegalArgumentException("Due date cannot be in the past");
+        if (!isDigits(actualTime)) {
+            return Validation.INVALID_ACTUAL_TIME;
+        }
+        return Validation.VALID;
+    }
+
+    private static Validation checkDueDay(long dueDay) {
+        if (dueDay == INVALID_DATE || dueDay > MAX_EPOCH_DAY) {
+            return Validation.INVALID_DATE;
+        }
+        if (dueDay < currentEpochDay()) {
+            return Validation.PAST_DUE_DATE;
+        }
+        return Validation.VALID;
+    }
+
+    /**
+     * Checks whether a string is null or only whitespace, as trim() would see it
+     */
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
             }
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid date format. Use MM/dd/yyyy");
         }
+        return true;
+    }
+
+    /**
+     * Checks whether a string is one or more ASCII digits
+     */
+    private static boolean isDigits(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses an MM/dd/yyyy date into an epoch day without allocating.
+     * Accepts exactly what the MM/dd/yyyy DateTimeFormatter accepts: a day
+     * past the end of its month is moved back to the last day of the month.
+     * @param text date text
+     * @return epoch day, or INVALID_DATE if the text is not a valid date
+     */
+    public static long parseEpochDay(CharSequence text) {
+        if (text == null || text.length() != 10 || text.charAt(2) != '/' || text.charAt(5) != '/') {
+            return INVALID_DATE;
+        }
+        int month = digits(text, 0, 2);
+        int day = digits(text, 3, 2);
+        int year = digits(text, 6, 4);
+        if (month < 1 || month > 12 || day < 1 || day > 31 || year < 1) {
+            return INVALID_DATE;
+        }
+        boolean leap = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        int monthLength = month == 2 ? (leap ? 29 : 28) : (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31;
+        day = Math.min(day, monthLength);
+
+        long y = year;
+        long total = 365 * y + (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total -= leap ? 1 : 2;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Reads a fixed-width run of ASCII digits
+     * @return value, or -1 if a character is not a digit
+     */
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
     }
 
     // Getters and setters with validation
     public String getClassName() { 
-        return className; 
+        return classNameId < 0 ? className : CLASS_NAMES.name(classNameId); 
+    }
+
+    /**
+     * Gets the dictionary id of the class name
+     * @return id of the class name in the shared class name table, or -1 if
+     *         the table did not take the name and it is held as a String
+     */
+    int getClassNameId() {
+        return classNameId;
+    }
+
+    /**
+     * Gets the lower-cased class name, cached in the class name table when
+     * the name is encoded there
+     * @return lower-cased class name
+     */
+    String getLowerClassName() {
+        return classNameId < 0 ? className.toLowerCase() : CLASS_NAMES.lowerName(classNameId);
+    }
+
+    /**
+     * Checks the class name against a name already looked up in the table
+     * @param name class name to compare with
+     * @param id id find returned for name
+     * @return true if this project is in that class
+     */
+    boolean hasClassName(String name, int id) {
+        return id >= 0 ? classNameId == id : classNameId < 0 && className.equals(name);
+    }
+
+    /**
+     * Encodes the class name in the shared table, keeping it as a plain
+     * String if the table does not take it
+     */
+    private void encodeClassName(String name) {
+        this.classNameId = CLASS_NAMES.intern(name);
+        this.className = classNameId < 0 ? name : null;
     }
 
     public void setClassName(String className) {
-        if (className == null || className.trim().isEmpty()) {
+        checkMutable();
+        if (isBlank(className)) {
             throw new IllegalArgumentException("Class name cannot be empty");
         }
-        this.className = className;
+        encodeClassName(className);
         updateLastModified();
     }
 
@@ -82,17 +532,23 @@ public class Project {
         return dueDate; 
     }
 
+    /**
+     * Gets the due date as an epoch day without creating any objects
+     * @return due date as LocalDate.toEpochDay would return it
+     */
+    public long getDueEpochDay() {
+        return dueDate.toEpochDay();
+    }
+
     public void setDueDate(String dueDate) {
-        try {
-            LocalDate newDate = LocalDate.parse(dueDate, DATE_FORMATTER);
-            if (newDate.isBefore(LocalDate.now())) {
-                throw new IllegalArgumentException("Due date cannot be in the past");
-            }
-            this.dueDate = newDate;
-            updateLastModified();
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid date format. Use MM/dd/yyyy");
+        checkMutable();
+        long dueDay = parseEpochDay(dueDate);
+        Validation result = checkDueDay(dueDay);
+        if (result != Validation.VALID) {
+            throw new IllegalArgumentException(result.getMessage());
         }
+        this.dueDate = LocalDate.ofEpochDay(dueDay);
+        updateLastModified();
     }
 
     public String getDescription() { 
@@ -100,7 +556,8 @@ public class Project {
     }
 
     public void setDescription(String description) {
-        if (description == null || description.trim().isEmpty()) {
+        checkMutable();
+        if (isBlank(description)) {
             throw new IllegalArgumentException("Description cannot be empty");
         }
         this.description = description;
@@ -112,6 +569,7 @@ public class Project {
     }
 
     public void setCompleted(boolean completed) {
+        checkMutable();
         this.isCompleted = completed;
         updateLastModified();
     }
@@ -121,6 +579,7 @@ public class Project {
     }
 
     public void setPriority(Priority priority) {
+        checkMutable();
         this.priority = priority;
         updateLastModified();
     }
@@ -130,7 +589,8 @@ public class Project {
     }
 
     public void setTimeEstimate(String timeEstimate) {
-        if (!timeEstimate.matches("\\d+")) {
+        checkMutable();
+        if (!isDigits(timeEstimate)) {
             throw new IllegalArgumentException("Time estimate must be a positive number");
         }
         this.timeEstimate = timeEstimate;
@@ -142,7 +602,8 @@ public class Project {
     }
 
     public void setActualTime(String actualTime) {
-        if (!actualTime.matches("\\d+")) {
+        checkMutable();
+        if (!isDigits(actualTime)) {
             throw new IllegalArgumentException("Actual time must be a positive number");
         }
         this.actualTime = actualTime;
@@ -153,8 +614,19 @@ public class Project {
         return lastModified;
     }
 
+    /**
+     * Rejects changes to a project a tracker holds
+     * @throws IllegalStateException if this project is frozen
+     */
+    private void checkMutable() {
+        if (frozen) {
+            throw new IllegalStateException("Project is held by a tracker; use updateProject to change it");
+        }
+    }
+
     private void updateLastModified() {
         this.lastModified = LocalDate.now();
+        this.displayString = null;
     }
 
     /**
@@ -173,16 +645,62 @@ public class Project {
         return !isCompleted && LocalDate.now().isAfter(dueDate);
     }
 
+    /**
+     * Gets the rendered one-line summary of this project. The line is built
+     * once and reused until a setter changes the project or the day rolls
+     * over, so list cells can redraw without formatting or allocating.
+     * @return display line for this project
+     */
+    public String getDisplayString() {
+        long currentDay = currentEpochDay();
+        String cached = displayString;
+        if (cached == null || displayDay != currentDay) {
+            boolean overdue = !isCompleted && currentDay > dueDate.toEpochDay();
+            cached = String.format("Class: %s | Due: %s | Priority: %s | Status: %s | Time Est: %sh | Actual: %sh | Description: %s",
+                    getClassName(),
+                    dueDate.format(DATE_FORMATTER),
+                    priority,
+                    (isCompleted ? "Completed" : overdue ? "OVERDUE" : "Pending"),
+                    timeEstimate,
+                    actualTime,
+                    description);
+            displayDay = currentDay;
+            displayString = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * Returns today's epoch day, only consulting the calendar once the
+     * cached day has rolled over
+     * @return current epoch day in the system time zone
+     */
+    static long currentEpochDay() {
+        Today current = today;
+        if (System.currentTimeMillis() >= current.nextRolloverMillis) {
+            current = new Today(LocalDate.now());
+            today = current;
+        }
+        return current.epochDay;
+    }
+
+    /**
+     * Current day together with the instant the next day starts
+     */
+    private static final class Today {
+        final long epochDay;
+        final long nextRolloverMillis;
+
+        Today(LocalDate date) {
+            this.epochDay = date.toEpochDay();
+            this.nextRolloverMillis = date.plusDays(1)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+
     @Override
     public String toString() {
-        return String.format("Class: %s | Due: %s | Priority: %s | Status: %s | Time Est: %sh | Actual: %sh | Description: %s",
-                className,
-                dueDate.format(DATE_FORMATTER),
-                priority,
-                (isCompleted ? "Completed" : isOverdue() ? "OVERDUE" : "Pending"),
-                timeEstimate,
-                actualTime,
-                description);
+        return getDisplayString();
     }
 
     @Override
@@ -190,7 +708,7 @@ public class Project {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Project other = (Project) obj;
-        return className.equals(other.className) &&
+        return hasClassName(other.className, other.classNameId) &&
                dueDate.equals(other.dueDate) &&
                description.equals(other.description);
     }
@@ -198,7 +716,7 @@ public class Project {
     @Override
     public int hashCode() {
         int result = 17;
-        result = 31 * result + className.hashCode();
+        result = 31 * result + getClassName().hashCode();
         result = 31 * result + dueDate.hashCode();
         result = 31 * result + description.hashCode();
         return result;
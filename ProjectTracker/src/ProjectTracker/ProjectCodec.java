@@ -0,0 +1,106 @@
+package ProjectTracker;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Binary encoding of a project shared by the journal and the completed
+ * archive: class name, due date as an epoch day, description, priority,
+ * completion flag, time estimate and actual time. Recurring templates are
+ * encoded the same way, followed by their rule.
+ */
+final class ProjectCodec {
+    private ProjectCodec() {
+    }
+
+    /**
+     * Writes a project
+     * @param out stream to write to
+     * @param project project to write
+     * @throws IOException if the stream fails
+     */
+    static void write(DataOutputStream out, Project project) throws IOException {
+        writeString(out, project.getClassName());
+        out.writeLong(project.getDueDate().toEpochDay());
+        writeString(out, project.getDescription());
+        out.writeByte(project.getPriority().ordinal());
+        out.writeBoolean(project.isCompleted());
+        writeString(out, project.getTimeEstimate());
+        writeString(out, project.getActualTime());
+    }
+
+    /**
+     * Reads a project written by write
+     * @param in stream to read from
+     * @return restored project
+     * @throws IOException if the stream fails or ends early
+     */
+    static Project read(DataInputStream in) throws IOException {
+        String className = readString(in);
+        LocalDate dueDate = LocalDate.ofEpochDay(in.readLong());
+        String description = readString(in);
+        Project.Priority priority = Project.Priority.values()[in.readByte()];
+        boolean completed = in.readBoolean();
+        String timeEstimate = readString(in);
+        String actualTime = readString(in);
+        return Project.restore(className, dueDate, description, priority, completed, timeEstimate, actualTime);
+    }
+
+    /**
+     * Writes a recurring project template
+     * @param out stream to write to
+     * @param template template to write
+     * @throws IOException if the stream fails
+     */
+    static void writeRecurring(DataOutputStream out, RecurringProject template) throws IOException {
+        writeString(out, template.getClassName());
+        out.writeLong(template.getFirstDueDate().toEpochDay());
+        writeString(out, template.getDescription());
+        out.writeByte(template.getPriority().ordinal());
+        Recurrence rule = template.getRecurrence();
+        out.writeInt(rule.getInterval());
+        out.writeByte(rule.getUnit().ordinal());
+        out.writeLong(rule.getCount());
+        out.writeLong(rule.getUntil() == null ? Long.MIN_VALUE : rule.getUntil().toEpochDay());
+    }
+
+    /**
+     * Reads a recurring project template written by writeRecurring
+     * @param in stream to read from
+     * @return restored template
+     * @throws IOException if the stream fails or ends early
+     */
+    static RecurringProject readRecurring(DataInputStream in) throws IOException {
+        String className = readString(in);
+        LocalDate firstDueDate = LocalDate.ofEpochDay(in.readLong());
+        String description = readString(in);
+        Project.Priority priority = Project.Priority.values()[in.readByte()];
+        Recurrence rule = Recurrence.every(in.readInt(), Recurrence.Unit.values()[in.readByte()]);
+        long count = in.readLong();
+        if (count != Long.MAX_VALUE) {
+            rule = rule.times(count);
+        }
+        long until = in.readLong();
+        if (until != Long.MIN_VALUE) {
+            rule = rule.until(LocalDate.ofEpochDay(until));
+        }
+        return RecurringProject.restore(className, firstDueDate, description, priority, rule);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
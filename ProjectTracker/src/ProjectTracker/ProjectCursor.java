@@ -0,0 +1,90 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Immutable position within a paged project listing. A cursor remembers the
+ * listing it belongs to and the tracker modification count it was issued
+ * against, so a stale cursor is detected instead of silently skipping or
+ * repeating projects.
+ */
+public final class ProjectCursor {
+
+    // Enum for the list a cursor pages over
+    public enum Source {
+        ACTIVE, COMPLETED
+    }
+
+    // Enum for the order a cursor pages in
+    public enum Order {
+        INSERTION, DUE_DATE, PRIORITY
+    }
+
+    private final Source source;
+    private final Order order;
+    private final int pageSize;
+    private final int pageNumber;
+    private final int position;
+    private final Project lastProject;
+    private final int lastIndex;
+    private final int expectedModCount;
+
+    /**
+     * Constructs a cursor pointing at the start of a page
+     * @param source list being paged
+     * @param order order of the listing
+     * @param pageSize number of projects per page
+     * @param pageNumber zero-based number of the page this cursor starts
+     * @param position number of projects that precede this page
+     * @param lastProject last project of the previous page, or null
+     * @param lastIndex storage index of lastProject, or -1
+     * @param expectedModCount tracker modification count the cursor is valid for
+     */
+    ProjectCursor(Source source, Order order, int pageSize, int pageNumber, int position,
+                  Project lastProject, int lastIndex, int expectedModCount) {
+        this.source = source;
+        this.order = order;
+        this.pageSize = pageSize;
+        this.pageNumber = pageNumber;
+        this.position = position;
+        this.lastProject = lastProject;
+        this.lastIndex = lastIndex;
+        this.expectedModCount = expectedModCount;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    /**
+     * Returns the number of projects listed before this cursor
+     * @return zero-based offset of the first project of the page
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    Project getLastProject() {
+        return lastProject;
+    }
+
+    int getLastIndex() {
+        return lastIndex;
+    }
+
+    int getExpectedModCount() {
+        return expectedModCount;
+    }
+}
@@ -0,0 +1,480 @@
+package ProjectTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Merkle-tree summary of a list of projects, used to reconcile copies of a
+ * tracker kept in different places. Projects are spread over 2^BUCKET_BITS
+ * buckets by Project.hashCode, so every copy of a project lands in the same
+ * bucket everywhere. A bucket's hash covers the full contents of its
+ * projects; every other node hashes its two children.
+ *
+ * Two digests are compared from the root down and only subtrees whose
+ * hashes differ are visited, so a diff costs the number of mismatched
+ * buckets times BUCKET_BITS plus the size of those buckets, not the size
+ * of the lists. The same walk works over a network by exchanging
+ * getHash and getBucket results.
+ *
+ * A digest attached to a tracker covers its active projects and follows
+ * every committed change, rehashing only the buckets the change touches;
+ * completed projects are history and are not reconciled. A digest built
+ * from a collection reflects the projects as they were when it was built.
+ */
+public final class ProjectDigest implements TrackerListener, AutoCloseable {
+    /** Number of hash bits that choose a project's bucket */
+    public static final int BUCKET_BITS = 16;
+
+    /**
+     * A project in a bucket and the hash of everything it holds
+     */
+    private static final class Entry {
+        final Project project;
+        final long content;
+        Entry next;
+
+        Entry(Project project, long content, Entry next) {
+            this.project = project;
+            this.content = content;
+            this.next = next;
+        }
+    }
+
+    private final ProjectTracker tracker;
+    // Binary trie over bucket numbers; node 0 stands for an empty subtree
+    private int[] left;
+    private int[] right;
+    private long[] hashes;
+    private Entry[] buckets;
+    private int nodeCount;
+    private int size;
+    private final int[] path = new int[BUCKET_BITS];
+    private boolean closed;
+
+    private ProjectDigest(ProjectTracker tracker) {
+        this.tracker = tracker;
+        clear();
+    }
+
+    /**
+     * Builds a digest of the tracker's active projects and keeps it in step
+     * with every later change until the digest is closed
+     * @param tracker tracker to summarize
+     * @return attached digest
+     * @throws IllegalArgumentException if tracker is null
+     */
+    public static ProjectDigest attach(ProjectTracker tracker) {
+        if (tracker == null) {
+            throw new IllegalArgumentException("Tracker cannot be null");
+        }
+        ProjectDigest digest = new ProjectDigest(tracker);
+        synchronized (tracker) {
+            digest.rebuild(tracker.snapshot().getActiveProjects());
+            tracker.addChangeListener(digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Builds a fixed digest of a list of projects, such as one loaded from a file
+     * @param projects projects to summarize
+     * @return digest of the projects
+     * @throws IllegalArgumentException if projects or any project is null
+     */
+    public static ProjectDigest of(Collection<Project> projects) {
+        if (projects == null) {
+            throw new IllegalArgumentException("Projects cannot be null");
+        }
+        ProjectDigest digest = new ProjectDigest(null);
+        for (Project project : projects) {
+            if (project == null) {
+                throw new IllegalArgumentException("Project cannot be null");
+            }
+            digest.addProject(project);
+        }
+        return digest;
+    }
+
+    /**
+     * Applies a committed change. Runs on the mutating thread inside the
+     * tracker's lock.
+     * @param change committed change
+     */
+    @Override
+    public synchronized void trackerChanged(TrackerChange change) {
+        if (closed || change.isReordered() && !change.isReset()) {
+            return;
+        }
+        if (change.isReset()) {
+            rebuild(change.getSnapshot().getActiveProjects());
+            return;
+        }
+        for (ProjectMutation mutation : change.getMutations()) {
+            switch (mutation.getType()) {
+                case ADD:
+                    addProject(mutation.getProject());
+                    break;
+                case UPDATE:
+                    removeProject(mutation.getProject());
+                    addProject(mutation.getReplacement());
+                    break;
+                default:
+                    removeProject(mutation.getProject());
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of projects summarized
+     * @return number of projects
+     * @throws IllegalStateException if the digest is closed
+     */
+    public synchronized int size() {
+        checkOpen();
+        return size;
+    }
+
+    /**
+     * Gets the hash of the whole digest. Two digests with the same root hash
+     * hold the same projects with the same contents, in any order.
+     * @return root hash, 0 when empty
+     * @throws IllegalStateException if the digest is closed
+     */
+    public synchronized long getRootHash() {
+        checkOpen();
+        return hashes[1];
+    }
+
+    /**
+     * Gets the hash of the subtree covering every bucket whose number starts
+     * with the given bits
+     * @param level number of leading bucket bits, from 0 to BUCKET_BITS
+     * @param prefix value of those bits
+     * @return subtree hash, 0 when the subtree is empty
+     * @throws IllegalArgumentException if level or prefix is out of range
+     * @throws IllegalStateException if the digest is closed
+     */
+    public synchronized long getHash(int level, int prefix) {
+        if (level < 0 || level > BUCKET_BITS || prefix < 0 || prefix >= 1 << level) {
+            throw new IllegalArgumentException("Level: " + level + ", Prefix: " + prefix);
+        }
+        checkOpen();
+        return hashes[find(level, prefix)];
+    }
+
+    /**
+     * Gets the projects in one bucket
+     * @param bucket bucket number, below 2^BUCKET_BITS
+     * @return projects in the bucket
+     * @throws IllegalArgumentException if bucket is out of range
+     * @throws IllegalStateException if the digest is closed
+     */
+    public synchronized List<Project> getBucket(int bucket) {
+        if (bucket < 0 || bucket >= 1 << BUCKET_BITS) {
+            throw new IllegalArgumentException("Bucket: " + bucket);
+        }
+        checkOpen();
+        List<Project> result = new ArrayList<>();
+        for (Entry e = buckets[find(BUCKET_BITS, bucket)]; e != null; e = e.next) {
+            result.add(e.project);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the changes that turn this digest's projects into the
+     * target's, visiting only buckets whose hashes differ. A project with
+     * one copy on each side whose contents differ becomes an update; when a
+     * side holds several equal projects and they differ, all of this side's
+     * copies are deleted and the target's are added. Added and replacement
+     * projects are copies, so the result can be passed straight to
+     * ProjectTracker.batch without sharing projects between trackers.
+     * @param target digest to reconcile with
+     * @return deletions, updates and additions, in that order per bucket
+     * @throws IllegalArgumentException if target is null
+     * @throws IllegalStateException if either digest is closed
+     */
+    public List<ProjectMutation> diff(ProjectDigest target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        List<ProjectMutation> mutations = new ArrayList<>();
+        if (target == this) {
+            return mutations;
+        }
+        // Lock in a fixed order so two opposite diffs cannot deadlock
+        boolean thisFirst = System.identityHashCode(this) <= System.identityHashCode(target);
+        ProjectDigest first = thisFirst ? this : target;
+        ProjectDigest second = thisFirst ? target : this;
+        synchronized (first) {
+            synchronized (second) {
+                checkOpen();
+                target.checkOpen();
+                walk(1, target, 1, 0, mutations);
+            }
+        }
+        return mutations;
+    }
+
+    /**
+     * Checks whether the digest has been closed
+     * @return true if closed
+     */
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void walk(int node, ProjectDigest target, int targetNode, int level, List<ProjectMutation> out) {
+        if (hashes[node] == target.hashes[targetNode]) {
+            return;
+        }
+        if (level == BUCKET_BITS) {
+            diffBucket(buckets[node], target.buckets[targetNode], out);
+            return;
+        }
+        walk(left[node], target, target.left[targetNode], level + 1, out);
+        walk(right[node], target, target.right[targetNode], level + 1, out);
+    }
+
+    /**
+     * Reconciles one bucket, one group of equal projects at a time
+     */
+    private static void diffBucket(Entry local, Entry remote, List<ProjectMutation> out) {
+        List<Entry> locals = toList(local);
+        List<Entry> remotes = toList(remote);
+        List<ProjectMutation> updates = new ArrayList<>();
+        List<ProjectMutation> adds = new ArrayList<>();
+        boolean[] remoteSeen = new boolean[remotes.size()];
+        boolean[] localSeen = new boolean[locals.size()];
+        for (int i = 0; i < locals.size(); i++) {
+            if (localSeen[i]) {
+                continue;
+            }
+            Project key = locals.get(i).project;
+            List<Entry> mine = group(locals, localSeen, key);
+            List<Entry> theirs = group(remotes, remoteSeen, key);
+            if (sameContents(mine, theirs)) {
+                continue;
+            }
+            if (mine.size() == 1 && theirs.size() == 1) {
+                updates.add(ProjectMutation.update(mine.get(0).project, copy(theirs.get(0).project)));
+                continue;
+            }
+            // Batch steps find projects by equality, so equal copies are replaced as a group
+            for (Entry e : mine) {
+                out.add(ProjectMutation.delete(e.project));
+            }
+            for (Entry e : theirs) {
+                adds.add(ProjectMutation.add(copy(e.project)));
+            }
+        }
+        for (int i = 0; i < remotes.size(); i++) {
+            if (!remoteSeen[i]) {
+                remoteSeen[i] = true;
+                adds.add(ProjectMutation.add(copy(remotes.get(i).project)));
+            }
+        }
+        out.addAll(updates);
+        out.addAll(adds);
+    }
+
+    private static List<Entry> toList(Entry head) {
+        List<Entry> list = new ArrayList<>();
+        for (Entry e = head; e != null; e = e.next) {
+            list.add(e);
+        }
+        return list;
+    }
+
+    private static List<Entry> group(List<Entry> entries, boolean[] seen, Project key) {
+        List<Entry> group = new ArrayList<>(1);
+        for (int i = 0; i < entries.size(); i++) {
+            if (!seen[i] && entries.get(i).project.equals(key)) {
+                seen[i] = true;
+                group.add(entries.get(i));
+            }
+        }
+        return group;
+    }
+
+    private static boolean sameContents(List<Entry> mine, List<Entry> theirs) {
+        if (mine.size() != theirs.size()) {
+            return false;
+        }
+        long[] a = new long[mine.size()];
+        long[] b = new long[theirs.size()];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = mine.get(i).content;
+            b[i] = theirs.get(i).content;
+        }
+        Arrays.sort(a);
+        Arrays.sort(b);
+        return Arrays.equals(a, b);
+    }
+
+    private static Project copy(Project project) {
+        return Project.restore(project.getClassName(), project.getDueDate(), project.getDescription(),
+            project.getPriority(), false, project.getTimeEstimate(), project.getActualTime());
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Digest is closed");
+        }
+    }
+
+    private void clear() {
+        left = new int[64];
+        right = new int[64];
+        hashes = new long[64];
+        buckets = new Entry[64];
+        nodeCount = 1;
+        newNode();
+        size = 0;
+    }
+
+    private void rebuild(PersistentVector<Project> projects) {
+        clear();
+        projects.forEach(this::addProject);
+    }
+
+    private int newNode() {
+        if (nodeCount == hashes.length) {
+            int capacity = nodeCount * 2;
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+        }
+        return nodeCount++;
+    }
+
+    /**
+     * Finds the node for a prefix, or 0 if that subtree is empty
+     */
+    private int find(int level, int prefix) {
+        int node = 1;
+        for (int bit = level - 1; bit >= 0 && node != 0; bit--) {
+            node = (prefix >>> bit & 1) == 0 ? left[node] : right[node];
+        }
+        return node;
+    }
+
+    private void addProject(Project project) {
+        int bucket = bucketOf(project);
+        int node = 1;
+        for (int bit = BUCKET_BITS - 1; bit >= 0; bit--) {
+            path[bit] = node;
+            if ((bucket >>> bit & 1) == 0) {
+                if (left[node] == 0) {
+                    int child = newNode();
+                    left[node] = child;
+                }
+                node = left[node];
+            } else {
+                if (right[node] == 0) {
+                    int child = newNode();
+                    right[node] = child;
+                }
+                node = right[node];
+            }
+        }
+        long content = contentHash(project);
+        buckets[node] = new Entry(project, content, buckets[node]);
+        hashes[node] += mix(content);
+        size++;
+        rehashPath();
+    }
+
+    private void removeProject(Project project) {
+        int bucket = bucketOf(project);
+        int node = 1;
+        for (int bit = BUCKET_BITS - 1; bit >= 0 && node != 0; bit--) {
+            path[bit] = node;
+            node = (bucket >>> bit & 1) == 0 ? left[node] : right[node];
+        }
+        Entry previous = null;
+        Entry e = node == 0 ? null : buckets[node];
+        while (e != null && e.project != project) {
+            previous = e;
+            e = e.next;
+        }
+        if (e == null) {
+            return;
+        }
+        if (previous == null) {
+            buckets[node] = e.next;
+        } else {
+            previous.next = e.next;
+        }
+        hashes[node] -= mix(e.content);
+        size--;
+        rehashPath();
+    }
+
+    /**
+     * Recomputes the hashes on the path recorded by the last descent
+     */
+    private void rehashPath() {
+        for (int bit = 0; bit < BUCKET_BITS; bit++) {
+            int node = path[bit];
+            long l = hashes[left[node]];
+            long r = hashes[right[node]];
+            hashes[node] = l == 0 && r == 0 ? 0 : mix(l * 0x9E3779B97F4A7C15L + r);
+        }
+    }
+
+    private static int bucketOf(Project project) {
+        return project.hashCode() * 0x9E3779B9 >>> (32 - BUCKET_BITS);
+    }
+
+    /**
+     * Hashes every field a copy of the project carries, except the
+     * completion flag
+     */
+    private static long contentHash(Project project) {
+        long h = 0xCBF29CE484222325L;
+        h = hash(h, project.getClassName());
+        h = mix(h ^ project.getDueEpochDay());
+        h = hash(h, project.getDescription());
+        h = mix(h ^ project.getPriority().ordinal());
+        h = hash(h, project.getTimeEstimate());
+        h = hash(h, project.getActualTime());
+        return h;
+    }
+
+    private static long hash(long h, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h ^ value.length());
+    }
+
+    /**
+     * Finalizer from SplitMix64, so nearby inputs give unrelated hashes
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Stops following the tracker and drops the digest
+     */
+    @Override
+    public void close() {
+        if (tracker != null) {
+            tracker.removeChangeListener(this);
+        }
+        synchronized (this) {
+            closed = true;
+            clear();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Predicate over a project's due date and priority passed as primitives,
+ * so scans can test every project without boxing or building objects.
+ */
+@FunctionalInterface
+public interface ProjectFieldPredicate {
+    /**
+     * Tests one project
+     * @param dueEpochDay due date as LocalDate.toEpochDay would return it
+     * @param priorityOrdinal ordinal of the project's Priority
+     * @return true if the project matches
+     */
+    boolean test(long dueEpochDay, int priorityOrdinal);
+}
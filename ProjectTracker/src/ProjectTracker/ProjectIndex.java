@@ -0,0 +1,462 @@
+package ProjectTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Secondary indexes over the active projects of a ProjectTracker and the
+ * planner that uses them. Each index is a persistent weight-balanced tree
+ * ordered by one field and then by the project's storage sequence number,
+ * so a range of one field comes out in storage order and counting a range
+ * costs O(log n). The tracker updates the index with every mutation in
+ * O(log n) and publishes it with each version, so queries never rebuild
+ * it and undo simply returns to the older index.
+ */
+final class ProjectIndex {
+    private static final int DELTA = 3;
+    private static final int RATIO = 2;
+
+    /** Index over no projects */
+    static final ProjectIndex EMPTY = new ProjectIndex(null, null, null);
+
+    /**
+     * Tree node. The key is the indexed field; ties are ordered by the
+     * project's sequence number, which is unique among active projects.
+     */
+    private static final class Node {
+        final long key;
+        final Project project;
+        final Node left;
+        final Node right;
+        final int size;
+
+        Node(long key, Project project, Node left, Node right) {
+            this.key = key;
+            this.project = project;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    private final Node byClass;
+    private final Node byPriority;
+    private final Node byDueDate;
+
+    private ProjectIndex(Node byClass, Node byPriority, Node byDueDate) {
+        this.byClass = byClass;
+        this.byPriority = byPriority;
+        this.byDueDate = byDueDate;
+    }
+
+    /**
+     * Builds all indexes over the given projects in O(n log n)
+     * @param projects active projects in storage order, with ascending sequence numbers
+     * @return new index
+     */
+    static ProjectIndex build(PersistentVector<Project> projects) {
+        List<Project> sorted = new ArrayList<>(projects.size());
+        projects.forEach(sorted::add);
+        sorted.sort(Comparator.comparingLong(ProjectIndex::classKey).thenComparingLong(Project::getSeq));
+        Node byClass = balanced(sorted, 0, sorted.size(), ProjectIndex::classKey);
+        sorted.sort(Comparator.comparingLong(ProjectIndex::priorityKey).thenComparingLong(Project::getSeq));
+        Node byPriority = balanced(sorted, 0, sorted.size(), ProjectIndex::priorityKey);
+        sorted.sort(Comparator.comparingLong(Project::getDueEpochDay).thenComparingLong(Project::getSeq));
+        Node byDueDate = balanced(sorted, 0, sorted.size(), Project::getDueEpochDay);
+        return new ProjectIndex(byClass, byPriority, byDueDate);
+    }
+
+    /**
+     * Returns the index with one more project
+     * @param project stored project that was added
+     * @return updated index
+     */
+    ProjectIndex with(Project project) {
+        return new ProjectIndex(
+            insert(byClass, classKey(project), project),
+            insert(byPriority, priorityKey(project), project),
+            insert(byDueDate, project.getDueEpochDay(), project));
+    }
+
+    /**
+     * Returns the index without a project
+     * @param project stored project that was removed
+     * @return updated index
+     */
+    ProjectIndex without(Project project) {
+        return new ProjectIndex(
+            delete(byClass, classKey(project), project.getSeq()),
+            delete(byPriority, priorityKey(project), project.getSeq()),
+            delete(byDueDate, project.getDueEpochDay(), project.getSeq()));
+    }
+
+    /**
+     * Gets the number of indexed projects
+     * @return number of projects
+     */
+    int size() {
+        return size(byClass);
+    }
+
+    /**
+     * Class key; 0 holds projects whose class name is not encoded in the table
+     */
+    private static long classKey(Project project) {
+        return project.getClassNameId() + 1L;
+    }
+
+    private static long priorityKey(Project project) {
+        return project.getPriority().ordinal();
+    }
+
+    /**
+     * Access path chosen for a query
+     */
+    static final class Plan {
+        final String accessPath;
+        final Node tree;
+        final long[] ranges;
+        final int rows;
+        final boolean dueDateOrdered;
+
+        Plan(String accessPath, Node tree, long[] ranges, int rows, boolean dueDateOrdered) {
+            this.accessPath = accessPath;
+            this.tree = tree;
+            this.ranges = ranges;
+            this.rows = rows;
+            this.dueDateOrdered = dueDateOrdered;
+        }
+
+        int estimatedRows() {
+            return rows;
+        }
+
+        /**
+         * Checks whether candidates arrive in storage order
+         */
+        boolean storageOrdered() {
+            return tree == null || ranges.length == 2 && !dueDateOrdered;
+        }
+
+        @Override
+        public String toString() {
+            return accessPath + " (" + estimatedRows() + " candidates)";
+        }
+    }
+
+    /**
+     * Chooses the index that yields the fewest candidates for a query
+     * @param query query to plan
+     * @param classId id of the query's exact class name, or -1
+     * @param today current epoch day
+     * @return chosen plan, a full scan if no predicate is indexed
+     */
+    Plan plan(ProjectQuery query, int classId, long today) {
+        Plan best = new Plan("scan", null, null, size(), false);
+
+        if (query.getClassName() != null) {
+            best = cheaper(best, point("hash", byClass, classId + 1L));
+        }
+
+        if (query.getPriority() != null) {
+            best = cheaper(best, point("priority", byPriority, query.getPriority().ordinal()));
+        }
+
+        long low = query.getDueFrom() == null ? Long.MIN_VALUE : query.getDueFrom().toEpochDay();
+        long high = query.getDueTo() == null ? Long.MAX_VALUE : query.getDueTo().toEpochDay();
+        if (Boolean.TRUE.equals(query.getOverdue())) {
+            high = Math.min(high, today - 1);
+        }
+        if (low != Long.MIN_VALUE || high != Long.MAX_VALUE) {
+            int rows = low > high ? 0 : count(byDueDate, low, high);
+            best = cheaper(best, new Plan("date", byDueDate, new long[] {low, high}, rows, true));
+        }
+
+        if (query.getClassNameTerm() != null && best.estimatedRows() > 0) {
+            best = cheaper(best, textPlan(query.getClassNameTerm(), best.estimatedRows()));
+        }
+        return best;
+    }
+
+    private static Plan point(String accessPath, Node tree, long key) {
+        return new Plan(accessPath, tree, new long[] {key, key}, count(tree, key, key), false);
+    }
+
+    /**
+     * Runs a query: walks the planned candidates, checks every predicate once,
+     * and stops early when the candidates already arrive in result order
+     * @return matching projects
+     */
+    List<Project> execute(ProjectQuery query, PersistentVector<Project> projects, List<Project> archivedProjects,
+                          PersistentVector<Project> completedProjects, long today) {
+        List<Project> results = new ArrayList<>();
+        int limit = query.getLimit();
+        if (limit == 0) {
+            return results;
+        }
+        int classId = query.getClassName() == null ? -1 : ClassNameTable.shared().find(query.getClassName());
+        Plan plan = plan(query, classId, today);
+        boolean includeArchive = !Boolean.FALSE.equals(query.getCompleted());
+        ProjectCursor.Order order = query.getOrder();
+        boolean streaming = (order == ProjectCursor.Order.INSERTION && plan.storageOrdered())
+            || (order == ProjectCursor.Order.DUE_DATE && plan.dueDateOrdered && !includeArchive);
+
+        if (plan.tree == null) {
+            for (int i = 0; i < projects.size(); i++) {
+                Project p = projects.get(i);
+                if (query.matches(p, classId, today)) {
+                    results.add(p);
+                    if (streaming && results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+        } else {
+            Predicate<Project> visitor = p -> {
+                if (query.matches(p, classId, today)) {
+                    results.add(p);
+                    return !streaming || results.size() < limit;
+                }
+                return true;
+            };
+            boolean complete = true;
+            for (int i = 0; i < plan.ranges.length && complete; i += 2) {
+                complete = forEach(plan.tree, plan.ranges[i], plan.ranges[i + 1], visitor);
+            }
+            if (!complete) {
+                return results;
+            }
+            if (order == ProjectCursor.Order.INSERTION && !plan.storageOrdered()) {
+                // Restore storage order, which is what INSERTION means for active projects
+                results.sort(Comparator.comparingLong(Project::getSeq));
+                if (results.size() > limit) {
+                    results.subList(limit, results.size()).clear();
+                }
+            }
+        }
+        if (includeArchive) {
+            // Archived projects stream from disk a block at a time
+            for (Project p : archivedProjects) {
+                if (query.matches(p, classId, today)) {
+                    results.add(p);
+                    if (order == ProjectCursor.Order.INSERTION && results.size() >= limit) {
+                        return results;
+                    }
+                }
+            }
+            for (int i = 0; i < completedProjects.size(); i++) {
+                Project p = completedProjects.get(i);
+                if (query.matches(p, classId, today)) {
+                    results.add(p);
+                    if (order == ProjectCursor.Order.INSERTION && results.size() >= limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+        if (order == ProjectCursor.Order.DUE_DATE && !streaming) {
+            results.sort(Comparator.comparing(Project::getDueDate));
+        } else if (order == ProjectCursor.Order.PRIORITY) {
+            results.sort(Comparator.comparing(Project::getPriority));
+        }
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    /**
+     * Builds candidates from every class whose lower-cased name contains the
+     * term, visiting only the classes that have active projects
+     */
+    private Plan textPlan(String term, int budget) {
+        ClassNameTable names = ClassNameTable.shared();
+        int total = 0;
+        int matchingClasses = 0;
+        long[] ranges = new long[8];
+        Node next = ceiling(byClass, Long.MIN_VALUE);
+        while (next != null) {
+            long slot = next.key;
+            // Unencoded names are not in the table, so their slot is always scanned
+            if (slot == 0 || names.lowerName((int) slot - 1).contains(term)) {
+                total += count(byClass, slot, slot);
+                if (total >= budget) {
+                    // Already no better than the current plan
+                    return new Plan("text", null, null, size(), false);
+                }
+                if (matchingClasses * 2 == ranges.length) {
+                    ranges = Arrays.copyOf(ranges, ranges.length * 2);
+                }
+                ranges[matchingClasses * 2] = slot;
+                ranges[matchingClasses * 2 + 1] = slot;
+                matchingClasses++;
+            }
+            next = ceiling(byClass, slot + 1);
+        }
+        return new Plan("text", byClass, Arrays.copyOf(ranges, matchingClasses * 2), total, false);
+    }
+
+    private static Plan cheaper(Plan current, Plan candidate) {
+        return candidate.estimatedRows() < current.estimatedRows() ? candidate : current;
+    }
+
+    // Weight-balanced tree operations; every update copies one path
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Orders a key and sequence number against a node
+     */
+    private static int compare(long key, long seq, Node node) {
+        int c = Long.compare(key, node.key);
+        return c != 0 ? c : Long.compare(seq, node.project.getSeq());
+    }
+
+    private interface KeyFunction {
+        long key(Project project);
+    }
+
+    private static Node balanced(List<Project> sorted, int from, int to, KeyFunction keys) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        Project p = sorted.get(mid);
+        return new Node(keys.key(p), p, balanced(sorted, from, mid, keys), balanced(sorted, mid + 1, to, keys));
+    }
+
+    private static Node insert(Node node, long key, Project project) {
+        if (node == null) {
+            return new Node(key, project, null, null);
+        }
+        if (compare(key, project.getSeq(), node) < 0) {
+            return balance(node.key, node.project, insert(node.left, key, project), node.right);
+        }
+        return balance(node.key, node.project, node.left, insert(node.right, key, project));
+    }
+
+    private static Node delete(Node node, long key, long seq) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(key, seq, node);
+        if (c < 0) {
+            return balance(node.key, node.project, delete(node.left, key, seq), node.right);
+        }
+        if (c > 0) {
+            return balance(node.key, node.project, node.left, delete(node.right, key, seq));
+        }
+        return glue(node.left, node.right);
+    }
+
+    /**
+     * Joins two balanced trees whose sizes are within DELTA of each other
+     */
+    private static Node glue(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.size > right.size) {
+            Node max = left;
+            while (max.right != null) {
+                max = max.right;
+            }
+            return balance(max.key, max.project, delete(left, max.key, max.project.getSeq()), right);
+        }
+        Node min = right;
+        while (min.left != null) {
+            min = min.left;
+        }
+        return balance(min.key, min.project, left, delete(right, min.key, min.project.getSeq()));
+    }
+
+    /**
+     * Restores the weight balance after one insert or delete below a node
+     */
+    private static Node balance(long key, Project project, Node left, Node right) {
+        int leftSize = size(left);
+        int rightSize = size(right);
+        if (leftSize + rightSize > 1) {
+            if (rightSize > DELTA * leftSize) {
+                if (size(right.left) < RATIO * size(right.right)) {
+                    return new Node(right.key, right.project, new Node(key, project, left, right.left), right.right);
+                }
+                Node inner = right.left;
+                return new Node(inner.key, inner.project, new Node(key, project, left, inner.left),
+                    new Node(right.key, right.project, inner.right, right.right));
+            }
+            if (leftSize > DELTA * rightSize) {
+                if (size(left.right) < RATIO * size(left.left)) {
+                    return new Node(left.key, left.project, left.left, new Node(key, project, left.right, right));
+                }
+                Node inner = left.right;
+                return new Node(inner.key, inner.project, new Node(left.key, left.project, left.left, inner.left),
+                    new Node(key, project, inner.right, right));
+            }
+        }
+        return new Node(key, project, left, right);
+    }
+
+    /**
+     * Counts the entries whose key lies in an inclusive range
+     */
+    private static int count(Node node, long low, long high) {
+        return below(node, high, true) - below(node, low, false);
+    }
+
+    /**
+     * Counts the entries whose key is below a bound, or at most the bound
+     */
+    private static int below(Node node, long bound, boolean inclusive) {
+        int count = 0;
+        while (node != null) {
+            if (node.key < bound || inclusive && node.key == bound) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the first entry whose key is at least a bound
+     */
+    private static Node ceiling(Node node, long bound) {
+        Node found = null;
+        while (node != null) {
+            if (node.key >= bound) {
+                found = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Visits the entries whose key lies in an inclusive range, in order
+     * @return false if the visitor stopped the walk
+     */
+    private static boolean forEach(Node node, long low, long high, Predicate<Project> visitor) {
+        if (node == null) {
+            return true;
+        }
+        if (node.key >= low && !forEach(node.left, low, high, visitor)) {
+            return false;
+        }
+        if (node.key >= low && node.key <= high && !visitor.test(node.project)) {
+            return false;
+        }
+        return node.key > high || forEach(node.right, low, high, visitor);
+    }
+}
@@ -0,0 +1,505 @@
+package ProjectTracker;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Append-only journal of tracker changes with group commit. The tracker's
+ * mutations only encode a record and queue it; a dedicated writer thread
+ * collects queued records into a batch, writes the batch with one gathering
+ * write and makes it durable with a single FileChannel.force. How long a
+ * batch may stay open is set by the durability mode. Callers that need to
+ * know their change is on disk ask for whenDurable() after the mutation returns.
+ *
+ * Each record is [int length][int crc32][payload]. A reset or reorder is
+ * written as a full snapshot of both lists and the recurring templates. A
+ * change that adds or removes a template, or creates occurrences of one,
+ * carries the templates and their occurrence counts in the same record, so
+ * replay never makes an occurrence twice. The tracker only holds frozen
+ * copies of its projects, so every change to them arrives as a mutation.
+ */
+public final class ProjectJournal implements TrackerListener, AutoCloseable {
+    /**
+     * How long the writer may hold a batch open before forcing it to disk
+     */
+    public enum Durability {
+        /** Force as soon as the writer is free; concurrent changes still share one force */
+        EVERY_WRITE,
+        /** Hold a batch open for at most the bound in milliseconds */
+        TIME_BOUNDED,
+        /** Hold a batch open until it reaches the bound in bytes, or for at most one second */
+        SIZE_BOUNDED
+    }
+
+    private static final byte MUTATIONS = 1;
+    private static final byte SNAPSHOT = 2;
+    private static final long SIZE_BOUNDED_MAX_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Entry CLOSE = new Entry(-1, null, null);
+
+    private final ProjectTracker tracker;
+    private final FileChannel channel;
+    private final Durability durability;
+    private final long maxDelayNanos;
+    private final long maxBatchBytes;
+    private final BlockingQueue<Entry> queue;
+    private final AtomicLong enqueued;
+    private final PriorityQueue<Waiter> waiters;
+    private final Thread writer;
+    private volatile long durable;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    // Templates as of the last record queued; guarded by queue
+    private RecurrenceSchedule journaledSchedule;
+
+    /**
+     * Queued record: encoded bytes, or a snapshot encoded by the writer thread
+     */
+    private static final class Entry {
+        final long sequence;
+        final byte[] bytes;
+        final TrackerSnapshot snapshot;
+
+        Entry(long sequence, byte[] bytes, TrackerSnapshot snapshot) {
+            this.sequence = sequence;
+            this.bytes = bytes;
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static final class Waiter {
+        final long sequence;
+        final CompletableFuture<Long> future;
+
+        Waiter(long sequence, CompletableFuture<Long> future) {
+            this.sequence = sequence;
+            this.future = future;
+        }
+    }
+
+    private ProjectJournal(ProjectTracker tracker, FileChannel channel, Durability durability, long bound) {
+        this.tracker = tracker;
+        this.channel = channel;
+        this.durability = durability;
+        this.maxDelayNanos = durability == Durability.TIME_BOUNDED
+            ? TimeUnit.MILLISECONDS.toNanos(bound) : SIZE_BOUNDED_MAX_DELAY_NANOS;
+        this.maxBatchBytes = durability == Durability.SIZE_BOUNDED ? bound : Long.MAX_VALUE;
+        this.queue = new LinkedBlockingQueue<>();
+        this.enqueued = new AtomicLong();
+        this.waiters = new PriorityQueue<>((a, b) -> Long.compare(a.sequence, b.sequence));
+        this.writer = new Thread(this::writeLoop, "project-journal-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Opens a journal for a tracker. Records already in the file are replayed
+     * into the tracker first, discarding a torn record at the end; from then
+     * on every committed change is appended.
+     * @param tracker tracker to journal
+     * @param file journal file, created if missing
+     * @param durability batching mode
+     * @param bound milliseconds for TIME_BOUNDED, bytes for SIZE_BOUNDED, ignored for EVERY_WRITE
+     * @return open journal attached to the tracker
+     * @throws IOException if the file cannot be read or opened
+     * @throws IllegalArgumentException if an argument is null or the bound is negative
+     */
+    public static ProjectJournal open(ProjectTracker tracker, Path file, Durability durability, long bound)
+            throws IOException {
+        if (tracker == null || file == null || durability == null) {
+            throw new IllegalArgumentException("Tracker, file and durability cannot be null");
+        }
+        if (bound < 0) {
+            throw new IllegalArgumentException("Bound cannot be negative");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long validLength = replay(channel, tracker);
+            channel.truncate(validLength);
+            channel.position(validLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        ProjectJournal journal = new ProjectJournal(tracker, channel, durability, bound);
+        journal.journaledSchedule = tracker.snapshot().getSchedule();
+        journal.writer.start();
+        tracker.addChangeListener(journal);
+        return journal;
+    }
+
+    /**
+     * Queues a committed change. Runs on the mutating thread inside the
+     * tracker's lock, so it only encodes the record. Changes that arrive
+     * once close has started are not journaled.
+     * @param change committed change
+     */
+    @Override
+    public void trackerChanged(TrackerChange change) {
+        RecurrenceSchedule schedule = change.getSnapshot().getSchedule();
+        synchronized (queue) {
+            if (closed || failure != null) {
+                return;
+            }
+            if (change.isReset() || change.isReordered()) {
+                queue.add(new Entry(enqueued.incrementAndGet(), null, change.getSnapshot()));
+            } else {
+                RecurrenceSchedule changed = schedule != journaledSchedule ? schedule : null;
+                queue.add(new Entry(enqueued.incrementAndGet(), encodeMutations(change, changed), null));
+            }
+            journaledSchedule = schedule;
+        }
+    }
+
+    /**
+     * Gets a future that completes once every change committed before this
+     * call is durable on disk
+     * @return future holding the durable sequence number, completed
+     *         exceptionally if the journal fails or is closed first
+     */
+    public CompletableFuture<Long> whenDurable() {
+        long target = enqueued.get();
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        synchronized (waiters) {
+            if (durable >= target) {
+                future.complete(durable);
+            } else if (failure != null) {
+                future.completeExceptionally(failure);
+            } else if (closed && !writer.isAlive()) {
+                future.completeExceptionally(new IOException("Journal is closed"));
+            } else {
+                waiters.add(new Waiter(target, future));
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Gets the sequence number of the last change known to be durable
+     * @return durable sequence number, 0 before the first force
+     */
+    public long getDurableSequence() {
+        return durable;
+    }
+
+    /**
+     * Gets the durability mode
+     * @return durability mode
+     */
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Detaches from the tracker, forces every queued change to disk and
+     * closes the file. The close marker is queued under the same lock as
+     * changes, so no change can be queued behind it and lost.
+     * @throws IOException if the final write or close fails
+     */
+    @Override
+    public void close() throws IOException {
+        tracker.removeChangeListener(this);
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.add(CLOSE);
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        failWaiters(failure != null ? failure : new IOException("Journal is closed"));
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writer thread: takes the first queued record, keeps the batch open as
+     * the durability mode allows, then writes and forces it once
+     */
+    private void writeLoop() {
+        List<Entry> batch = new ArrayList<>();
+        try {
+            while (true) {
+                Entry first = queue.take();
+                if (first == CLOSE) {
+                    return;
+                }
+                batch.add(first);
+                boolean closing = fillBatch(batch, size(first));
+                writeBatch(batch);
+                batch.clear();
+                if (closing) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            failWaiters(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds queued records to the batch until the durability mode closes it
+     * @return true if the close marker was reached
+     */
+    private boolean fillBatch(List<Entry> batch, long bytes) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (true) {
+            Entry next = durability == Durability.EVERY_WRITE || bytes >= maxBatchBytes
+                ? queue.poll() : queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return false;
+            }
+            if (next == CLOSE) {
+                return true;
+            }
+            batch.add(next);
+            bytes += size(next);
+        }
+    }
+
+    private static long size(Entry entry) {
+        return entry.bytes != null ? entry.bytes.length : 0;
+    }
+
+    private void writeBatch(List<Entry> batch) throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            Entry entry = batch.get(i);
+            byte[] bytes = entry.bytes != null ? entry.bytes : encodeSnapshot(entry.snapshot);
+            buffers[i] = ByteBuffer.wrap(bytes);
+        }
+        int last = 0;
+        while (last < buffers.length) {
+            channel.write(buffers, last, buffers.length - last);
+            while (last < buffers.length && !buffers[last].hasRemaining()) {
+                last++;
+            }
+        }
+        channel.force(false);
+        long sequence = batch.get(batch.size() - 1).sequence;
+        synchronized (waiters) {
+            durable = sequence;
+            while (!waiters.isEmpty() && waiters.peek().sequence <= sequence) {
+                waiters.poll().future.complete(sequence);
+            }
+        }
+    }
+
+    private void failWaiters(IOException e) {
+        synchronized (waiters) {
+            while (!waiters.isEmpty()) {
+                waiters.poll().future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Encodes a change's mutations, followed by the templates if they changed
+     */
+    private static byte[] encodeMutations(TrackerChange change, RecurrenceSchedule schedule) {
+        return record(out -> {
+            out.writeByte(MUTATIONS);
+            out.writeLong(change.getSnapshot().getVersion());
+            List<ProjectMutation> mutations = change.getMutations();
+            out.writeInt(mutations.size());
+            for (ProjectMutation mutation : mutations) {
+                out.writeByte(mutation.getType().ordinal());
+                ProjectCodec.write(out, mutation.getProject());
+                if (mutation.getType() == ProjectMutation.Type.UPDATE) {
+                    ProjectCodec.write(out, mutation.getReplacement());
+                }
+            }
+            out.writeBoolean(schedule != null);
+            if (schedule != null) {
+                writeSchedule(out, schedule);
+            }
+        });
+    }
+
+    private static byte[] encodeSnapshot(TrackerSnapshot snapshot) {
+        return record(out -> {
+            out.writeByte(SNAPSHOT);
+            out.writeLong(snapshot.getVersion());
+            writeProjects(out, snapshot.getActiveProjects());
+            writeProjects(out, snapshot.getCompletedProjectVector());
+            writeSchedule(out, snapshot.getSchedule());
+        });
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Frames a payload as [length][crc32][payload]
+     */
+    private static byte[] record(PayloadWriter payload) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(0);
+            payload.write(out);
+            out.flush();
+            byte[] record = bytes.toByteArray();
+            int length = record.length - 8;
+            CRC32 crc = new CRC32();
+            crc.update(record, 8, length);
+            ByteBuffer.wrap(record).putInt(length).putInt((int) crc.getValue());
+            return record;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeProjects(DataOutputStream out, PersistentVector<Project> projects) throws IOException {
+        out.writeInt(projects.size());
+        for (int i = 0; i < projects.size(); i++) {
+            ProjectCodec.write(out, projects.get(i));
+        }
+    }
+
+    private static void writeSchedule(DataOutputStream out, RecurrenceSchedule schedule) throws IOException {
+        List<RecurringProject> templates = schedule.getTemplates();
+        out.writeInt(templates.size());
+        for (RecurringProject template : templates) {
+            ProjectCodec.writeRecurring(out, template);
+            out.writeLong(schedule.getCreatedCount(template));
+        }
+    }
+
+    private static RecurrenceSchedule readSchedule(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<RecurringProject> templates = new ArrayList<>(count);
+        long[] created = new long[count];
+        for (int i = 0; i < count; i++) {
+            templates.add(ProjectCodec.readRecurring(in));
+            created[i] = in.readLong();
+        }
+        return RecurrenceSchedule.of(templates, created);
+    }
+
+    /**
+     * Replays every complete record into the tracker
+     * @return length of the valid prefix of the file
+     */
+    private static long replay(FileChannel channel, ProjectTracker tracker) throws IOException {
+        List<Project> active = new ArrayList<>(tracker.getProjects());
+        List<Project> completed = TrackerSnapshot.toList(tracker.snapshot().getCompletedProjectVector());
+        RecurrenceSchedule schedule = tracker.snapshot().getSchedule();
+        long valid = 0;
+        channel.position(0);
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        DataInputStream in = new DataInputStream(stream);
+        while (true) {
+            byte[] payload;
+            try {
+                int length = in.readInt();
+                int crc = in.readInt();
+                if (length < 0 || valid + 8 + length > channel.size()) {
+                    break;
+                }
+                payload = new byte[length];
+                in.readFully(payload);
+                CRC32 check = new CRC32();
+                check.update(payload);
+                if ((int) check.getValue() != crc) {
+                    break;
+                }
+            } catch (EOFException e) {
+                break;
+            }
+            RecurrenceSchedule recorded = apply(new DataInputStream(new ByteArrayInputStream(payload)),
+                active, completed);
+            if (recorded != null) {
+                schedule = recorded;
+            }
+            valid += 8 + payload.length;
+        }
+        if (valid > 0) {
+            tracker.load(active, completed, schedule);
+        }
+        return valid;
+    }
+
+    /**
+     * Applies one record to the recovered lists
+     * @return templates the record carries, or null if it carries none
+     */
+    private static RecurrenceSchedule apply(DataInputStream in, List<Project> active, List<Project> completed)
+            throws IOException {
+        byte kind = in.readByte();
+        in.readLong();
+        if (kind == SNAPSHOT) {
+            active.clear();
+            completed.clear();
+            readProjects(in, active);
+            readProjects(in, completed);
+            return readSchedule(in);
+        }
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            ProjectMutation.Type type = ProjectMutation.Type.values()[in.readByte()];
+            Project project = ProjectCodec.read(in);
+            int index;
+            switch (type) {
+                case ADD:
+                    active.add(project);
+                    break;
+                case UPDATE:
+                    Project replacement = ProjectCodec.read(in);
+                    index = active.indexOf(project);
+                    if (index != -1) {
+                        active.set(index, replacement);
+                    }
+                    break;
+                case DELETE:
+                    active.remove(project);
+                    break;
+                default:
+                    if (active.remove(project)) {
+                        project.setCompleted(true);
+                        completed.add(project);
+                    }
+            }
+        }
+        return in.readBoolean() ? readSchedule(in) : null;
+    }
+
+    private static void readProjects(DataInputStream in, List<Project> into) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            into.add(ProjectCodec.read(in));
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package ProjectTracker;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Small JSON reader and writer for projects. Only what the server needs is
+ * supported: objects, arrays, strings, numbers, booleans and null are read
+ * into maps, lists and strings, and projects are written as flat objects.
+ */
+final class ProjectJson {
+    static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    // Deepest nesting of objects and arrays the recursive reader accepts
+    static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int pos;
+    private int depth;
+
+    private ProjectJson(String text) {
+        this.text = text;
+        this.pos = 0;
+    }
+
+    /**
+     * Appends a project as a JSON object
+     * @param out builder to append to
+     * @param project project to write
+     */
+    static void write(StringBuilder out, Project project) {
+        out.append("{\"className\":");
+        quote(out, project.getClassName());
+        out.append(",\"dueDate\":\"").append(project.getDueDate().format(DATE_FORMATTER));
+        out.append("\",\"description\":");
+        quote(out, project.getDescription());
+        out.append(",\"priority\":\"").append(project.getPriority().name());
+        out.append("\",\"completed\":").append(project.isCompleted());
+        out.append(",\"overdue\":").append(project.isOverdue());
+        out.append(",\"timeEstimate\":");
+        quote(out, project.getTimeEstimate());
+        out.append(",\"actualTime\":");
+        quote(out, project.getActualTime());
+        out.append('}');
+    }
+
+    /**
+     * Appends a string as a quoted, escaped JSON string
+     * @param out builder to append to
+     * @param value string to write
+     */
+    static void quote(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Parses a JSON object
+     * @param text JSON text
+     * @return map of member names to values: strings, maps, lists or null
+     * @throws IllegalArgumentException if the text is not a single JSON object
+     *         or nests objects and arrays deeper than MAX_DEPTH
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Invalid JSON: empty body");
+        }
+        ProjectJson parser = new ProjectJson(text);
+        parser.skipWhitespace();
+        if (!parser.peek('{')) {
+            throw new IllegalArgumentException("Invalid JSON: expected an object");
+        }
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw new IllegalArgumentException("Invalid JSON: trailing characters at " + parser.pos);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Creates a project from parsed JSON members. className, dueDate and
+     * description are required; priority, timeEstimate and actualTime are optional.
+     * @param fields parsed members
+     * @return new project
+     * @throws IllegalArgumentException if a field is missing or invalid
+     */
+    static Project toProject(Map<String, Object> fields) {
+        Project.Builder builder = new Project.Builder()
+            .className(string(fields, "className"))
+            .dueDate(string(fields, "dueDate"))
+            .description(string(fields, "description"));
+        String priority = optionalString(fields, "priority");
+        if (priority != null) {
+            builder.priority(priority(priority));
+        }
+        String timeEstimate = optionalString(fields, "timeEstimate");
+        if (timeEstimate != null) {
+            builder.timeEstimate(timeEstimate);
+        }
+        String actualTime = optionalString(fields, "actualTime");
+        if (actualTime != null) {
+            builder.actualTime(actualTime);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Tests whether a project has the identifying fields in the given members:
+     * class name, due date and description, as Project.equals compares them
+     * @param project project to test
+     * @param fields parsed members
+     * @return true if the project matches
+     */
+    static boolean matches(Project project, Map<String, Object> fields) {
+        return project.getClassName().equals(string(fields, "className"))
+            && project.getDueDate().format(DATE_FORMATTER).equals(string(fields, "dueDate"))
+            && project.getDescription().equals(string(fields, "description"));
+    }
+
+    /**
+     * Parses a priority name, ignoring case
+     * @param name priority name
+     * @return priority
+     * @throws IllegalArgumentException if the name is not a priority
+     */
+    static Project.Priority priority(String name) {
+        try {
+            return Project.Priority.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid priority: " + name);
+        }
+    }
+
+    /**
+     * Gets a nested object member
+     * @param fields parsed members
+     * @param name member name
+     * @return nested members
+     * @throws IllegalArgumentException if the member is missing or not an object
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> object(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Missing object: " + name);
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static String string(Map<String, Object> fields, String name) {
+        String value = optionalString(fields, name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing field: " + name);
+        }
+        return value;
+    }
+
+    private static String optionalString(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Field must be a string or number: " + name);
+        }
+        return (String) value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("unexpected end");
+        }
+        char c = text.charAt(pos);
+        if ((c == '{' || c == '[') && ++depth > MAX_DEPTH) {
+            throw error("nested deeper than " + MAX_DEPTH);
+        }
+        if (c == '{') {
+            pos++;
+            Map<String, Object> members = new LinkedHashMap<>();
+            skipWhitespace();
+            if (peek('}')) {
+                pos++;
+                depth--;
+                return members;
+            }
+            while (true) {
+                skipWhitespace();
+                if (!peek('"')) {
+                    throw error("expected member name");
+                }
+                String name = readString();
+                skipWhitespace();
+                expect(':');
+                members.put(name, readValue());
+                skipWhitespace();
+                if (peek(',')) {
+                    pos++;
+                } else {
+                    expect('}');
+                    depth--;
+                    return members;
+                }
+            }
+        }
+        if (c == '[') {
+            pos++;
+            List<Object> items = new ArrayList<>();
+            skipWhitespace();
+            if (peek(']')) {
+                pos++;
+                depth--;
+                return items;
+            }
+            while (true) {
+                items.add(readValue());
+                skipWhitespace();
+                if (peek(',')) {
+                    pos++;
+                } else {
+                    expect(']');
+                    depth--;
+                    return items;
+                }
+            }
+        }
+        if (c == '"') {
+            return readString();
+        }
+        if (text.startsWith("true", pos)) {
+            pos += 4;
+            return "true";
+        }
+        if (text.startsWith("false", pos)) {
+            pos += 5;
+            return "false";
+        }
+        if (text.startsWith("null", pos)) {
+            pos += 4;
+            return null;
+        }
+        int start = pos;
+        while (pos < text.length() && "+-.eE0123456789".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("unexpected character '" + c + "'");
+        }
+        return text.substring(start, pos);
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder out = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return out.toString();
+            }
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (pos >= text.length()) {
+                break;
+            }
+            char escape = text.charAt(pos++);
+            switch (escape) {
+                case '"': case '\\': case '/': out.append(escape); break;
+                case 'b': out.append('\b'); break;
+                case 'f': out.append('\f'); break;
+                case 'n': out.append('\n'); break;
+                case 'r': out.append('\r'); break;
+                case 't': out.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) {
+                        throw error("bad unicode escape");
+                    }
+                    try {
+                        out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("bad unicode escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("bad escape");
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean peek(char c) {
+        return pos < text.length() && text.charAt(pos) == c;
+    }
+
+    private void expect(char c) {
+        if (!peek(c)) {
+            throw error("expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON: " + message + " at " + pos);
+    }
+}
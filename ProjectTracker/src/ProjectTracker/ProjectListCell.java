@@ -0,0 +1,22 @@
+package ProjectTracker;
+
+import javafx.scene.control.ListCell;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * List cell that shows a project's cached display line instead of
+ * re-formatting the project every time the cell is reused
+ */
+public class ProjectListCell extends ListCell<Project> {
+
+    @Override
+    protected void updateItem(Project project, boolean empty) {
+        super.updateItem(project, empty);
+        if (empty || project == null) {
+            setText(null);
+        } else {
+            setText(project.getDisplayString());
+        }
+    }
+}
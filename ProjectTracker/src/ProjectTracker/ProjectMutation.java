@@ -0,0 +1,95 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * A single change to a tracker, used both to describe the steps of a batch
+ * and to report applied changes to listeners
+ */
+public final class ProjectMutation {
+
+    // Enum for the kinds of change
+    public enum Type {
+        ADD, UPDATE, DELETE, COMPLETE
+    }
+
+    private final Type type;
+    private final Project project;
+    private final Project replacement;
+
+    private ProjectMutation(Type type, Project project, Project replacement) {
+        this.type = type;
+        this.project = project;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Creates a mutation that adds a project
+     * @param project project to add
+     * @return add mutation
+     */
+    public static ProjectMutation add(Project project) {
+        return new ProjectMutation(Type.ADD, project, null);
+    }
+
+    /**
+     * Creates a mutation that replaces an active project
+     * @param oldProject project to replace
+     * @param newProject updated project data
+     * @return update mutation
+     */
+    public static ProjectMutation update(Project oldProject, Project newProject) {
+        return new ProjectMutation(Type.UPDATE, oldProject, newProject);
+    }
+
+    /**
+     * Creates a mutation that deletes an active project
+     * @param project project to delete
+     * @return delete mutation
+     */
+    public static ProjectMutation delete(Project project) {
+        return new ProjectMutation(Type.DELETE, project, null);
+    }
+
+    /**
+     * Creates a mutation that moves an active project to the completed list
+     * @param project project to mark as completed
+     * @return complete mutation
+     */
+    public static ProjectMutation complete(Project project) {
+        return new ProjectMutation(Type.COMPLETE, project, project);
+    }
+
+    /**
+     * Creates the record of an applied change
+     * @param type kind of change
+     * @param project the project that was added, or the stored project that was removed or replaced
+     * @param replacement the project that took its place, or null
+     * @return applied mutation
+     */
+    static ProjectMutation applied(Type type, Project project, Project replacement) {
+        return new ProjectMutation(type, project, replacement);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the project the mutation acts on. For applied changes this is the
+     * instance that was stored in the tracker.
+     * @return target project
+     */
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Gets the project that replaces the target: the new data of an update,
+     * or the project added to the completed list by a completion
+     * @return replacement project, or null for adds and deletes
+     */
+    public Project getReplacement() {
+        return replacement;
+    }
+}
@@ -0,0 +1,62 @@
+package ProjectTracker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * One page of a project listing together with the cursor for the next page
+ */
+public final class ProjectPage {
+    private final List<Project> projects;
+    private final int pageNumber;
+    private final int totalCount;
+    private final ProjectCursor nextCursor;
+
+    /**
+     * Constructs a page
+     * @param projects projects on this page, in listing order
+     * @param pageNumber zero-based page number
+     * @param totalCount number of projects in the whole listing
+     * @param nextCursor cursor for the following page, or null if this is the last page
+     */
+    ProjectPage(List<Project> projects, int pageNumber, int totalCount, ProjectCursor nextCursor) {
+        this.projects = Collections.unmodifiableList(projects);
+        this.pageNumber = pageNumber;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the projects on this page
+     * @return unmodifiable list of projects
+     */
+    public List<Project> getProjects() {
+        return projects;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Checks if another page follows this one
+     * @return true if a next page exists
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Gets the cursor for the next page
+     * @return cursor for the next page, or null if this is the last page
+     */
+    public ProjectCursor getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,182 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Selection helpers used by ProjectTracker to cut a single page out of a
+ * sorted listing without sorting or copying the rest of the listing.
+ * Projects are addressed by their storage index and ordered by the
+ * requested key with the storage index as tie-breaker, which matches the
+ * stable order produced by sortProjects and sortByPriority. The keys are
+ * read into a primitive array in one pass over the listing, so selection
+ * compares longs instead of fetching a project for every comparison.
+ */
+final class ProjectPager {
+
+    private ProjectPager() {
+    }
+
+    /**
+     * Gets the sort key of a project in the given order
+     * @return due epoch day, priority ordinal, or 0 for insertion order
+     */
+    static long key(ProjectCursor.Order order, Project project) {
+        if (order == ProjectCursor.Order.DUE_DATE) {
+            return project.getDueEpochDay();
+        } else if (order == ProjectCursor.Order.PRIORITY) {
+            return project.getPriority().ordinal();
+        }
+        return 0;
+    }
+
+    /**
+     * Selects the storage indices of the projects ranked start to start + count - 1.
+     * Runs in expected O(n + count log count) using quickselect.
+     * @param keys sort key of the project at each storage index
+     * @param start rank of the first project of the page
+     * @param count number of projects on the page
+     * @return storage indices of the page in listing order
+     */
+    static int[] selectRange(long[] keys, int start, int count) {
+        if (count <= 0) {
+            return new int[0];
+        }
+        int size = keys.length;
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        select(indices, 0, size - 1, start, keys);
+        select(indices, start, size - 1, start + count - 1, keys);
+
+        int[] page = new int[count];
+        System.arraycopy(indices, start, page, 0, count);
+        heapSort(page, count, keys);
+        return page;
+    }
+
+    /**
+     * Selects the storage indices of the first count projects that follow the
+     * given project in the listing. Runs in O(n log count) with a bounded heap.
+     * @param keys sort key of the project at each storage index
+     * @param lastKey sort key of the last project of the previous page
+     * @param lastIndex storage index of the last project of the previous page
+     * @param count maximum number of projects on the page
+     * @return storage indices of the page in listing order
+     */
+    static int[] selectAfter(long[] keys, long lastKey, int lastIndex, int count) {
+        int[] heap = new int[Math.min(count, keys.length)];
+        int heapSize = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] < lastKey || (keys[i] == lastKey && i <= lastIndex)) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++, keys);
+            } else if (heapSize > 0 && less(i, heap[0], keys)) {
+                heap[0] = i;
+                siftDown(heap, 0, heapSize, keys);
+            }
+        }
+        sortHeap(heap, heapSize, keys);
+        if (heapSize == heap.length) {
+            return heap;
+        }
+        int[] page = new int[heapSize];
+        System.arraycopy(heap, 0, page, 0, heapSize);
+        return page;
+    }
+
+    /**
+     * Rearranges indices[lo..hi] so that position k holds the k-th smallest element
+     */
+    private static void select(int[] indices, int lo, int hi, int k, long[] keys) {
+        while (hi > lo) {
+            int pivot = partition(indices, lo, hi, (lo + hi) >>> 1, keys);
+            if (k == pivot) {
+                return;
+            } else if (k < pivot) {
+                hi = pivot - 1;
+            } else {
+                lo = pivot + 1;
+            }
+        }
+    }
+
+    private static int partition(int[] indices, int lo, int hi, int pivotPos, long[] keys) {
+        int pivot = indices[pivotPos];
+        swap(indices, pivotPos, hi);
+        int store = lo;
+        for (int i = lo; i < hi; i++) {
+            if (less(indices[i], pivot, keys)) {
+                swap(indices, store++, i);
+            }
+        }
+        swap(indices, store, hi);
+        return store;
+    }
+
+    /**
+     * Sorts the first size entries of indices in ascending listing order
+     */
+    private static void heapSort(int[] indices, int size, long[] keys) {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(indices, i, size, keys);
+        }
+        sortHeap(indices, size, keys);
+    }
+
+    /**
+     * Turns a max-heap of the given size into an ascending sequence
+     */
+    private static void sortHeap(int[] heap, int size, long[] keys) {
+        for (int end = size - 1; end > 0; end--) {
+            swap(heap, 0, end);
+            siftDown(heap, 0, end, keys);
+        }
+    }
+
+    private static void siftUp(int[] heap, int pos, long[] keys) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(heap[parent], heap[pos], keys)) {
+                return;
+            }
+            swap(heap, parent, pos);
+            pos = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int pos, int size, long[] keys) {
+        while (true) {
+            int largest = pos;
+            int left = 2 * pos + 1;
+            int right = left + 1;
+            if (left < size && less(heap[largest], heap[left], keys)) {
+                largest = left;
+            }
+            if (right < size && less(heap[largest], heap[right], keys)) {
+                largest = right;
+            }
+            if (largest == pos) {
+                return;
+            }
+            swap(heap, pos, largest);
+            pos = largest;
+        }
+    }
+
+    /**
+     * Compares two storage indices by key, breaking ties by index
+     */
+    private static boolean less(int i, int j, long[] keys) {
+        return keys[i] < keys[j] || (keys[i] == keys[j] && i < j);
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+}
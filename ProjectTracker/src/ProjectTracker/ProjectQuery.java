@@ -0,0 +1,203 @@
+package ProjectTracker;
+
+import java.time.LocalDate;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Composable project query. Predicates are combined with AND; any predicate
+ * left unset matches every project. Queries are executed by
+ * ProjectTracker.query, which picks the most selective index for one of the
+ * predicates and checks the rest in a single pass.
+ */
+public class ProjectQuery {
+    private Project.Priority priority;
+    private LocalDate dueFrom;
+    private LocalDate dueTo;
+    private Boolean completed;
+    private Boolean overdue;
+    private String className;
+    private String classNameTerm;
+    private ProjectCursor.Order order;
+    private int limit;
+
+    /**
+     * Constructs a query that matches all projects in insertion order
+     */
+    public ProjectQuery() {
+        this.order = ProjectCursor.Order.INSERTION;
+        this.limit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Restricts the query to one priority level
+     * @param priority priority to match
+     * @return this query
+     */
+    public ProjectQuery withPriority(Project.Priority priority) {
+        if (priority == null) {
+            throw new IllegalArgumentException("Priority cannot be null");
+        }
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Restricts the query to an inclusive due date range
+     * @param from earliest due date, or null for no lower bound
+     * @param to latest due date, or null for no upper bound
+     * @return this query
+     * @throws IllegalArgumentException if from is after to
+     */
+    public ProjectQuery dueBetween(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        this.dueFrom = from;
+        this.dueTo = to;
+        return this;
+    }
+
+    /**
+     * Restricts the query to completed or to active projects. Without this
+     * predicate both active and completed projects are searched.
+     * @param completed true for completed projects, false for active ones
+     * @return this query
+     */
+    public ProjectQuery completed(boolean completed) {
+        this.completed = completed;
+        return this;
+    }
+
+    /**
+     * Restricts the query to overdue or to not-overdue projects
+     * @param overdue true for overdue projects
+     * @return this query
+     */
+    public ProjectQuery overdue(boolean overdue) {
+        this.overdue = overdue;
+        return this;
+    }
+
+    /**
+     * Restricts the query to one class, matched exactly
+     * @param className class name to match
+     * @return this query
+     */
+    public ProjectQuery inClass(String className) {
+        if (className == null || className.trim().isEmpty()) {
+            throw new IllegalArgumentException("Class name cannot be empty");
+        }
+        this.className = className;
+        return this;
+    }
+
+    /**
+     * Restricts the query to classes whose name contains a term, ignoring case
+     * @param term search term
+     * @return this query
+     */
+    public ProjectQuery classNameContains(String term) {
+        if (term == null || term.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search term cannot be empty");
+        }
+        this.classNameTerm = term.toLowerCase();
+        return this;
+    }
+
+    /**
+     * Sets the result order
+     * @param order order of the results
+     * @return this query
+     */
+    public ProjectQuery orderBy(ProjectCursor.Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        this.order = order;
+        return this;
+    }
+
+    /**
+     * Caps the number of results
+     * @param limit maximum number of results
+     * @return this query
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public ProjectQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    Project.Priority getPriority() {
+        return priority;
+    }
+
+    LocalDate getDueFrom() {
+        return dueFrom;
+    }
+
+    LocalDate getDueTo() {
+        return dueTo;
+    }
+
+    Boolean getCompleted() {
+        return completed;
+    }
+
+    Boolean getOverdue() {
+        return overdue;
+    }
+
+    String getClassName() {
+        return className;
+    }
+
+    String getClassNameTerm() {
+        return classNameTerm;
+    }
+
+    ProjectCursor.Order getOrder() {
+        return order;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks every predicate of the query against a project
+     * @param project project to test
+     * @param classId id find returned for the exact class name
+     * @param today current epoch day
+     * @return true if the project matches
+     */
+    boolean matches(Project project, int classId, long today) {
+        if (priority != null && project.getPriority() != priority) {
+            return false;
+        }
+        long dueDay = project.getDueDate().toEpochDay();
+        if (dueFrom != null && dueDay < dueFrom.toEpochDay()) {
+            return false;
+        }
+        if (dueTo != null && dueDay > dueTo.toEpochDay()) {
+            return false;
+        }
+        if (completed != null && project.isCompleted() != completed) {
+            return false;
+        }
+        if (overdue != null && (!project.isCompleted() && today > dueDay) != overdue) {
+            return false;
+        }
+        if (className != null && !project.hasClassName(className, classId)) {
+            return false;
+        }
+        if (classNameTerm != null && !project.getLowerClassName().contains(classNameTerm)) {
+            return false;
+        }
+        return true;
+    }
+}
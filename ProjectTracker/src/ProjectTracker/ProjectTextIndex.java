@@ -0,0 +1,461 @@
+package ProjectTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Inverted full-text index over the class names and descriptions of a
+ * tracker's active projects, ranked with BM25. It registers as a tracker
+ * listener and applies every committed add, update, delete and completion,
+ * so searches never scan description text.
+ *
+ * Every indexed project gets an increasing document id and each term keeps
+ * a postings list of (document, term frequency) sorted by id. Removed
+ * documents are only marked dead; the index is renumbered once dead
+ * documents outnumber live ones. Queries walk the postings of their terms
+ * together one document at a time and keep the best results in a bounded
+ * heap, so a query costs the length of its postings lists and nothing more.
+ * The tracker's projects are frozen, so every text change arrives as an
+ * update and is applied to the postings of that one project.
+ */
+public final class ProjectTextIndex implements TrackerListener, AutoCloseable {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_COMPACTION = 1024;
+
+    /**
+     * How the terms of a query are combined
+     */
+    public enum Match {
+        /** Every term must occur in the project */
+        ALL,
+        /** At least one term must occur in the project */
+        ANY
+    }
+
+    /**
+     * Document ids and term frequencies of one term, in id order
+     */
+    private static final class Postings {
+        final IntDynamicArray docs = new IntDynamicArray(4);
+        final IntDynamicArray frequencies = new IntDynamicArray(4);
+        int live;
+    }
+
+    private final ProjectTracker tracker;
+    private final Map<String, Postings> terms;
+    private final Map<Project, IntDynamicArray> docIds;
+    private Project[] docs;
+    private int[] docLengths;
+    private int docCount;
+    private int liveDocs;
+    private long liveLength;
+    private boolean closed;
+
+    private ProjectTextIndex(ProjectTracker tracker) {
+        this.tracker = tracker;
+        this.terms = new HashMap<>();
+        this.docIds = new IdentityHashMap<>();
+        this.docs = new Project[16];
+        this.docLengths = new int[16];
+    }
+
+    /**
+     * Indexes the tracker's active projects and keeps the index in step with
+     * every later change until the index is closed
+     * @param tracker tracker to index
+     * @return attached index
+     * @throws IllegalArgumentException if tracker is null
+     */
+    public static ProjectTextIndex attach(ProjectTracker tracker) {
+        if (tracker == null) {
+            throw new IllegalArgumentException("Tracker cannot be null");
+        }
+        ProjectTextIndex index = new ProjectTextIndex(tracker);
+        synchronized (tracker) {
+            index.rebuild(tracker.snapshot().getActiveProjects());
+            tracker.addChangeListener(index);
+        }
+        return index;
+    }
+
+    /**
+     * Applies a committed change. Runs on the mutating thread inside the
+     * tracker's lock.
+     * @param change committed change
+     */
+    @Override
+    public synchronized void trackerChanged(TrackerChange change) {
+        if (closed || change.isReordered() && !change.isReset()) {
+            return;
+        }
+        if (change.isReset()) {
+            rebuild(change.getSnapshot().getActiveProjects());
+            return;
+        }
+        for (ProjectMutation mutation : change.getMutations()) {
+            switch (mutation.getType()) {
+                case ADD:
+                    addDocument(mutation.getProject());
+                    break;
+                case UPDATE:
+                    removeDocument(mutation.getProject());
+                    addDocument(mutation.getReplacement());
+                    break;
+                default:
+                    removeDocument(mutation.getProject());
+                    break;
+            }
+        }
+        if (docCount - liveDocs > Math.max(MIN_COMPACTION, liveDocs)) {
+            rebuild(change.getSnapshot().getActiveProjects());
+        }
+    }
+
+    /**
+     * Searches active projects by the words of their class name and description.
+     * Words are maximal runs of letters and digits compared without case.
+     * @param query words to search for
+     * @param match whether all or any of the words must occur
+     * @param limit maximum number of results
+     * @return matching projects, best BM25 score first, ties in insertion order
+     * @throws IllegalArgumentException if query or match is null, or limit is not positive
+     * @throws IllegalStateException if the index is closed
+     */
+    public synchronized List<Project> search(String query, Match match, int limit) {
+        if (query == null || match == null) {
+            throw new IllegalArgumentException("Query and match cannot be null");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (closed) {
+            throw new IllegalStateException("Index is closed");
+        }
+
+        Set<String> words = new LinkedHashSet<>();
+        tokenize(query, words);
+        List<Postings> lists = new ArrayList<>(words.size());
+        for (String word : words) {
+            Postings postings = terms.get(word);
+            if (postings != null && postings.live > 0) {
+                lists.add(postings);
+            } else if (match == Match.ALL) {
+                return new ArrayList<>();
+            }
+        }
+        if (lists.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // Shortest list first so an AND query is driven by its rarest term
+        lists.sort((a, b) -> Integer.compare(a.docs.size(), b.docs.size()));
+
+        int count = lists.size();
+        double[] idf = new double[count];
+        for (int t = 0; t < count; t++) {
+            int df = lists.get(t).live;
+            idf[t] = Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+        }
+        TopResults top = new TopResults(Math.min(limit, liveDocs));
+        int[] cursors = new int[count];
+        if (match == Match.ALL) {
+            searchAll(lists, idf, cursors, top);
+        } else {
+            searchAny(lists, idf, cursors, top);
+        }
+        return top.toList(docs);
+    }
+
+    /**
+     * Walks the shortest list and leaps the other cursors forward to each of its documents
+     */
+    private void searchAll(List<Postings> lists, double[] idf, int[] cursors, TopResults top) {
+        Postings driver = lists.get(0);
+        double averageLength = averageLength();
+        candidates:
+        for (int i = 0; i < driver.docs.size(); i++) {
+            int doc = driver.docs.get(i);
+            if (docs[doc] == null) {
+                continue;
+            }
+            double score = termScore(idf[0], driver.frequencies.get(i), doc, averageLength);
+            for (int t = 1; t < lists.size(); t++) {
+                Postings postings = lists.get(t);
+                int position = seek(postings.docs, cursors[t], doc);
+                cursors[t] = position;
+                if (position == postings.docs.size()) {
+                    return;
+                }
+                if (postings.docs.get(position) != doc) {
+                    continue candidates;
+                }
+                score += termScore(idf[t], postings.frequencies.get(position), doc, averageLength);
+            }
+            top.offer(doc, score);
+        }
+    }
+
+    /**
+     * Merges all lists in document order, scoring each document once
+     */
+    private void searchAny(List<Postings> lists, double[] idf, int[] cursors, TopResults top) {
+        double averageLength = averageLength();
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int t = 0; t < lists.size(); t++) {
+                IntDynamicArray postingDocs = lists.get(t).docs;
+                if (cursors[t] < postingDocs.size()) {
+                    doc = Math.min(doc, postingDocs.get(cursors[t]));
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                return;
+            }
+            double score = 0;
+            for (int t = 0; t < lists.size(); t++) {
+                Postings postings = lists.get(t);
+                int position = cursors[t];
+                if (position < postings.docs.size() && postings.docs.get(position) == doc) {
+                    score += termScore(idf[t], postings.frequencies.get(position), doc, averageLength);
+                    cursors[t] = position + 1;
+                }
+            }
+            if (docs[doc] != null) {
+                top.offer(doc, score);
+            }
+        }
+    }
+
+    private double termScore(double idf, int frequency, int doc, double averageLength) {
+        double norm = K1 * (1 - B + B * docLengths[doc] / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private double averageLength() {
+        return liveDocs == 0 ? 1 : Math.max(1.0, (double) liveLength / liveDocs);
+    }
+
+    /**
+     * Finds the first position at or after from whose document is at least target,
+     * galloping forward and then binary searching the last step
+     */
+    private static int seek(IntDynamicArray docs, int from, int target) {
+        int size = docs.size();
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && docs.get(high) < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (docs.get(mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Fixed-size min-heap of the best scores seen so far
+     */
+    private static final class TopResults {
+        private final int[] heapDocs;
+        private final double[] heapScores;
+        private int size;
+
+        TopResults(int capacity) {
+            this.heapDocs = new int[capacity];
+            this.heapScores = new double[capacity];
+        }
+
+        void offer(int doc, double score) {
+            if (size < heapDocs.length) {
+                heapDocs[size] = doc;
+                heapScores[size] = score;
+                siftUp(size++);
+            } else if (size > 0 && better(doc, score, heapDocs[0], heapScores[0])) {
+                heapDocs[0] = doc;
+                heapScores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        private static boolean better(int doc, double score, int otherDoc, double otherScore) {
+            return score > otherScore || score == otherScore && doc < otherDoc;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(heapDocs[parent], heapScores[parent], heapDocs[i], heapScores[i])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int worst = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < size; child++) {
+                    if (better(heapDocs[worst], heapScores[worst], heapDocs[child], heapScores[child])) {
+                        worst = child;
+                    }
+                }
+                if (worst == i) {
+                    return;
+                }
+                swap(i, worst);
+                i = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = heapDocs[a];
+            heapDocs[a] = heapDocs[b];
+            heapDocs[b] = doc;
+            double score = heapScores[a];
+            heapScores[a] = heapScores[b];
+            heapScores[b] = score;
+        }
+
+        List<Project> toList(Project[] projects) {
+            Project[] ranked = new Project[size];
+            while (size > 0) {
+                ranked[size - 1] = projects[heapDocs[0]];
+                size--;
+                heapDocs[0] = heapDocs[size];
+                heapScores[0] = heapScores[size];
+                siftDown(0);
+            }
+            return new ArrayList<>(Arrays.asList(ranked));
+        }
+    }
+
+    private void rebuild(PersistentVector<Project> projects) {
+        terms.clear();
+        docIds.clear();
+        docs = new Project[Math.max(16, projects.size())];
+        docLengths = new int[docs.length];
+        docCount = 0;
+        liveDocs = 0;
+        liveLength = 0;
+        projects.forEach(this::addDocument);
+    }
+
+    private void addDocument(Project project) {
+        Map<String, int[]> frequencies = termFrequencies(project);
+        if (docCount == docs.length) {
+            docs = Arrays.copyOf(docs, docCount * 2);
+            docLengths = Arrays.copyOf(docLengths, docCount * 2);
+        }
+        int doc = docCount++;
+        int length = 0;
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            Postings postings = terms.computeIfAbsent(entry.getKey(), word -> new Postings());
+            postings.docs.add(doc);
+            postings.frequencies.add(entry.getValue()[0]);
+            postings.live++;
+            length += entry.getValue()[0];
+        }
+        docs[doc] = project;
+        docLengths[doc] = length;
+        docIds.computeIfAbsent(project, p -> new IntDynamicArray(1)).add(doc);
+        liveDocs++;
+        liveLength += length;
+    }
+
+    private void removeDocument(Project project) {
+        IntDynamicArray ids = docIds.get(project);
+        if (ids == null) {
+            return;
+        }
+        int doc = ids.removeLast();
+        if (ids.isEmpty()) {
+            docIds.remove(project);
+        }
+        for (String word : termFrequencies(project).keySet()) {
+            Postings postings = terms.get(word);
+            if (postings != null && --postings.live == 0) {
+                terms.remove(word);
+            }
+        }
+        docs[doc] = null;
+        liveDocs--;
+        liveLength -= docLengths[doc];
+    }
+
+    private static Map<String, int[]> termFrequencies(Project project) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        List<String> words = new ArrayList<>();
+        tokenize(project.getClassName(), words);
+        tokenize(project.getDescription(), words);
+        for (String word : words) {
+            frequencies.computeIfAbsent(word, w -> new int[1])[0]++;
+        }
+        return frequencies;
+    }
+
+    /**
+     * Splits text into lower-case runs of letters and digits
+     */
+    private static void tokenize(String text, Collection<String> words) {
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of indexed projects
+     * @return live document count
+     */
+    public synchronized int size() {
+        return liveDocs;
+    }
+
+    /**
+     * Gets the number of distinct words in the index
+     * @return term count
+     */
+    public synchronized int getTermCount() {
+        return terms.size();
+    }
+
+    /**
+     * Stops following the tracker and drops the index
+     */
+    @Override
+    public void close() {
+        tracker.removeChangeListener(this);
+        synchronized (this) {
+            closed = true;
+            terms.clear();
+            docIds.clear();
+            docs = new Project[0];
+        }
+    }
+}
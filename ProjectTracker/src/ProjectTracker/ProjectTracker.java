@@ -1,28 +1,88 @@
 package ProjectTracker;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 /**
  * @author Abdul Chaudhary
  * 
- * Manages and tracks academic projects with enhanced functionality
+ * Manages and tracks academic projects with enhanced functionality.
+ * Mutations are serialised on the tracker's lock and publish a new
+ * immutable version when they finish; the listing, query and paging methods
+ * read the latest published version without taking the lock, so readers
+ * never see a half-applied change and never hold up writers. The tracker
+ * stores frozen copies of the projects it is given, so a published version
+ * never changes once readers can see it. Due-date reads are the one
+ * exception to reads being passive: they may add the recurring occurrences
+ * they reach, which is published like any other change but leaves page
+ * cursors valid.
  */
 public class ProjectTracker {
-    private DynamicArray<Project> projects;
-    private LinkedList<Project> completedProjects;
+    /** Days after today through which recurring occurrences are created and listed */
+    public static final int RECURRENCE_HORIZON_DAYS = 366;
+
     private int totalProjects;
+    private int modCount;
+    private ProjectIndex index;
+    // Storage sequence number of the last project stored
+    private long nextSeq;
+    private PersistentVector<Project> activeVersion;
+    private PersistentVector<Project> completedVersion;
+    private Deque<HistoryEntry> undoHistory;
+    private Deque<HistoryEntry> redoHistory;
+    private int undoLimit;
+    private static final int DEFAULT_UNDO_LIMIT = 50;
+    private volatile TrackerSnapshot published;
+    private long version;
+    private final List<TrackerListener> listeners;
+    private CompletedArchive archive;
+    private int archivedCount;
+    private RecurrenceSchedule schedule;
+    // Created by the first workload query
+    private volatile WorkloadCalendar workload;
+    // Created by the first sync
+    private volatile ProjectDigest digest;
+
+    /**
+     * Undo or redo step: the tracker state to return to, plus the caller's
+     * projects whose completed flag the step toggles
+     */
+    private static final class HistoryEntry {
+        final TrackerSnapshot state;
+        final List<Project> completedByStep;
+
+        HistoryEntry(TrackerSnapshot state, List<Project> completedByStep) {
+            this.state = state;
+            this.completedByStep = completedByStep;
+        }
+    }
 
     /**
      * Constructs a new ProjectTracker
      */
     public ProjectTracker() {
-        projects = new DynamicArray<>();
-        completedProjects = new LinkedList<>();
         totalProjects = 0;
+        activeVersion = PersistentVector.empty();
+        completedVersion = PersistentVector.empty();
+        index = ProjectIndex.EMPTY;
+        undoHistory = new ArrayDeque<>();
+        redoHistory = new ArrayDeque<>();
+        undoLimit = DEFAULT_UNDO_LIMIT;
+        listeners = new CopyOnWriteArrayList<>();
+        schedule = RecurrenceSchedule.EMPTY;
+        publish();
     }
 
     /**
@@ -30,36 +90,43 @@ public class ProjectTracker {
      * @param project project to add
      * @throws IllegalArgumentException if project is null
      */
-    public void addProject(Project project) {
+    public synchronized void addProject(Project project) {
         if (project == null) {
             throw new IllegalArgumentException("Project cannot be null");
         }
-        projects.add(project);
+        Project stored = project.storedCopy(++nextSeq);
+        saveUndoState(Collections.emptyList());
+        activeVersion = activeVersion.add(stored);
+        index = index.with(stored);
         totalProjects++;
+        modCount++;
+        commit(ProjectMutation.applied(ProjectMutation.Type.ADD, stored, null));
     }
 
     /**
      * Updates an existing project
      * @param oldProject project to update
      * @param newProject updated project data
+     * @return true if the project was found and updated
      * @throws IllegalArgumentException if either project is null
      */
-    public void updateProject(Project oldProject, Project newProject) {
+    public synchronized boolean updateProject(Project oldProject, Project newProject) {
         if (oldProject == null || newProject == null) {
             throw new IllegalArgumentException("Projects cannot be null");
         }
         
-        int index = -1;
-        for (int i = 0; i < projects.size(); i++) {
-            if (projects.get(i).equals(oldProject)) {
-                index = i;
-                break;
-            }
-        }
-        
+        int index = activeVersion.indexOf(oldProject);
         if (index != -1) {
-            projects.set(index, newProject);
+            Project stored = activeVersion.get(index);
+            Project replacement = newProject.storedCopy(stored.getSeq());
+            saveUndoState(Collections.emptyList());
+            activeVersion = activeVersion.set(index, replacement);
+            this.index = this.index.without(stored).with(replacement);
+            modCount++;
+            commit(ProjectMutation.applied(ProjectMutation.Type.UPDATE, stored, replacement));
+            return true;
         }
+        return false;
     }
 
     /**
@@ -67,58 +134,548 @@ public class ProjectTracker {
      * @param project project to delete
      * @return true if project was found and deleted
      */
-    public boolean deleteProject(Project project) {
-        boolean removed = false;
-        for (int i = 0; i < projects.size(); i++) {
-            if (projects.get(i).equals(project)) {
-                projects.remove(i);
-                totalProjects--;
-                removed = true;
-                break;
-            }
+    public synchronized boolean deleteProject(Project project) {
+        int index = activeVersion.indexOf(project);
+        if (index == -1) {
+            return false;
         }
-        return removed;
+        saveUndoState(Collections.emptyList());
+        Project stored = removeAt(index);
+        commit(ProjectMutation.applied(ProjectMutation.Type.DELETE, stored, null));
+        return true;
     }
 
     /**
-     * Marks a project as completed and moves it to completed projects list
+     * Marks a project as completed and moves it to completed projects list.
+     * The stored copy is replaced by a completed copy; the given project is
+     * marked completed too unless it is itself a copy the tracker holds.
      * @param project project to mark as completed
+     * @return true if the project was found and completed
      */
-    public void markProjectCompleted(Project project) {
-        if (deleteProject(project)) {
-            project.setCompleted(true);
-            completedProjects.add(project);
+    public synchronized boolean markProjectCompleted(Project project) {
+        return complete(project) != null;
+    }
+
+    /**
+     * Marks a project as completed in one locked step
+     * @param project project to mark as completed
+     * @return the completed copy now in the completed list, or null if the
+     *         project is not active
+     */
+    synchronized Project complete(Project project) {
+        int index = activeVersion.indexOf(project);
+        if (index != -1) {
+            List<Project> handles = project.isFrozen()
+                ? Collections.emptyList() : Collections.singletonList(project);
+            saveUndoState(handles);
+            Project stored = removeAt(index);
+            Project completed = stored.completedCopy();
+            for (Project handle : handles) {
+                handle.setCompleted(true);
+            }
+            completedVersion = completedVersion.add(completed);
             totalProjects++;
+            commit(ProjectMutation.applied(ProjectMutation.Type.COMPLETE, stored, completed));
+            return completed;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the active project at a storage index in O(log n)
+     * @return the removed project
+     */
+    private Project removeAt(int index) {
+        Project removed = activeVersion.get(index);
+        activeVersion = activeVersion.remove(index);
+        this.index = this.index.without(removed);
+        totalProjects--;
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Applies a list of mutations as one transaction. Every step is checked
+     * against the state left by the steps before it; if any step is invalid
+     * nothing is applied. On success the storage is rebuilt once, one
+     * version is published, one undo step is recorded and listeners get a
+     * single notification covering the whole batch.
+     * @param mutations mutations to apply in order
+     * @throws IllegalArgumentException if mutations is null or any step is invalid
+     */
+    public synchronized void batch(List<ProjectMutation> mutations) {
+        if (mutations == null) {
+            throw new IllegalArgumentException("Mutations cannot be null");
+        }
+        if (mutations.isEmpty()) {
+            return;
+        }
+
+        // Working copy with tombstones; positions of each project kept in ascending order
+        List<Project> working = getProjects();
+        Map<Project, IntDynamicArray> positions = new HashMap<>();
+        for (int i = 0; i < working.size(); i++) {
+            positions.computeIfAbsent(working.get(i), p -> new IntDynamicArray(1)).add(i);
+        }
+        List<ProjectMutation> applied = new ArrayList<>(mutations.size());
+        List<Project> completedByBatch = new ArrayList<>();
+        List<Project> handles = new ArrayList<>();
+        int removedCount = 0;
+
+        for (int step = 0; step < mutations.size(); step++) {
+            ProjectMutation mutation = mutations.get(step);
+            if (mutation == null || mutation.getProject() == null) {
+                throw new IllegalArgumentException("Batch step " + step + ": project cannot be null");
+            }
+            Project target = mutation.getProject();
+            if (mutation.getType() == ProjectMutation.Type.ADD) {
+                Project added = target.storedCopy(++nextSeq);
+                positions.computeIfAbsent(added, p -> new IntDynamicArray(1)).add(working.size());
+                working.add(added);
+                applied.add(ProjectMutation.applied(ProjectMutation.Type.ADD, added, null));
+                continue;
+            }
+            if (mutation.getType() == ProjectMutation.Type.UPDATE && mutation.getReplacement() == null) {
+                throw new IllegalArgumentException("Batch step " + step + ": projects cannot be null");
+            }
+            IntDynamicArray found = positions.get(target);
+            if (found == null || found.isEmpty()) {
+                throw new IllegalArgumentException("Batch step " + step + ": project not found");
+            }
+            int position = found.remove(0);
+            Project stored = working.get(position);
+            Project replacement = null;
+            if (mutation.getType() == ProjectMutation.Type.UPDATE) {
+                replacement = mutation.getReplacement().storedCopy(stored.getSeq());
+                positions.computeIfAbsent(replacement, p -> new IntDynamicArray(1)).addSorted(position);
+                working.set(position, replacement);
+            } else {
+                working.set(position, null);
+                removedCount++;
+                if (mutation.getType() == ProjectMutation.Type.COMPLETE) {
+                    replacement = stored.completedCopy();
+                    completedByBatch.add(replacement);
+                    if (!target.isFrozen()) {
+                        handles.add(target);
+                    }
+                }
+            }
+            applied.add(ProjectMutation.applied(mutation.getType(), stored, replacement));
+        }
+
+        // Commit: compact once, rebuild storage once
+        saveUndoState(handles);
+        List<Project> active = new ArrayList<>(working.size() - removedCount);
+        for (Project p : working) {
+            if (p != null) {
+                active.add(p);
+            }
+        }
+        activeVersion = PersistentVector.of(active);
+        index = reindex(applied);
+        PersistentVector.Transient<Project> completedBuilder = completedVersion.asTransient();
+        for (Project p : completedByBatch) {
+            completedBuilder.add(p);
+        }
+        for (Project handle : handles) {
+            handle.setCompleted(true);
+        }
+        completedVersion = completedBuilder.persistent();
+        totalProjects = active.size() + completedVersion.size() + archivedCount;
+        modCount++;
+        commit(applied, false, false);
+    }
+
+    /**
+     * Applies a batch's changes to the query index, or rebuilds it when the
+     * batch touches a large part of the active projects
+     */
+    private ProjectIndex reindex(List<ProjectMutation> applied) {
+        if (applied.size() > activeVersion.size() / 4) {
+            return ProjectIndex.build(activeVersion);
+        }
+        ProjectIndex updated = index;
+        for (ProjectMutation mutation : applied) {
+            switch (mutation.getType()) {
+                case ADD:
+                    updated = updated.with(mutation.getProject());
+                    break;
+                case UPDATE:
+                    updated = updated.without(mutation.getProject()).with(mutation.getReplacement());
+                    break;
+                default:
+                    updated = updated.without(mutation.getProject());
+                    break;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Adds a recurring project template. No occurrence is created until a
+     * due-date query or sorted listing reaches it, and none due more than
+     * RECURRENCE_HORIZON_DAYS after today is created or listed.
+     * @param template template to add
+     * @throws IllegalArgumentException if template is null or already added
+     */
+    public synchronized void addRecurringProject(RecurringProject template) {
+        if (template == null) {
+            throw new IllegalArgumentException("Recurring project cannot be null");
+        }
+        if (schedule.getCreatedCount(template) >= 0) {
+            throw new IllegalArgumentException("Recurring project already added");
+        }
+        saveUndoState(Collections.emptyList());
+        schedule = schedule.with(template);
+        commit(Collections.emptyList(), false, false);
+    }
+
+    /**
+     * Removes a recurring project template. Occurrences already created
+     * stay in the tracker as ordinary projects.
+     * @param template template to remove
+     * @return true if the template was found and removed
+     */
+    public synchronized boolean removeRecurringProject(RecurringProject template) {
+        if (schedule.getCreatedCount(template) < 0) {
+            return false;
+        }
+        saveUndoState(Collections.emptyList());
+        schedule = schedule.without(template);
+        commit(Collections.emptyList(), false, false);
+        return true;
+    }
+
+    /**
+     * Gets the recurring project templates
+     * @return unmodifiable list of templates in the order they were added
+     */
+    public List<RecurringProject> getRecurringProjects() {
+        return published.getRecurringProjects();
+    }
+
+    /**
+     * Makes sure every occurrence a query window reaches exists as a project,
+     * but never past RECURRENCE_HORIZON_DAYS from today, so the projects a
+     * template creates are bounded however far a reader looks. Checking costs
+     * O(1) when nothing is due; otherwise the new occurrences are appended in
+     * due date order and published as one change, which listeners and the
+     * journal see like any add. Creating them is not an undo step, since the
+     * user did not ask for it, and does not invalidate page cursors: the
+     * occurrences land after every stored project, so an open cursor keeps
+     * its place and lists them only if they sort after its last project.
+     * @param throughDay last due day the window reaches
+     * @param upcomingFrom day every template must have an occurrence on or
+     *        after, or Long.MIN_VALUE
+     */
+    private void materialize(long throughDay, long upcomingFrom) {
+        throughDay = Math.min(throughDay, Project.currentEpochDay() + RECURRENCE_HORIZON_DAYS);
+        if (published.getSchedule().covers(throughDay, upcomingFrom)) {
+            return;
+        }
+        synchronized (this) {
+            List<Project> occurrences = new ArrayList<>();
+            schedule = schedule.materialize(throughDay, upcomingFrom, occurrences);
+            if (occurrences.isEmpty()) {
+                return;
+            }
+            List<ProjectMutation> applied = new ArrayList<>(occurrences.size());
+            PersistentVector.Transient<Project> activeBuilder = activeVersion.asTransient();
+            for (Project p : occurrences) {
+                Project stored = p.storedCopy(++nextSeq);
+                activeBuilder.add(stored);
+                index = index.with(stored);
+                applied.add(ProjectMutation.applied(ProjectMutation.Type.ADD, stored, null));
+            }
+            activeVersion = activeBuilder.persistent();
+            totalProjects += occurrences.size();
+            commit(applied, false, false);
+        }
+    }
+
+    /**
+     * Registers a listener for committed changes
+     * @param listener listener to add
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addChangeListener(TrackerListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener
+     * @param listener listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removeChangeListener(TrackerListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Publishes the current state and notifies listeners of a single mutation
+     */
+    private void commit(ProjectMutation mutation) {
+        commit(Collections.singletonList(mutation), false, false);
+    }
+
+    /**
+     * Publishes the current state and sends one notification for the change
+     */
+    private void commit(List<ProjectMutation> mutations, boolean reordered, boolean reset) {
+        publish();
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TrackerChange change = new TrackerChange(mutations, reordered, reset, published);
+        for (TrackerListener listener : listeners) {
+            listener.trackerChanged(change);
         }
     }
 
     /**
      * Sorts projects by due date
      */
-    public void sortProjects() {
+    public synchronized void sortProjects() {
         List<Project> projectList = getProjects();
         Collections.sort(projectList, 
             (p1, p2) -> p1.getDueDate().compareTo(p2.getDueDate()));
         
-        // Rebuild dynamic array
-        projects = new DynamicArray<>();
-        for (Project p : projectList) {
-            projects.add(p);
-        }
+        saveUndoState(Collections.emptyList());
+        reorder(projectList);
     }
 
     /**
      * Sorts projects by priority
      */
-    public void sortByPriority() {
+    public synchronized void sortByPriority() {
         List<Project> projectList = getProjects();
         Collections.sort(projectList, 
             (p1, p2) -> p1.getPriority().compareTo(p2.getPriority()));
         
-        projects = new DynamicArray<>();
-        for (Project p : projectList) {
-            projects.add(p);
+        saveUndoState(Collections.emptyList());
+        reorder(projectList);
+    }
+
+    /**
+     * Stores the active projects in a new order. The projects are stored
+     * again under new sequence numbers, so listeners rebuild from the snapshot.
+     */
+    private void reorder(List<Project> projectList) {
+        activeVersion = renumbered(projectList);
+        index = ProjectIndex.build(activeVersion);
+        modCount++;
+        commit(Collections.emptyList(), true, true);
+    }
+
+    /**
+     * Builds a vector of stored copies of the given projects, numbered in list order
+     */
+    private PersistentVector<Project> renumbered(List<Project> projects) {
+        PersistentVector.Transient<Project> builder = PersistentVector.<Project>empty().asTransient();
+        for (Project p : projects) {
+            builder.add(p.storedCopy(++nextSeq));
+        }
+        return builder.persistent();
+    }
+
+    /**
+     * Takes a point-in-time snapshot of the tracker in O(1)
+     * @return latest published version of the active and completed projects
+     */
+    public TrackerSnapshot snapshot() {
+        return published;
+    }
+
+    /**
+     * Opens a read view on the latest published version for a long-running
+     * read such as a report or export. Writers keep publishing new versions
+     * meanwhile; the view's version stays reachable until the view is closed.
+     * @return read view that should be closed when the read is done
+     */
+    public TrackerReadView openReadView() {
+        return new TrackerReadView(published);
+    }
+
+    /**
+     * Makes the current state visible to readers as a new version
+     */
+    private void publish() {
+        published = new TrackerSnapshot(activeVersion, completedVersion, index, totalProjects, ++version,
+            modCount, archive, archivedCount, schedule);
+    }
+
+    /**
+     * Reverts the most recent change
+     * @return true if a change was undone
+     */
+    public synchronized boolean undo() {
+        if (undoHistory.isEmpty()) {
+            return false;
         }
+        HistoryEntry entry = undoHistory.pop();
+        redoHistory.push(new HistoryEntry(snapshot(), entry.completedByStep));
+        for (Project handle : entry.completedByStep) {
+            handle.setCompleted(false);
+        }
+        restore(entry.state);
+        return true;
+    }
+
+    /**
+     * Re-applies the most recently undone change
+     * @return true if a change was redone
+     */
+    public synchronized boolean redo() {
+        if (redoHistory.isEmpty()) {
+            return false;
+        }
+        HistoryEntry entry = redoHistory.pop();
+        undoHistory.push(new HistoryEntry(snapshot(), entry.completedByStep));
+        for (Project handle : entry.completedByStep) {
+            handle.setCompleted(true);
+        }
+        restore(entry.state);
+        return true;
+    }
+
+    public synchronized boolean canUndo() {
+        return !undoHistory.isEmpty();
+    }
+
+    public synchronized boolean canRedo() {
+        return !redoHistory.isEmpty();
+    }
+
+    /**
+     * Sets how many changes can be undone
+     * @param limit maximum number of undo steps kept
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public synchronized void setUndoLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Undo limit cannot be negative");
+        }
+        undoLimit = limit;
+        while (undoHistory.size() > undoLimit) {
+            undoHistory.removeLast();
+        }
+    }
+
+    /**
+     * Records the current state before a change; each entry is an O(1) snapshot
+     * @param completedByStep caller's projects the change marks completed
+     */
+    private void saveUndoState(List<Project> completedByStep) {
+        redoHistory.clear();
+        if (undoLimit == 0) {
+            return;
+        }
+        undoHistory.push(new HistoryEntry(snapshot(), completedByStep));
+        if (undoHistory.size() > undoLimit) {
+            undoHistory.removeLast();
+        }
+    }
+
+    /**
+     * Makes a snapshot the current state in O(1)
+     */
+    private void restore(TrackerSnapshot state) {
+        activeVersion = state.getActiveProjects();
+        completedVersion = state.getCompletedProjectVector();
+        index = state.getIndex();
+        totalProjects = state.getTotalProjects();
+        schedule = state.getSchedule();
+        modCount++;
+        commit(Collections.emptyList(), false, true);
+    }
+
+    /**
+     * Replaces the tracker's contents with recovered lists and clears the
+     * undo history; used when reloading persisted state. The recurring
+     * templates are kept.
+     * @param active active projects in storage order
+     * @param completed completed projects in completion order
+     */
+    synchronized void load(List<Project> active, List<Project> completed) {
+        load(active, completed, schedule);
+    }
+
+    /**
+     * Replaces the tracker's contents and recurring templates with recovered
+     * state and clears the undo history
+     * @param active active projects in storage order
+     * @param completed completed projects in completion order
+     * @param recurring templates together with the occurrences already made of each
+     */
+    synchronized void load(List<Project> active, List<Project> completed, RecurrenceSchedule recurring) {
+        undoHistory.clear();
+        redoHistory.clear();
+        PersistentVector<Project> activeProjects = renumbered(active);
+        restore(new TrackerSnapshot(activeProjects, renumbered(completed), ProjectIndex.build(activeProjects),
+            active.size() + completed.size() + archivedCount, version, modCount, archive, archivedCount, recurring));
+    }
+
+    /**
+     * Attaches cold storage for completed projects. Projects already in the
+     * archive count as completed projects of this tracker from now on.
+     * Clears the undo history, since earlier versions predate the archive.
+     * @param archive open archive
+     * @throws IllegalArgumentException if archive is null
+     * @throws IllegalStateException if an archive is already attached
+     */
+    public synchronized void attachArchive(CompletedArchive archive) {
+        if (archive == null) {
+            throw new IllegalArgumentException("Archive cannot be null");
+        }
+        if (this.archive != null) {
+            throw new IllegalStateException("An archive is already attached");
+        }
+        this.archive = archive;
+        archivedCount = archive.size();
+        totalProjects += archivedCount;
+        undoHistory.clear();
+        redoHistory.clear();
+        modCount++;
+        commit(Collections.emptyList(), false, true);
+    }
+
+    /**
+     * Moves completed projects last modified at least minAgeDays ago, which
+     * for a completed project is normally the day it was completed, from
+     * memory into the attached archive. Archived projects are listed before
+     * the ones still in memory. Archiving cannot be undone and clears the
+     * undo history.
+     * @param minAgeDays minimum age in days
+     * @return number of projects archived
+     * @throws IllegalArgumentException if minAgeDays is negative
+     * @throws IllegalStateException if no archive is attached
+     * @throws IOException if the archive cannot be written; nothing is removed from memory
+     */
+    public synchronized int archiveCompleted(int minAgeDays) throws IOException {
+        if (minAgeDays < 0) {
+            throw new IllegalArgumentException("Age cannot be negative");
+        }
+        if (archive == null) {
+            throw new IllegalStateException("No archive is attached");
+        }
+        LocalDate cutoff = LocalDate.now().minusDays(minAgeDays);
+        List<Project> cold = new ArrayList<>();
+        List<Project> hot = new ArrayList<>();
+        completedVersion.forEach(p -> (p.getLastModified().isAfter(cutoff) ? hot : cold).add(p));
+        if (cold.isEmpty()) {
+            return 0;
+        }
+        archive.append(cold);
+        archivedCount += cold.size();
+        completedVersion = PersistentVector.of(hot);
+        undoHistory.clear();
+        redoHistory.clear();
+        modCount++;
+        commit(Collections.emptyList(), false, true);
+        return cold.size();
     }
 
     /**
@@ -126,11 +683,18 @@ public class ProjectTracker {
      * @return list of active projects
      */
     public List<Project> getProjects() {
-        List<Project> projectList = new ArrayList<>();
-        for (int i = 0; i < projects.size(); i++) {
-            projectList.add(projects.get(i));
-        }
-        return projectList;
+        return published.getProjects();
+    }
+
+    /**
+     * Gets all active projects in a sorted order without reordering the tracker.
+     * Ties keep storage order, matching sortProjects and sortByPriority.
+     * @param order order of the listing
+     * @return sorted list of active projects
+     */
+    public List<Project> getProjectsSortedBy(ProjectCursor.Order order) {
+        materialize(Project.currentEpochDay() - 1, Project.currentEpochDay());
+        return published.getProjectsSortedBy(order);
     }
 
     /**
@@ -138,11 +702,7 @@ public class ProjectTracker {
      * @return list of completed projects
      */
     public List<Project> getCompletedProjects() {
-        List<Project> completed = new ArrayList<>();
-        for (int i = 0; i < completedProjects.size(); i++) {
-            completed.add(completedProjects.get(i));
-        }
-        return completed;
+        return published.getCompletedProjects();
     }
 
     /**
@@ -151,9 +711,7 @@ public class ProjectTracker {
      * @return list of projects with specified priority
      */
     public List<Project> filterByPriority(Project.Priority priority) {
-        return getProjects().stream()
-            .filter(p -> p.getPriority() == priority)
-            .collect(Collectors.toList());
+        return published.filterByPriority(priority);
     }
 
     /**
@@ -162,10 +720,8 @@ public class ProjectTracker {
      * @return list of projects due within specified days
      */
     public List<Project> getProjectsDueWithin(int days) {
-        LocalDate cutoff = LocalDate.now().plusDays(days);
-        return getProjects().stream()
-            .filter(p -> !p.getDueDate().isAfter(cutoff))
-            .collect(Collectors.toList());
+        materialize(Project.currentEpochDay() + days, Long.MIN_VALUE);
+        return published.getProjectsDueWithin(days);
     }
 
     /**
@@ -173,9 +729,89 @@ public class ProjectTracker {
      * @return list of overdue projects
      */
     public List<Project> getOverdueProjects() {
-        return getProjects().stream()
-            .filter(Project::isOverdue)
-            .collect(Collectors.toList());
+        materialize(Project.currentEpochDay() - 1, Long.MIN_VALUE);
+        return published.getOverdueProjects();
+    }
+
+    /**
+     * Sums the estimated hours of active projects due in a date range,
+     * including recurring occurrences due by the end of the range or the
+     * recurrence horizon, whichever comes first. The
+     * first call indexes the tracker; later calls cost O(log n).
+     * @param from first due date, inclusive
+     * @param to last due date, inclusive
+     * @return estimated hours due in the range
+     * @throws IllegalArgumentException if a date is null or from is after to
+     */
+    public long getEstimatedHours(LocalDate from, LocalDate to) {
+        return workloadCalendar(to).getEstimatedHours(from, to);
+    }
+
+    /**
+     * Finds the Monday-to-Sunday week with the most estimated hours among
+     * the weeks that overlap a date range
+     * @param from first date, inclusive
+     * @param to last date, inclusive
+     * @return Monday of the busiest week, earliest on ties, or null if no
+     *         hours are due in those weeks
+     * @throws IllegalArgumentException if a date is null or from is after to
+     */
+    public LocalDate getPeakWeek(LocalDate from, LocalDate to) {
+        return workloadCalendar(to).getPeakWeek(from, to);
+    }
+
+    private WorkloadCalendar workloadCalendar(LocalDate through) {
+        if (through != null) {
+            // Whole weeks are compared, so cover the Sunday ending the last one
+            materialize(through.toEpochDay() + 6, Long.MIN_VALUE);
+        }
+        WorkloadCalendar calendar = workload;
+        if (calendar == null || calendar.isClosed()) {
+            synchronized (this) {
+                if (workload == null || workload.isClosed()) {
+                    workload = WorkloadCalendar.attach(this);
+                }
+                calendar = workload;
+            }
+        }
+        return calendar;
+    }
+
+    /**
+     * Gets the Merkle digest of the active projects, which another tracker
+     * can sync against. The first call builds it; it then follows every
+     * change at O(log n) per project.
+     * @return digest of this tracker
+     */
+    public ProjectDigest getDigest() {
+        ProjectDigest current = digest;
+        if (current == null || current.isClosed()) {
+            synchronized (this) {
+                if (digest == null || digest.isClosed()) {
+                    digest = ProjectDigest.attach(this);
+                }
+                current = digest;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Makes the active projects match a digest's projects by applying the
+     * minimal adds, deletes and updates as one batch and one undo step.
+     * Only buckets whose hashes differ are compared.
+     * @param target digest of the projects to match, such as another
+     *        tracker's digest or one built from a file
+     * @return number of changes applied
+     * @throws IllegalArgumentException if target is null
+     */
+    public synchronized int syncWith(ProjectDigest target) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        List<ProjectMutation> changes = getDigest().diff(target);
+        batch(changes);
+        return changes.size();
     }
 
     /**
@@ -184,13 +820,260 @@ public class ProjectTracker {
      * @return list of matching projects
      */
     public List<Project> searchByClassName(String searchTerm) {
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return new ArrayList<>();
+        return published.searchByClassName(searchTerm);
+    }
+
+    /**
+     * Searches active projects for class names within an edit distance of a
+     * term, ignoring case, so mistyped course codes still match
+     * @param searchTerm class name as typed
+     * @param maxDistance largest edit distance accepted
+     * @return list of matching projects
+     * @throws IllegalArgumentException if maxDistance is negative
+     */
+    public List<Project> searchByClassNameFuzzy(String searchTerm, int maxDistance) {
+        return published.searchByClassNameFuzzy(searchTerm, maxDistance);
+    }
+
+    /**
+     * Gets projects whose class name matches exactly
+     * @param className class name to match
+     * @return list of projects in the given class
+     */
+    public List<Project> filterByClassName(String className) {
+        return published.filterByClassName(className);
+    }
+
+    /**
+     * Groups active projects by class name, keeping classes in order of first appearance
+     * @return map from class name to the projects in that class
+     */
+    public Map<String, List<Project>> groupByClassName() {
+        return published.groupByClassName();
+    }
+
+    /**
+     * Runs a composed query. The most selective available index (class name
+     * hash, due date, priority or class name text) supplies candidates and
+     * the remaining predicates are checked in the same pass.
+     * @param query query to run
+     * @return matching projects in the query's order, at most its limit
+     * @throws IllegalArgumentException if query is null
+     */
+    public List<Project> query(ProjectQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        if (!Boolean.TRUE.equals(query.getCompleted())) {
+            long today = Project.currentEpochDay();
+            long through = query.getDueTo() == null ? Long.MIN_VALUE : query.getDueTo().toEpochDay();
+            if (Boolean.TRUE.equals(query.getOverdue())) {
+                through = query.getDueTo() == null ? today - 1 : Math.min(through, today - 1);
+            }
+            materialize(through, Long.MIN_VALUE);
+        }
+        TrackerSnapshot current = published;
+        return current.getIndex().execute(query, current.getActiveProjects(), current.getArchivedProjects(),
+            current.getCompletedProjectVector(), Project.currentEpochDay());
+    }
+
+    /**
+     * Describes the access path query would use for a query
+     * @param query query to plan
+     * @return access path and estimated number of candidates
+     */
+    public String explain(ProjectQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        int classId = query.getClassName() == null ? -1 : ClassNameTable.shared().find(query.getClassName());
+        return published.getIndex().plan(query, classId, Project.currentEpochDay()).toString();
+    }
+
+    /**
+     * Gets one page of a project listing without building the pages before it.
+     * Sorted listings use the same order as sortProjects and sortByPriority.
+     * @param source list to page over
+     * @param order order of the listing
+     * @param pageNumber zero-based page number
+     * @param pageSize number of projects per page
+     * @return the requested page, empty if pageNumber is past the end
+     * @throws IllegalArgumentException if pageNumber or pageSize is invalid
+     */
+    public ProjectPage getPage(ProjectCursor.Source source, ProjectCursor.Order order,
+                               int pageNumber, int pageSize) {
+        if (source == null || order == null) {
+            throw new IllegalArgumentException("Source and order cannot be null");
+        }
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        if (source == ProjectCursor.Source.ACTIVE && order != ProjectCursor.Order.INSERTION && pageNumber == 0) {
+            // Later pages continue the listing this page started
+            materialize(Project.currentEpochDay() - 1, Project.currentEpochDay());
+        }
+        TrackerSnapshot current = published;
+        int total = sourceSize(current, source);
+        int start = (int) Math.min((long) pageNumber * pageSize, total);
+        int count = Math.min(pageSize, total - start);
+
+        if (order == ProjectCursor.Order.INSERTION) {
+            return insertionPage(current, source, pageSize, pageNumber, start, count, total);
+        }
+        int[] indices = count == 0 ? new int[0]
+            : ProjectPager.selectRange(sortKeys(current, source, order), start, count);
+        return sortedPage(current, source, order, pageSize, pageNumber, start, indices, total);
+    }
+
+    /**
+     * Gets the first page of a project listing
+     * @param source list to page over
+     * @param order order of the listing
+     * @param pageSize number of projects per page
+     * @return the first page
+     */
+    public ProjectPage getFirstPage(ProjectCursor.Source source, ProjectCursor.Order order, int pageSize) {
+        return getPage(source, order, 0, pageSize);
+    }
+
+    /**
+     * Gets the page a cursor points at
+     * @param cursor cursor from a previous page
+     * @return the next page
+     * @throws IllegalArgumentException if cursor is null
+     * @throws ConcurrentModificationException if the tracker changed since the cursor was issued
+     */
+    public ProjectPage getNextPage(ProjectCursor cursor) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Cursor cannot be null");
+        }
+        TrackerSnapshot current = published;
+        if (cursor.getExpectedModCount() != current.getModCount()) {
+            throw new ConcurrentModificationException("Projects were modified since the cursor was issued");
+        }
+        ProjectCursor.Source source = cursor.getSource();
+        int total = sourceSize(current, source);
+        int start = Math.min(cursor.getPosition(), total);
+        int count = Math.min(cursor.getPageSize(), total - start);
+
+        if (cursor.getOrder() == ProjectCursor.Order.INSERTION) {
+            return insertionPage(current, source, cursor.getPageSize(), cursor.getPageNumber(), start, count, total);
         }
-        return getProjects().stream()
-            .filter(p -> p.getClassName().toLowerCase()
-                .contains(searchTerm.toLowerCase()))
-            .collect(Collectors.toList());
+        ProjectCursor.Order order = cursor.getOrder();
+        int[] indices = count == 0 ? new int[0]
+            : ProjectPager.selectAfter(sortKeys(current, source, order),
+                ProjectPager.key(order, cursor.getLastProject()), cursor.getLastIndex(), count);
+        return sortedPage(current, source, order, cursor.getPageSize(),
+            cursor.getPageNumber(), start, indices, total);
+    }
+
+    private static int sourceSize(TrackerSnapshot version, ProjectCursor.Source source) {
+        return source == ProjectCursor.Source.ACTIVE ? version.getActiveProjectCount() : version.getCompletedProjectCount();
+    }
+
+    /**
+     * Builds a page in storage order, walking the completed list only once
+     */
+    private ProjectPage insertionPage(TrackerSnapshot version, ProjectCursor.Source source, int pageSize,
+                                      int pageNumber, int start, int count, int total) {
+        List<Project> page = new ArrayList<>(count);
+        if (source == ProjectCursor.Source.ACTIVE) {
+            version.getActiveProjects().forEach(start, start + count, page::add);
+        } else if (version.getArchivedProjectCount() == 0) {
+            version.getCompletedProjectVector().forEach(start, start + count, page::add);
+        } else {
+            page.addAll(version.getCompletedProjects().subList(start, start + count));
+        }
+        ProjectCursor next = null;
+        if (start + count < total) {
+            int lastIndex = start + count - 1;
+            next = new ProjectCursor(source, ProjectCursor.Order.INSERTION, pageSize, pageNumber + 1,
+                start + count, page.get(count - 1), lastIndex, version.getModCount());
+        }
+        return new ProjectPage(page, pageNumber, total, next);
+    }
+
+    /**
+     * Builds a page from storage indices already in listing order. Projects
+     * are fetched in ascending storage order so that archived ones are read
+     * at most once per archive block.
+     */
+    private ProjectPage sortedPage(TrackerSnapshot version, ProjectCursor.Source source,
+                                   ProjectCursor.Order order, int pageSize, int pageNumber,
+                                   int start, int[] indices, int total) {
+        long[] byIndex = new long[indices.length];
+        for (int i = 0; i < indices.length; i++) {
+            byIndex[i] = (long) indices[i] << 32 | i;
+        }
+        Arrays.sort(byIndex);
+        IntFunction<Project> at = accessor(version, source);
+        Project[] page = new Project[indices.length];
+        for (long entry : byIndex) {
+            page[(int) entry] = at.apply((int) (entry >>> 32));
+        }
+        ProjectCursor next = null;
+        int end = start + indices.length;
+        if (end < total && indices.length > 0) {
+            next = new ProjectCursor(source, order, pageSize, pageNumber + 1, end,
+                page[page.length - 1], indices[indices.length - 1], version.getModCount());
+        }
+        return new ProjectPage(Arrays.asList(page), pageNumber, total, next);
+    }
+
+    /**
+     * Reads the sort key of every project in the given list in one pass in
+     * storage order, so archived projects are inflated once per block
+     */
+    private static long[] sortKeys(TrackerSnapshot version, ProjectCursor.Source source, ProjectCursor.Order order) {
+        long[] keys = new long[sourceSize(version, source)];
+        int[] next = new int[1];
+        Consumer<Project> action = project -> keys[next[0]++] = ProjectPager.key(order, project);
+        if (source == ProjectCursor.Source.ACTIVE) {
+            version.getActiveProjects().forEach(action);
+        } else {
+            version.forEachCompleted(action);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns positional access to the given list: O(log n) in memory, one
+     * block read for an archived project outside the cached block
+     */
+    private static IntFunction<Project> accessor(TrackerSnapshot version, ProjectCursor.Source source) {
+        if (source == ProjectCursor.Source.ACTIVE) {
+            PersistentVector<Project> active = version.getActiveProjects();
+            return active::get;
+        }
+        if (version.getArchivedProjectCount() > 0) {
+            List<Project> completed = version.getCompletedProjects();
+            return completed::get;
+        }
+        PersistentVector<Project> completed = version.getCompletedProjectVector();
+        return completed::get;
+    }
+
+    /**
+     * Counts active projects whose due date and priority match a predicate,
+     * without copying the list or allocating per project
+     * @param predicate predicate over due epoch day and priority ordinal
+     * @return number of matching projects
+     */
+    public int countMatching(ProjectFieldPredicate predicate) {
+        return published.countMatching(predicate);
+    }
+
+    /**
+     * Performs an action on every active project whose due date and priority
+     * match a predicate, without copying the list or allocating per project
+     * @param predicate predicate over due epoch day and priority ordinal
+     * @param action action to perform on each match
+     */
+    public void forEachMatching(ProjectFieldPredicate predicate, Consumer<? super Project> action) {
+        published.forEachMatching(predicate, action);
     }
 
     /**
@@ -198,7 +1081,7 @@ public class ProjectTracker {
      * @return total number of projects
      */
     public int getTotalProjects() {
-        return totalProjects;
+        return published.getTotalProjects();
     }
 
     /**
@@ -206,7 +1089,7 @@ public class ProjectTracker {
      * @return number of active projects
      */
     public int getActiveProjectCount() {
-        return projects.size();
+        return published.getActiveProjectCount();
     }
 
     /**
@@ -214,6 +1097,6 @@ public class ProjectTracker {
      * @return number of completed projects
      */
     public int getCompletedProjectCount() {
-        return completedProjects.size();
+        return published.getCompletedProjectCount();
     }
 }
\ No newline at end of file
@@ -37,6 +37,7 @@ public class ProjectTrackerGUI extends Application {
         // Create list view
         projectListView = new ListView<>();
         projectListView.setPrefHeight(400);
+        projectListView.setCellFactory(list -> new ProjectListCell());
         
         // Create filter section
         HBox filterBox = createFilterBox();
@@ -0,0 +1,554 @@
+package ProjectTracker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Streaming JSON export and import of a whole tracker over NIO channels.
+ * The export walks one published snapshot project by project, encoding
+ * each into a fixed byte buffer that is written out whenever it fills, and
+ * the import decodes the channel through a fixed buffer with a pull parser
+ * that never holds more than the member being read. Neither side builds a
+ * document tree or the whole text, so the buffers stay the same size for
+ * any number of projects; an import only keeps the projects it creates.
+ *
+ * Format: {"format":1,"active":[project, ...],"completed":[project, ...],
+ * "recurring":[template, ...]} with projects written as the server writes
+ * them. A template holds className, firstDueDate, description, priority,
+ * interval, unit, count and until when the rule is limited, and created,
+ * the number of its occurrences already among the projects, so an import
+ * does not make them again. Unknown members are skipped.
+ */
+public final class ProjectTrackerJson {
+    static final int FORMAT = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ProjectTrackerJson() {
+    }
+
+    /**
+     * Writes the tracker's active and completed projects, archived ones
+     * included, and its recurring templates as they are in the latest
+     * published snapshot
+     * @param tracker tracker to export
+     * @param channel channel to write to; it is not closed
+     * @param gzip true to gzip the output
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if tracker or channel is null
+     */
+    public static void export(ProjectTracker tracker, WritableByteChannel channel, boolean gzip)
+            throws IOException {
+        if (tracker == null || channel == null) {
+            throw new IllegalArgumentException("Tracker and channel cannot be null");
+        }
+        TrackerSnapshot snapshot = tracker.snapshot();
+        GZIPOutputStream compressed = null;
+        WritableByteChannel target = channel;
+        if (gzip) {
+            compressed = new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            target = Channels.newChannel(compressed);
+        }
+        JsonWriter out = new JsonWriter(target);
+        out.text.append("{\"format\":").append(FORMAT).append(",\"active\":");
+        PersistentVector<Project> active = snapshot.getActiveProjects();
+        out.writeArray(active.size(), active::get);
+        out.text.append(",\"completed\":");
+        List<Project> archived = snapshot.getArchivedProjects();
+        PersistentVector<Project> completed = snapshot.getCompletedProjectVector();
+        int archivedCount = archived.size();
+        out.writeArray(archivedCount + completed.size(),
+            i -> i < archivedCount ? archived.get(i) : completed.get(i - archivedCount));
+        out.text.append(",\"recurring\":");
+        out.writeRecurring(snapshot.getSchedule());
+        out.text.append('}');
+        out.finish();
+        if (compressed != null) {
+            compressed.finish();
+            compressed.flush();
+        }
+    }
+
+    /**
+     * Replaces the tracker's contents with the projects and recurring
+     * templates read from a channel and clears its undo history. An input
+     * without a recurring member leaves the tracker without templates.
+     * Nothing changes if the input is invalid.
+     * @param tracker tracker to load into
+     * @param channel channel to read from; it is not closed
+     * @param gzip true if the input is gzipped
+     * @return number of projects read
+     * @throws IOException if reading fails or the input is not a valid export
+     * @throws IllegalArgumentException if tracker or channel is null
+     */
+    public static int importInto(ProjectTracker tracker, ReadableByteChannel channel, boolean gzip)
+            throws IOException {
+        if (tracker == null || channel == null) {
+            throw new IllegalArgumentException("Tracker and channel cannot be null");
+        }
+        ReadableByteChannel source = channel;
+        if (gzip) {
+            source = Channels.newChannel(new GZIPInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+        }
+        JsonReader in = new JsonReader(source);
+        List<Project> active = new ArrayList<>();
+        List<Project> completed = new ArrayList<>();
+        List<RecurringProject> templates = new ArrayList<>();
+        LongDynamicArray created = new LongDynamicArray();
+        in.expect('{');
+        if (!in.consume('}')) {
+            do {
+                String name = in.readString();
+                in.expect(':');
+                if (name.equals("active")) {
+                    in.readProjects(active, false);
+                } else if (name.equals("completed")) {
+                    in.readProjects(completed, true);
+                } else if (name.equals("recurring")) {
+                    in.readRecurring(templates, created);
+                } else {
+                    in.skipValue();
+                }
+            } while (in.consume(','));
+            in.expect('}');
+        }
+        if (in.peek() != -1) {
+            throw in.error("trailing characters");
+        }
+        tracker.load(active, completed, RecurrenceSchedule.of(templates, created.toArray()));
+        return active.size() + completed.size();
+    }
+
+    /**
+     * Encodes text into one reusable byte buffer, writing it to the channel when full
+     */
+    private static final class JsonWriter {
+        final StringBuilder text = new StringBuilder(BUFFER_SIZE);
+        private final WritableByteChannel channel;
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        JsonWriter(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeArray(int size, IntFunction<Project> projects) throws IOException {
+            text.append('[');
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                ProjectJson.write(text, projects.apply(i));
+                if (text.length() >= BUFFER_SIZE) {
+                    encodeText(false);
+                }
+            }
+            text.append(']');
+        }
+
+        void writeRecurring(RecurrenceSchedule schedule) {
+            text.append('[');
+            List<RecurringProject> templates = schedule.getTemplates();
+            for (int i = 0; i < templates.size(); i++) {
+                RecurringProject template = templates.get(i);
+                Recurrence rule = template.getRecurrence();
+                text.append(i > 0 ? ",{" : "{").append("\"className\":");
+                ProjectJson.quote(text, template.getClassName());
+                text.append(",\"firstDueDate\":\"")
+                    .append(template.getFirstDueDate().format(ProjectJson.DATE_FORMATTER));
+                text.append("\",\"description\":");
+                ProjectJson.quote(text, template.getDescription());
+                text.append(",\"priority\":\"").append(template.getPriority().name());
+                text.append("\",\"interval\":").append(rule.getInterval());
+                text.append(",\"unit\":\"").append(rule.getUnit().name()).append('"');
+                if (rule.getCount() != Long.MAX_VALUE) {
+                    text.append(",\"count\":").append(rule.getCount());
+                }
+                if (rule.getUntil() != null) {
+                    text.append(",\"until\":\"")
+                        .append(rule.getUntil().format(ProjectJson.DATE_FORMATTER)).append('"');
+                }
+                text.append(",\"created\":").append(schedule.getCreatedCount(template)).append('}');
+            }
+            text.append(']');
+        }
+
+        /**
+         * Moves the pending text into the byte buffer; text is only cut
+         * between projects, so no surrogate pair is ever split
+         */
+        private void encodeText(boolean endOfInput) throws IOException {
+            CharBuffer pending = CharBuffer.wrap(text);
+            while (true) {
+                CoderResult result = encoder.encode(pending, bytes, endOfInput);
+                if (result.isOverflow()) {
+                    drain();
+                } else {
+                    break;
+                }
+            }
+            text.setLength(0);
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+
+        void finish() throws IOException {
+            encodeText(true);
+            while (encoder.flush(bytes).isOverflow()) {
+                drain();
+            }
+            drain();
+        }
+    }
+
+    /**
+     * Pull parser over a channel, decoding through reusable buffers
+     */
+    private static final class JsonReader {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private final StringBuilder scratch = new StringBuilder();
+        private boolean endOfInput;
+        private boolean flushed;
+        private long position;
+
+        JsonReader(ReadableByteChannel channel) {
+            this.channel = channel;
+            this.chars.flip();
+        }
+
+        /**
+         * Reads one array of projects
+         */
+        void readProjects(List<Project> projects, boolean completed) throws IOException {
+            expect('[');
+            if (consume(']')) {
+                return;
+            }
+            do {
+                projects.add(readProject(completed));
+            } while (consume(','));
+            expect(']');
+        }
+
+        /**
+         * Reads the array of recurring templates with their occurrence counts
+         */
+        void readRecurring(List<RecurringProject> templates, LongDynamicArray created) throws IOException {
+            expect('[');
+            if (consume(']')) {
+                return;
+            }
+            do {
+                readTemplate(templates, created);
+            } while (consume(','));
+            expect(']');
+        }
+
+        private void readTemplate(List<RecurringProject> templates, LongDynamicArray created)
+                throws IOException {
+            String className = null;
+            String firstDueDate = null;
+            String description = null;
+            String priority = null;
+            String interval = "1";
+            String unit = null;
+            String count = null;
+            String until = null;
+            String made = "0";
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String name = readString();
+                    expect(':');
+                    switch (name) {
+                        case "className": className = readScalar(); break;
+                        case "firstDueDate": firstDueDate = readScalar(); break;
+                        case "description": description = readScalar(); break;
+                        case "priority": priority = readScalar(); break;
+                        case "interval": interval = readScalar(); break;
+                        case "unit": unit = readScalar(); break;
+                        case "count": count = readScalar(); break;
+                        case "until": until = readScalar(); break;
+                        case "created": made = readScalar(); break;
+                        default: skipValue(); break;
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+            try {
+                if (unit == null) {
+                    throw new IllegalArgumentException("Unit cannot be null");
+                }
+                Recurrence rule = Recurrence.every(Integer.parseInt(interval), Recurrence.Unit.valueOf(unit));
+                if (count != null) {
+                    rule = rule.times(Long.parseLong(count));
+                }
+                if (until != null) {
+                    rule = rule.until(LocalDate.ofEpochDay(epochDay(until)));
+                }
+                long createdCount = made == null ? 0 : Long.parseLong(made);
+                if (createdCount < 0) {
+                    throw new IllegalArgumentException("Created count cannot be negative");
+                }
+                Project.Priority level = priority == null ? Project.Priority.MEDIUM : ProjectJson.priority(priority);
+                templates.add(RecurringProject.restore(className, LocalDate.ofEpochDay(epochDay(firstDueDate)),
+                    description, level, rule));
+                created.add(createdCount);
+            } catch (IllegalArgumentException e) {
+                throw error("invalid recurring project (" + e.getMessage() + ")");
+            }
+        }
+
+        private static long epochDay(String date) {
+            long day = date == null ? Project.INVALID_DATE : Project.parseEpochDay(date);
+            if (day == Project.INVALID_DATE) {
+                throw new IllegalArgumentException(Project.Validation.INVALID_DATE.getMessage());
+            }
+            return day;
+        }
+
+        private Project readProject(boolean completed) throws IOException {
+            String className = null;
+            String dueDate = null;
+            String description = null;
+            String priority = null;
+            String timeEstimate = "0";
+            String actualTime = "0";
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String name = readString();
+                    expect(':');
+                    switch (name) {
+                        case "className": className = readScalar(); break;
+                        case "dueDate": dueDate = readScalar(); break;
+                        case "description": description = readScalar(); break;
+                        case "priority": priority = readScalar(); break;
+                        case "timeEstimate": timeEstimate = readScalar(); break;
+                        case "actualTime": actualTime = readScalar(); break;
+                        default: skipValue(); break;
+                    }
+                } while (consume(','));
+                expect('}');
+            }
+            try {
+                return Project.restore(className, LocalDate.ofEpochDay(epochDay(dueDate)), description,
+                    priority == null ? Project.Priority.MEDIUM : ProjectJson.priority(priority),
+                    completed, timeEstimate, actualTime);
+            } catch (IllegalArgumentException e) {
+                throw error("invalid project (" + e.getMessage() + ")");
+            }
+        }
+
+        /**
+         * Reads a string, number, boolean or null as text
+         */
+        private String readScalar() throws IOException {
+            skipWhitespace();
+            int c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            scratch.setLength(0);
+            while ((c = peek()) != -1 && (Character.isLetterOrDigit(c) || "+-.".indexOf(c) >= 0)) {
+                scratch.append((char) next());
+            }
+            if (scratch.length() == 0) {
+                throw error("expected a value");
+            }
+            String token = scratch.toString();
+            return token.equals("null") ? null : token;
+        }
+
+        String readString() throws IOException {
+            expect('"');
+            scratch.setLength(0);
+            while (true) {
+                int c = next();
+                if (c == -1) {
+                    throw error("unterminated string");
+                }
+                if (c == '"') {
+                    return scratch.toString();
+                }
+                if (c != '\\') {
+                    scratch.append((char) c);
+                    continue;
+                }
+                int escape = next();
+                switch (escape) {
+                    case '"': case '\\': case '/': scratch.append((char) escape); break;
+                    case 'b': scratch.append('\b'); break;
+                    case 'f': scratch.append('\f'); break;
+                    case 'n': scratch.append('\n'); break;
+                    case 'r': scratch.append('\r'); break;
+                    case 't': scratch.append('\t'); break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(next(), 16);
+                            if (digit < 0) {
+                                throw error("bad unicode escape");
+                            }
+                            code = code * 16 + digit;
+                        }
+                        scratch.append((char) code);
+                        break;
+                    default:
+                        throw error("bad escape");
+                }
+            }
+        }
+
+        /**
+         * Skips one value of any kind without keeping its text
+         */
+        void skipValue() throws IOException {
+            int depth = 0;
+            do {
+                skipWhitespace();
+                int c = peek();
+                if (c == -1) {
+                    throw error("unexpected end");
+                }
+                if (c == '"') {
+                    skipString();
+                } else if (c == '{' || c == '[') {
+                    next();
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (depth == 0) {
+                        throw error("unexpected '" + (char) c + "'");
+                    }
+                    next();
+                    depth--;
+                } else if (c == ',' || c == ':') {
+                    if (depth == 0) {
+                        throw error("expected a value");
+                    }
+                    next();
+                } else {
+                    readScalar();
+                }
+            } while (depth > 0);
+        }
+
+        private void skipString() throws IOException {
+            expect('"');
+            int c;
+            while ((c = next()) != '"') {
+                if (c == -1) {
+                    throw error("unterminated string");
+                }
+                if (c == '\\') {
+                    next();
+                }
+            }
+        }
+
+        void expect(char expected) throws IOException {
+            skipWhitespace();
+            if (next() != expected) {
+                throw error("expected '" + expected + "'");
+            }
+        }
+
+        boolean consume(char expected) throws IOException {
+            skipWhitespace();
+            if (peek() == expected) {
+                next();
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() throws IOException {
+            int c;
+            while ((c = peek()) != -1 && Character.isWhitespace(c)) {
+                next();
+            }
+        }
+
+        int peek() throws IOException {
+            if (!chars.hasRemaining() && !fill()) {
+                return -1;
+            }
+            return chars.get(chars.position());
+        }
+
+        private int next() throws IOException {
+            if (!chars.hasRemaining() && !fill()) {
+                return -1;
+            }
+            position++;
+            return chars.get();
+        }
+
+        /**
+         * Decodes the next run of characters, reading from the channel as needed
+         * @return false at the end of the input
+         */
+        private boolean fill() throws IOException {
+            if (flushed) {
+                return false;
+            }
+            chars.clear();
+            while (chars.position() == 0) {
+                if (!endOfInput && channel.read(bytes) < 0) {
+                    endOfInput = true;
+                }
+                bytes.flip();
+                CoderResult result = decoder.decode(bytes, chars, endOfInput);
+                bytes.compact();
+                if (result.isError()) {
+                    try {
+                        result.throwException();
+                    } catch (CharacterCodingException e) {
+                        throw new IOException("Invalid UTF-8 near character " + position, e);
+                    }
+                }
+                if (endOfInput) {
+                    decoder.flush(chars);
+                    flushed = true;
+                    break;
+                }
+            }
+            chars.flip();
+            return chars.hasRemaining();
+        }
+
+        IOException error(String message) {
+            return new IOException("Invalid JSON: " + message + " at character " + position);
+        }
+    }
+}
@@ -0,0 +1,615 @@
+package ProjectTracker;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Headless workload driver for ProjectTracker. It seeds a synthetic
+ * population of projects with skewed class names, due dates and priorities,
+ * then replays a mixed add/update/delete/complete/query workload from
+ * several threads at a target rate and reports throughput, latency
+ * percentiles and allocation rate.
+ *
+ * Usage: java ProjectTracker.ProjectTrackerLoadGenerator [--option value]...
+ *   --projects N        initial population (default 10000)
+ *   --threads N         worker threads (default 4)
+ *   --seconds N         measured run time (default 10)
+ *   --ops N             stop each worker after N measured operations instead of after --seconds, 0 for time-bound (default 0)
+ *   --warmup N          warm-up time in seconds, not measured (default 2)
+ *   --rate N            target operations per second across all threads, 0 for unthrottled (default 0)
+ *   --classes N         distinct class names (default 50)
+ *   --class-skew S      Zipf exponent for class name popularity (default 1.0)
+ *   --horizon N         due dates spread over this many days (default 365)
+ *   --date-skew S       exponent pulling due dates toward today, 1 is uniform (default 2.0)
+ *   --priorities H,M,L  relative priority weights (default 2,5,3)
+ *   --mix A,U,D,C,Q     relative weights of add, update, delete, complete, query (default 20,15,5,10,50)
+ *   --seed N            random seed (default 42)
+ */
+public class ProjectTrackerLoadGenerator {
+    private static final String[] OPERATIONS = {"add", "update", "delete", "complete", "query"};
+
+    private final Options options;
+    private final ProjectTracker tracker;
+    private final double[] classWeights;
+    private final String[] classNames;
+    private final long todayEpochDay;
+    private final AtomicLong sequence;
+
+    /**
+     * Constructs a generator over a fresh tracker
+     * @param options workload options
+     */
+    public ProjectTrackerLoadGenerator(Options options) {
+        this.options = options;
+        this.tracker = new ProjectTracker();
+        this.tracker.setUndoLimit(0);
+        this.classNames = new String[options.classes];
+        this.classWeights = new double[options.classes];
+        double total = 0;
+        for (int i = 0; i < options.classes; i++) {
+            classNames[i] = String.format("CIS%03d", 100 + i);
+            total += 1.0 / Math.pow(i + 1, options.classSkew);
+            classWeights[i] = total;
+        }
+        for (int i = 0; i < options.classes; i++) {
+            classWeights[i] /= total;
+        }
+        this.todayEpochDay = LocalDate.now().toEpochDay();
+        this.sequence = new AtomicLong();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+        ProjectTrackerLoadGenerator generator = new ProjectTrackerLoadGenerator(options);
+        generator.populate();
+        System.out.println(generator.run().format());
+    }
+
+    /**
+     * Gets the tracker the workload runs against
+     * @return the generator's tracker
+     */
+    ProjectTracker getTracker() {
+        return tracker;
+    }
+
+    /**
+     * Seeds the tracker with the initial population in one batch
+     */
+    public void populate() {
+        SplittableRandom random = new SplittableRandom(options.seed);
+        List<ProjectMutation> seed = new ArrayList<>(options.projects);
+        for (int i = 0; i < options.projects; i++) {
+            seed.add(ProjectMutation.add(newProject(random)));
+        }
+        tracker.batch(seed);
+    }
+
+    /**
+     * Runs the warm-up and measured phases
+     * @return measurements of the measured phase
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public Report run() throws InterruptedException {
+        runPhase(options.warmupSeconds, 0, options.seed + 1);
+        return runPhase(options.seconds, options.operations, options.seed + 2);
+    }
+
+    private Report runPhase(int seconds, int operations, long seed) throws InterruptedException {
+        Worker[] workers = new Worker[options.threads];
+        CountDownLatch start = new CountDownLatch(1);
+        long intervalNanos = options.rate <= 0 ? 0 : (long) (1e9 * options.threads / options.rate);
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(seeds.split(), intervalNanos, operations, start);
+            workers[i].thread.start();
+        }
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long begin = System.nanoTime();
+        long deadline = operations > 0 ? Long.MAX_VALUE : begin + seconds * 1_000_000_000L;
+        for (Worker worker : workers) {
+            worker.deadline = deadline;
+        }
+        start.countDown();
+        for (Worker worker : workers) {
+            worker.thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        Report report = new Report(elapsed, gcCount() - gcCountBefore, gcTime() - gcTimeBefore,
+            tracker.getActiveProjectCount());
+        for (Worker worker : workers) {
+            report.merge(worker);
+        }
+        return report;
+    }
+
+    /**
+     * Worker thread that issues operations on a fixed schedule and records
+     * latency from the scheduled start, so a stall is charged to every
+     * operation that queued behind it
+     */
+    private final class Worker implements Runnable {
+        final Thread thread;
+        final SplittableRandom random;
+        final long intervalNanos;
+        final int operations;
+        final CountDownLatch start;
+        final LatencyHistogram[] histograms;
+        volatile long deadline;
+        long allocatedBytes;
+
+        Worker(SplittableRandom random, long intervalNanos, int operations, CountDownLatch start) {
+            this.random = random;
+            this.intervalNanos = intervalNanos;
+            this.operations = operations;
+            this.start = start;
+            this.histograms = new LatencyHistogram[OPERATIONS.length];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+            this.thread = new Thread(this, "load-worker");
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long allocatedBefore = threadAllocatedBytes();
+            long next = System.nanoTime();
+            int done = 0;
+            while (operations == 0 || done < operations) {
+                long now = System.nanoTime();
+                if (now >= deadline) {
+                    break;
+                }
+                if (intervalNanos > 0 && now < next) {
+                    LockSupport.parkNanos(next - now);
+                    continue;
+                }
+                long scheduled = intervalNanos > 0 ? next : now;
+                int operation = pickOperation();
+                execute(operation);
+                histograms[operation].record(System.nanoTime() - scheduled);
+                next += intervalNanos;
+                done++;
+            }
+            allocatedBytes = threadAllocatedBytes() - allocatedBefore;
+        }
+
+        private int pickOperation() {
+            int roll = random.nextInt(options.mixTotal);
+            for (int i = 0; i < options.mix.length; i++) {
+                roll -= options.mix[i];
+                if (roll < 0) {
+                    return i;
+                }
+            }
+            return OPERATIONS.length - 1;
+        }
+
+        private void execute(int operation) {
+            switch (operation) {
+                case 0:
+                    tracker.addProject(newProject(random));
+                    break;
+                case 1: {
+                    Project target = pickExisting(random);
+                    if (target != null) {
+                        tracker.updateProject(target, newProject(random));
+                    }
+                    break;
+                }
+                case 2: {
+                    Project target = pickExisting(random);
+                    if (target != null) {
+                        tracker.deleteProject(target);
+                    }
+                    break;
+                }
+                case 3: {
+                    Project target = pickExisting(random);
+                    if (target != null) {
+                        tracker.markProjectCompleted(target);
+                    }
+                    break;
+                }
+                default:
+                    runQuery(random);
+            }
+        }
+    }
+
+    private void runQuery(SplittableRandom random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                tracker.filterByPriority(Project.Priority.values()[random.nextInt(3)]);
+                break;
+            case 1:
+                tracker.getOverdueProjects();
+                break;
+            case 2:
+                tracker.searchByClassName(pickClassName(random));
+                break;
+            case 3:
+                tracker.getProjectsDueWithin(random.nextInt(30));
+                break;
+            default:
+                tracker.query(new ProjectQuery()
+                    .inClass(pickClassName(random))
+                    .withPriority(Project.Priority.HIGH)
+                    .orderBy(ProjectCursor.Order.DUE_DATE)
+                    .limit(20));
+        }
+    }
+
+    private Project pickExisting(SplittableRandom random) {
+        PersistentVector<Project> active = tracker.snapshot().getActiveProjects();
+        return active.isEmpty() ? null : active.get(random.nextInt(active.size()));
+    }
+
+    private Project newProject(SplittableRandom random) {
+        int offset = (int) (options.horizon * Math.pow(random.nextDouble(), options.dateSkew));
+        return new Project.Builder()
+            .className(pickClassName(random))
+            .dueEpochDay(todayEpochDay + offset + 1)
+            .description("Synthetic task " + sequence.incrementAndGet())
+            .priority(pickPriority(random))
+            .build();
+    }
+
+    private String pickClassName(SplittableRandom random) {
+        double roll = random.nextDouble();
+        int lo = 0;
+        int hi = classWeights.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (classWeights[mid] < roll) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return classNames[lo];
+    }
+
+    private Project.Priority pickPriority(SplittableRandom random) {
+        int roll = random.nextInt(options.priorityTotal);
+        for (int i = 0; i < options.priorities.length; i++) {
+            roll -= options.priorities[i];
+            if (roll < 0) {
+                return Project.Priority.values()[i];
+            }
+        }
+        return Project.Priority.LOW;
+    }
+
+    private static long threadAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Log-linear latency histogram: 16 linear sub-buckets per power of two,
+     * so every recorded value is kept within about 6% of its true value
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private final long[] counts = new long[64 * SUB_COUNT];
+        private long total;
+        private long max;
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts[bucket(value)]++;
+            total++;
+            max = Math.max(max, value);
+        }
+
+        void merge(LatencyHistogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            total += other.total;
+            max = Math.max(max, other.max);
+        }
+
+        long count() {
+            return total;
+        }
+
+        long max() {
+            return max;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile
+         */
+        long percentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(max, upperBound(i));
+                }
+            }
+            return max;
+        }
+
+        private static int bucket(long value) {
+            if (value < SUB_COUNT) {
+                return (int) value;
+            }
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (magnitude - SUB_BITS)) & (SUB_COUNT - 1);
+            return (magnitude - SUB_BITS + 1) * SUB_COUNT + sub;
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_COUNT) {
+                return bucket;
+            }
+            int magnitude = bucket / SUB_COUNT + SUB_BITS - 1;
+            long sub = bucket % SUB_COUNT;
+            return ((SUB_COUNT + sub + 1) << (magnitude - SUB_BITS)) - 1;
+        }
+    }
+
+    /**
+     * Results of one measured phase
+     */
+    public static final class Report {
+        private final long elapsedNanos;
+        private final long gcCount;
+        private final long gcMillis;
+        private final int finalActiveProjects;
+        private final LatencyHistogram[] histograms;
+        private final LatencyHistogram overall;
+        private long allocatedBytes;
+
+        Report(long elapsedNanos, long gcCount, long gcMillis, int finalActiveProjects) {
+            this.elapsedNanos = elapsedNanos;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.finalActiveProjects = finalActiveProjects;
+            this.histograms = new LatencyHistogram[OPERATIONS.length];
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+            this.overall = new LatencyHistogram();
+        }
+
+        void merge(Worker worker) {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i].merge(worker.histograms[i]);
+                overall.merge(worker.histograms[i]);
+            }
+            allocatedBytes += worker.allocatedBytes;
+        }
+
+        /**
+         * Gets the achieved throughput
+         * @return operations per second
+         */
+        public double getThroughput() {
+            return overall.count() * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Gets the number of operations of one kind issued in the phase
+         * @param operation one of add, update, delete, complete or query
+         * @return operation count
+         * @throws IllegalArgumentException if the operation is unknown
+         */
+        public long getOperationCount(String operation) {
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                if (OPERATIONS[i].equals(operation)) {
+                    return histograms[i].count();
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation: " + operation);
+        }
+
+        /**
+         * Gets the number of operations issued in the phase
+         * @return operation count
+         */
+        public long getOperationCount() {
+            return overall.count();
+        }
+
+        /**
+         * Gets the allocation rate of the worker threads
+         * @return bytes allocated per second
+         */
+        public double getAllocationRate() {
+            return allocatedBytes * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Gets a latency percentile over all operations
+         * @param percentile percentile between 0 and 100
+         * @return latency in nanoseconds
+         */
+        public long getLatencyPercentile(double percentile) {
+            return overall.percentile(percentile);
+        }
+
+        /**
+         * Formats the report as a plain-text table
+         * @return report text
+         */
+        public String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("Duration: %.1f s | Ops: %d | Throughput: %.0f ops/s%n",
+                elapsedNanos / 1e9, overall.count(), getThroughput()));
+            out.append(String.format("Allocation: %.1f MB/s | Bytes/op: %.0f | GCs: %d (%d ms) | Active projects: %d%n",
+                getAllocationRate() / (1024 * 1024),
+                overall.count() == 0 ? 0.0 : (double) allocatedBytes / overall.count(),
+                gcCount, gcMillis, finalActiveProjects));
+            out.append(String.format("%-10s %10s %10s %10s %10s %10s %10s%n",
+                "op", "count", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                appendRow(out, OPERATIONS[i], histograms[i]);
+            }
+            appendRow(out, "all", overall);
+            return out.toString();
+        }
+
+        private static void appendRow(StringBuilder out, String name, LatencyHistogram histogram) {
+            out.append(String.format("%-10s %10d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                name, histogram.count(),
+                histogram.percentile(50) / 1e3, histogram.percentile(90) / 1e3,
+                histogram.percentile(99) / 1e3, histogram.percentile(99.9) / 1e3,
+                histogram.max() / 1e3));
+        }
+    }
+
+    /**
+     * Command-line options
+     */
+    public static final class Options {
+        int projects = 10_000;
+        int threads = 4;
+        int seconds = 10;
+        int warmupSeconds = 2;
+        int operations = 0;
+        double rate = 0;
+        int classes = 50;
+        double classSkew = 1.0;
+        int horizon = 365;
+        double dateSkew = 2.0;
+        int[] priorities = {2, 5, 3};
+        int priorityTotal = 10;
+        int[] mix = {20, 15, 5, 10, 50};
+        int mixTotal = 100;
+        long seed = 42;
+
+        /**
+         * Parses command-line arguments
+         * @param args arguments of the form --name value
+         * @return parsed options
+         * @throws IllegalArgumentException if an argument is unknown or invalid
+         */
+        public static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i += 2) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                try {
+                    switch (args[i]) {
+                        case "--projects": options.projects = nonNegative(args[i], Integer.parseInt(value)); break;
+                        case "--threads": options.threads = positive(args[i], Integer.parseInt(value)); break;
+                        case "--seconds": options.seconds = positive(args[i], Integer.parseInt(value)); break;
+                        case "--ops": options.operations = nonNegative(args[i], Integer.parseInt(value)); break;
+                        case "--warmup": options.warmupSeconds = nonNegative(args[i], Integer.parseInt(value)); break;
+                        case "--rate": options.rate = Double.parseDouble(value); break;
+                        case "--classes": options.classes = positive(args[i], Integer.parseInt(value)); break;
+                        case "--class-skew": options.classSkew = Double.parseDouble(value); break;
+                        case "--horizon": options.horizon = positive(args[i], Integer.parseInt(value)); break;
+                        case "--date-skew": options.dateSkew = Double.parseDouble(value); break;
+                        case "--priorities":
+                            options.priorities = weights(args[i], value, 3);
+                            options.priorityTotal = sum(options.priorities);
+                            break;
+                        case "--mix":
+                            options.mix = weights(args[i], value, OPERATIONS.length);
+                            options.mixTotal = sum(options.mix);
+                            break;
+                        case "--seed": options.seed = Long.parseLong(value); break;
+                        default:
+                            throw new IllegalArgumentException("Unknown option: " + args[i]);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid value for " + args[i] + ": " + value);
+                }
+            }
+            return options;
+        }
+
+        private static int positive(String name, int value) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+
+        private static int nonNegative(String name, int value) {
+            if (value < 0) {
+                throw new IllegalArgumentException(name + " cannot be negative");
+            }
+            return value;
+        }
+
+        private static int[] weights(String name, String value, int count) {
+            String[] parts = value.split(",");
+            if (parts.length != count) {
+                throw new IllegalArgumentException(name + " needs " + count + " comma-separated weights");
+            }
+            int[] result = new int[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = nonNegative(name, Integer.parseInt(parts[i].trim()));
+            }
+            if (sum(result) == 0) {
+                throw new IllegalArgumentException(name + " weights cannot all be zero");
+            }
+            return result;
+        }
+
+        private static int sum(int[] values) {
+            int total = 0;
+            for (int value : values) {
+                total += value;
+            }
+            return total;
+        }
+    }
+}
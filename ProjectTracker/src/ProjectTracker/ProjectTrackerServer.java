@@ -0,0 +1,428 @@
+package ProjectTracker;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Headless HTTP/JSON server over a ProjectTracker, so the tracker can run
+ * as a shared service instead of only behind ProjectTrackerGUI. Requests
+ * run one per virtual thread when the JDK has them and on a cached thread
+ * pool otherwise. Reads are served from the tracker's published snapshots
+ * and never wait for writers.
+ *
+ * Endpoints (projects are identified by className, dueDate and description):
+ *   GET    /projects            list active projects, streamed; filters:
+ *                               completed=true, priority, class, search,
+ *                               dueWithin (days), overdue=true,
+ *                               sort=insertion|dueDate|priority, limit
+ *   POST   /projects            add a project
+ *   PUT    /projects            {"project": {...}, "replacement": {...}}
+ *   DELETE /projects            delete the project in the body
+ *   POST   /projects/complete   mark the project in the body completed
+ *   GET    /stats               project counts and published version
+ *   GET    /export              every project as one JSON document, streamed,
+ *                               gzipped if the client accepts gzip
+ *
+ * Usage: java ProjectTracker.ProjectTrackerServer [port]
+ */
+public class ProjectTrackerServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 4096;
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    private static final int FLUSH_THRESHOLD = 32 * 1024;
+
+    private final ProjectTracker tracker;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs a server bound to a local address; call start to accept requests
+     * @param tracker tracker to serve
+     * @param address address to bind, port 0 for any free port
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if tracker or address is null
+     */
+    public ProjectTrackerServer(ProjectTracker tracker, InetSocketAddress address) throws IOException {
+        if (tracker == null || address == null) {
+            throw new IllegalArgumentException("Tracker and address cannot be null");
+        }
+        this.tracker = tracker;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = newRequestExecutor();
+        this.server.setExecutor(executor);
+        this.server.createContext("/projects", exchange -> handle(exchange, this::handleProjects));
+        this.server.createContext("/stats", exchange -> handle(exchange, this::handleStats));
+        this.server.createContext("/export", exchange -> handle(exchange, this::handleExport));
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ProjectTrackerServer server = new ProjectTrackerServer(new ProjectTracker(),
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.start();
+        System.out.println("ProjectTracker server listening on http://localhost:" + server.getPort());
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, letting in-flight exchanges finish for up to the given delay
+     * @param delaySeconds maximum seconds to wait for in-flight exchanges
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the port the server is bound to
+     * @return bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor when the running JDK has
+     * one (21+), found reflectively so the class still builds on older JDKs,
+     * and a cached pool of daemon threads otherwise
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threads = task -> {
+                Thread thread = new Thread(task, "tracker-http-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(threads);
+        }
+    }
+
+    /**
+     * Runs a handler and always closes the exchange. A failure becomes an
+     * error response only while the status line has not been sent; once a
+     * response has started, the exchange is just closed. An Error is
+     * answered with 500 like any other failure and then rethrown.
+     */
+    private static void handle(HttpExchange exchange, HttpHandler handler) {
+        try {
+            handler.handle(exchange);
+        } catch (IllegalArgumentException e) {
+            sendErrorIfUnsent(exchange, 400, e.getMessage());
+        } catch (RuntimeException | IOException e) {
+            sendErrorIfUnsent(exchange, 500, "Internal server error");
+        } catch (Error e) {
+            sendErrorIfUnsent(exchange, 500, "Internal server error");
+            throw e;
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendErrorIfUnsent(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            sendError(exchange, status, message);
+        } catch (IOException e) {
+            // The client went away; there is no one left to tell
+        }
+    }
+
+    private void handleProjects(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if (path.equals("/projects") || path.equals("/projects/")) {
+            switch (method) {
+                case "GET": listProjects(exchange); break;
+                case "POST": addProject(exchange); break;
+                case "PUT": updateProject(exchange); break;
+                case "DELETE": deleteProject(exchange); break;
+                default: sendError(exchange, 405, "Method not allowed");
+            }
+        } else if (path.equals("/projects/complete")) {
+            if (method.equals("POST")) {
+                completeProject(exchange);
+            } else {
+                sendError(exchange, 405, "Method not allowed");
+            }
+        } else {
+            sendError(exchange, 404, "Not found");
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        TrackerSnapshot snapshot = tracker.snapshot();
+        sendJson(exchange, 200, "{\"version\":" + snapshot.getVersion()
+            + ",\"active\":" + snapshot.getActiveProjectCount()
+            + ",\"completed\":" + snapshot.getCompletedProjectCount()
+            + ",\"total\":" + snapshot.getTotalProjects() + "}");
+    }
+
+    private void handleExport(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            sendError(exchange, 405, "Method not allowed");
+            return;
+        }
+        String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        boolean gzip = accepted != null && accepted.contains("gzip");
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            ProjectTrackerJson.export(tracker, Channels.newChannel(out), gzip);
+        }
+    }
+
+    /**
+     * Streams the listing as a chunked JSON array. Unfiltered listings are
+     * written straight from a read view's snapshot without building a list;
+     * filtered or sorted ones go through ProjectTracker.query.
+     */
+    private void listProjects(HttpExchange exchange) throws IOException {
+        Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+        boolean completed = Boolean.parseBoolean(params.get("completed"));
+        ProjectQuery query = toQuery(params, completed);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+
+        if (query == null) {
+            try (TrackerReadView view = tracker.openReadView()) {
+                TrackerSnapshot snapshot = view.getSnapshot();
+                if (completed) {
+                    List<Project> projects = snapshot.getCompletedProjects();
+                    streamArray(exchange, projects.size(), projects::get);
+                } else {
+                    PersistentVector<Project> projects = snapshot.getActiveProjects();
+                    streamArray(exchange, projects.size(), projects::get);
+                }
+            }
+        } else {
+            List<Project> results = tracker.query(query);
+            streamArray(exchange, results.size(), results::get);
+        }
+    }
+
+    /**
+     * Writes projects as a chunked JSON array, flushing in fixed-size pieces
+     * so memory use does not grow with the listing
+     */
+    private static void streamArray(HttpExchange exchange, int size, IntFunction<Project> projects)
+            throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), FLUSH_THRESHOLD)) {
+            StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD * 2);
+            buffer.append('[');
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                ProjectJson.write(buffer, projects.apply(i));
+                if (buffer.length() >= FLUSH_THRESHOLD) {
+                    out.append(buffer);
+                    buffer.setLength(0);
+                }
+            }
+            buffer.append(']');
+            out.append(buffer);
+        }
+    }
+
+    /**
+     * Builds a query from the request parameters
+     * @return query, or null if no filter, sort or limit was requested
+     */
+    private static ProjectQuery toQuery(Map<String, String> params, boolean completed) {
+        ProjectQuery query = new ProjectQuery().completed(completed);
+        boolean filtered = false;
+        if (params.containsKey("priority")) {
+            query.withPriority(ProjectJson.priority(params.get("priority")));
+            filtered = true;
+        }
+        if (params.containsKey("class")) {
+            query.inClass(params.get("class"));
+            filtered = true;
+        }
+        if (params.containsKey("search")) {
+            query.classNameContains(params.get("search"));
+            filtered = true;
+        }
+        if (params.containsKey("dueWithin")) {
+            LocalDate today = LocalDate.now();
+            query.dueBetween(null, today.plusDays(parseInt(params, "dueWithin")));
+            filtered = true;
+        }
+        if (Boolean.parseBoolean(params.get("overdue"))) {
+            query.overdue(true);
+            filtered = true;
+        }
+        if (params.containsKey("sort")) {
+            query.orderBy(parseOrder(params.get("sort")));
+            filtered = true;
+        }
+        if (params.containsKey("limit")) {
+            query.limit(parseInt(params, "limit"));
+            filtered = true;
+        }
+        return filtered ? query : null;
+    }
+
+    private void addProject(HttpExchange exchange) throws IOException {
+        Project project = ProjectJson.toProject(ProjectJson.parseObject(readBody(exchange)));
+        tracker.addProject(project);
+        sendProject(exchange, 201, project);
+    }
+
+    private void updateProject(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = ProjectJson.parseObject(readBody(exchange));
+        Project existing = find(ProjectJson.object(body, "project"));
+        if (existing == null) {
+            sendError(exchange, 404, "Project not found");
+            return;
+        }
+        Project replacement = ProjectJson.toProject(ProjectJson.object(body, "replacement"));
+        if (!tracker.updateProject(existing, replacement)) {
+            sendError(exchange, 404, "Project not found");
+            return;
+        }
+        sendProject(exchange, 200, replacement);
+    }
+
+    private void deleteProject(HttpExchange exchange) throws IOException {
+        Project existing = find(ProjectJson.parseObject(readBody(exchange)));
+        if (existing == null || !tracker.deleteProject(existing)) {
+            sendError(exchange, 404, "Project not found");
+            return;
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void completeProject(HttpExchange exchange) throws IOException {
+        Project existing = find(ProjectJson.parseObject(readBody(exchange)));
+        Project completed = existing == null ? null : tracker.complete(existing);
+        if (completed == null) {
+            sendError(exchange, 404, "Project not found");
+            return;
+        }
+        sendProject(exchange, 200, completed);
+    }
+
+    /**
+     * Finds the active project with the identifying fields in a request body
+     * @return matching project from the current snapshot, or null
+     */
+    private Project find(Map<String, Object> fields) {
+        PersistentVector<Project> projects = tracker.snapshot().getActiveProjects();
+        for (int i = 0; i < projects.size(); i++) {
+            Project p = projects.get(i);
+            if (ProjectJson.matches(p, fields)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Request body too large");
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    private static void sendProject(HttpExchange exchange, int status, Project project) throws IOException {
+        StringBuilder json = new StringBuilder();
+        ProjectJson.write(json, project);
+        sendJson(exchange, status, json.toString());
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        ProjectJson.quote(json, message == null ? "Bad request" : message);
+        json.append('}');
+        sendJson(exchange, status, json.toString());
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int parseInt(Map<String, String> params, String name) {
+        try {
+            return Integer.parseInt(params.get(name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + params.get(name));
+        }
+    }
+
+    private static ProjectCursor.Order parseOrder(String sort) {
+        switch (sort.toLowerCase()) {
+            case "insertion": return ProjectCursor.Order.INSERTION;
+            case "duedate": return ProjectCursor.Order.DUE_DATE;
+            case "priority": return ProjectCursor.Order.PRIORITY;
+            default: throw new IllegalArgumentException("Invalid sort: " + sort);
+        }
+    }
+}
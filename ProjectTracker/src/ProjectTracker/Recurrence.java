@@ -0,0 +1,143 @@
+package ProjectTracker;
+
+import java.time.LocalDate;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Immutable recurrence rule: every interval days, weeks or months from a
+ * first due date, optionally limited to a number of occurrences or to an
+ * end date. Occurrence n is computed directly from the first date, so
+ * monthly rules on the 31st fall on the last day of shorter months without
+ * drifting.
+ */
+public final class Recurrence {
+
+    /**
+     * Calendar unit the interval is counted in
+     */
+    public enum Unit {
+        DAYS, WEEKS, MONTHS
+    }
+
+    private final int interval;
+    private final Unit unit;
+    private final long count;
+    private final LocalDate until;
+
+    private Recurrence(int interval, Unit unit, long count, LocalDate until) {
+        this.interval = interval;
+        this.unit = unit;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Creates an unbounded rule
+     * @param interval number of units between occurrences
+     * @param unit unit of the interval
+     * @return recurrence rule
+     * @throws IllegalArgumentException if interval is not positive or unit is null
+     */
+    public static Recurrence every(int interval, Unit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Unit cannot be null");
+        }
+        return new Recurrence(interval, unit, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates an unbounded weekly rule
+     * @return recurrence every week
+     */
+    public static Recurrence weekly() {
+        return every(1, Unit.WEEKS);
+    }
+
+    /**
+     * Limits the rule to a number of occurrences
+     * @param occurrences total number of occurrences, the first included
+     * @return limited copy of this rule
+     * @throws IllegalArgumentException if occurrences is not positive
+     */
+    public Recurrence times(long occurrences) {
+        if (occurrences <= 0) {
+            throw new IllegalArgumentException("Occurrences must be positive");
+        }
+        return new Recurrence(interval, unit, occurrences, until);
+    }
+
+    /**
+     * Ends the rule on a date; occurrences due after it are not generated
+     * @param lastDate last date an occurrence may fall on
+     * @return limited copy of this rule
+     * @throws IllegalArgumentException if lastDate is null
+     */
+    public Recurrence until(LocalDate lastDate) {
+        if (lastDate == null) {
+            throw new IllegalArgumentException("End date cannot be null");
+        }
+        return new Recurrence(interval, unit, count, lastDate);
+    }
+
+    /**
+     * Computes the due date of an occurrence
+     * @param first due date of occurrence 0
+     * @param n occurrence number
+     * @return due date, or null if the rule ends before occurrence n
+     */
+    LocalDate occurrence(LocalDate first, long n) {
+        if (n >= count) {
+            return null;
+        }
+        long steps = n * interval;
+        LocalDate date;
+        if (unit == Unit.DAYS) {
+            date = first.plusDays(steps);
+        } else if (unit == Unit.WEEKS) {
+            date = first.plusWeeks(steps);
+        } else {
+            date = first.plusMonths(steps);
+        }
+        return until != null && date.isAfter(until) ? null : date;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Gets the occurrence limit
+     * @return total number of occurrences, Long.MAX_VALUE if unlimited
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the end date
+     * @return last date an occurrence may fall on, or null if open-ended
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    @Override
+    public String toString() {
+        String text = "every " + interval + " " + unit.name().toLowerCase();
+        if (count != Long.MAX_VALUE) {
+            text += ", " + count + " times";
+        }
+        if (until != null) {
+            text += ", until " + until;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,152 @@
+package ProjectTracker;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Immutable set of recurring project templates and, for each, how many of
+ * its occurrences have already been turned into projects. It travels with
+ * every TrackerSnapshot, so undo and redo restore the templates and the
+ * occurrences made from them together. Two summary days let a query find
+ * out in O(1) whether it reaches anything not yet materialised.
+ */
+final class RecurrenceSchedule {
+    static final RecurrenceSchedule EMPTY = new RecurrenceSchedule(new RecurringProject[0], new long[0]);
+
+    private final RecurringProject[] series;
+    private final long[] created;
+    // Earliest due day of any occurrence not materialised yet
+    private final long nextPendingDay;
+    // Earliest last-materialised day among templates that still have occurrences to come
+    private final long coveredDay;
+
+    private RecurrenceSchedule(RecurringProject[] series, long[] created) {
+        this.series = series;
+        this.created = created;
+        long pending = Long.MAX_VALUE;
+        long covered = Long.MAX_VALUE;
+        for (int i = 0; i < series.length; i++) {
+            LocalDate next = series[i].getOccurrenceDate(created[i]);
+            if (next == null) {
+                continue;
+            }
+            pending = Math.min(pending, next.toEpochDay());
+            covered = Math.min(covered, created[i] == 0
+                ? Long.MIN_VALUE : series[i].getOccurrenceDate(created[i] - 1).toEpochDay());
+        }
+        this.nextPendingDay = pending;
+        this.coveredDay = covered;
+    }
+
+    /**
+     * Creates a schedule from templates read back from storage
+     * @param series templates in the order they were added
+     * @param created number of occurrences of each template already made
+     * @return schedule holding the templates
+     */
+    static RecurrenceSchedule of(List<RecurringProject> series, long[] created) {
+        return new RecurrenceSchedule(series.toArray(new RecurringProject[0]), created.clone());
+    }
+
+    /**
+     * Returns a schedule with one more template, none of its occurrences made yet
+     */
+    RecurrenceSchedule with(RecurringProject template) {
+        RecurringProject[] grownSeries = Arrays.copyOf(series, series.length + 1);
+        long[] grownCreated = Arrays.copyOf(created, created.length + 1);
+        grownSeries[series.length] = template;
+        return new RecurrenceSchedule(grownSeries, grownCreated);
+    }
+
+    /**
+     * Returns a schedule without a template, or this schedule if it is absent
+     */
+    RecurrenceSchedule without(RecurringProject template) {
+        for (int i = 0; i < series.length; i++) {
+            if (series[i] == template) {
+                RecurringProject[] keptSeries = new RecurringProject[series.length - 1];
+                long[] keptCreated = new long[created.length - 1];
+                System.arraycopy(series, 0, keptSeries, 0, i);
+                System.arraycopy(series, i + 1, keptSeries, i, series.length - i - 1);
+                System.arraycopy(created, 0, keptCreated, 0, i);
+                System.arraycopy(created, i + 1, keptCreated, i, created.length - i - 1);
+                return new RecurrenceSchedule(keptSeries, keptCreated);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Checks whether a query window is already fully materialised
+     * @param throughDay last due day the window reaches
+     * @param upcomingFrom day every template must have an occurrence on or
+     *        after, or Long.MIN_VALUE if the window does not ask for one
+     * @return true if materialise would create nothing
+     */
+    boolean covers(long throughDay, long upcomingFrom) {
+        return nextPendingDay > throughDay && coveredDay >= upcomingFrom;
+    }
+
+    /**
+     * Creates the projects for every occurrence a window reaches
+     * @param throughDay last due day the window reaches
+     * @param upcomingFrom day every template must have an occurrence on or after,
+     *        or Long.MIN_VALUE
+     * @param occurrences receives the new projects ordered by due date
+     * @return schedule recording the created occurrences
+     */
+    RecurrenceSchedule materialize(long throughDay, long upcomingFrom, List<Project> occurrences) {
+        if (covers(throughDay, upcomingFrom)) {
+            return this;
+        }
+        long[] advanced = created.clone();
+        int start = occurrences.size();
+        for (int i = 0; i < series.length; i++) {
+            long lastDay = advanced[i] == 0
+                ? Long.MIN_VALUE : series[i].getOccurrenceDate(advanced[i] - 1).toEpochDay();
+            while (true) {
+                LocalDate due = series[i].getOccurrenceDate(advanced[i]);
+                if (due == null || due.toEpochDay() > throughDay && lastDay >= upcomingFrom) {
+                    break;
+                }
+                occurrences.add(series[i].createOccurrence(due));
+                lastDay = due.toEpochDay();
+                advanced[i]++;
+            }
+        }
+        occurrences.subList(start, occurrences.size()).sort(Comparator.comparing(Project::getDueDate));
+        return new RecurrenceSchedule(series, advanced);
+    }
+
+    /**
+     * Gets the templates in the order they were added
+     * @return unmodifiable list of templates
+     */
+    List<RecurringProject> getTemplates() {
+        return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(series)));
+    }
+
+    /**
+     * Gets how many occurrences of a template have been materialised
+     * @param template template to look up
+     * @return occurrence count, or -1 if the template is not in this schedule
+     */
+    long getCreatedCount(RecurringProject template) {
+        for (int i = 0; i < series.length; i++) {
+            if (series[i] == template) {
+                return created[i];
+            }
+        }
+        return -1;
+    }
+
+    boolean isEmpty() {
+        return series.length == 0;
+    }
+}
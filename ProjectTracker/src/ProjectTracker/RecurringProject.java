@@ -0,0 +1,109 @@
+package ProjectTracker;
+
+import java.time.LocalDate;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Template for a project that repeats, such as a weekly assignment. The
+ * template itself is never listed; a ProjectTracker turns occurrences into
+ * ordinary projects only when a due-date query or sorted listing reaches
+ * them, and never more than ProjectTracker.RECURRENCE_HORIZON_DAYS ahead,
+ * so a template costs the same however far its rule runs.
+ */
+public final class RecurringProject {
+    private final String className;
+    private final LocalDate firstDueDate;
+    private final String description;
+    private final Project.Priority priority;
+    private final Recurrence recurrence;
+
+    /**
+     * Constructs a recurring project template
+     * @param className the name of the class
+     * @param firstDueDate due date of the first occurrence in MM/dd/yyyy format
+     * @param description description given to every occurrence
+     * @param priority priority given to every occurrence
+     * @param recurrence rule producing the later due dates
+     * @throws IllegalArgumentException if any input is invalid
+     */
+    public RecurringProject(String className, String firstDueDate, String description,
+                            Project.Priority priority, Recurrence recurrence) {
+        this(className, LocalDate.ofEpochDay(Project.validatedDueDay(className, firstDueDate, description)),
+            description, priority, recurrence);
+    }
+
+    private RecurringProject(String className, LocalDate firstDueDate, String description,
+                             Project.Priority priority, Recurrence recurrence) {
+        if (priority == null) {
+            throw new IllegalArgumentException(Project.Validation.MISSING_PRIORITY.getMessage());
+        }
+        if (recurrence == null) {
+            throw new IllegalArgumentException("Recurrence cannot be null");
+        }
+        this.className = className;
+        this.firstDueDate = firstDueDate;
+        this.description = description;
+        this.priority = priority;
+        this.recurrence = recurrence;
+    }
+
+    /**
+     * Recreates a template read back from a journal or an export. The first
+     * due date may have passed since the template was created.
+     * @throws IllegalArgumentException if any input is invalid
+     */
+    static RecurringProject restore(String className, LocalDate firstDueDate, String description,
+                                    Project.Priority priority, Recurrence recurrence) {
+        if (firstDueDate == null) {
+            throw new IllegalArgumentException("First due date cannot be null");
+        }
+        Project.validateStored(className, description, priority);
+        return new RecurringProject(className, firstDueDate, description, priority, recurrence);
+    }
+
+    /**
+     * Gets the due date of an occurrence
+     * @param n occurrence number, 0 for the first
+     * @return due date, or null if the rule ends before occurrence n
+     * @throws IllegalArgumentException if n is negative
+     */
+    public LocalDate getOccurrenceDate(long n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Occurrence cannot be negative");
+        }
+        return recurrence.occurrence(firstDueDate, n);
+    }
+
+    /**
+     * Creates the project for an occurrence
+     */
+    Project createOccurrence(LocalDate dueDate) {
+        return Project.restore(className, dueDate, description, priority, false, "0", "0");
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public LocalDate getFirstDueDate() {
+        return firstDueDate;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Project.Priority getPriority() {
+        return priority;
+    }
+
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    @Override
+    public String toString() {
+        return className + ": " + description + " (" + recurrence + " from " + firstDueDate + ")";
+    }
+}
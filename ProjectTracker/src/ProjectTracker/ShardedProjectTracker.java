@@ -0,0 +1,414 @@
+package ProjectTracker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Tracker facade that partitions projects across several ProjectTracker
+ * shards by a hash of their class name. Mutations lock only the shard they
+ * touch, and queries fan out to every shard in parallel on a ForkJoinPool,
+ * reading each shard's published snapshot without taking its lock.
+ * Sorted listings are merged from the per-shard sorted lists with a k-way merge.
+ * A project moving between shards is briefly in both; fan-outs that overlap
+ * a move are run again, so every listing and count sees it exactly once.
+ */
+public class ShardedProjectTracker {
+    private final ProjectTracker[] shards;
+    private final ForkJoinPool pool;
+    // Cross-shard moves hold the write lock; fan-outs validate an optimistic read
+    private final StampedLock moves = new StampedLock();
+
+    /**
+     * Constructs a sharded tracker using the common fork-join pool
+     * @param shardCount number of shards
+     * @throws IllegalArgumentException if shardCount is not positive
+     */
+    public ShardedProjectTracker(int shardCount) {
+        this(shardCount, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a sharded tracker
+     * @param shardCount number of shards
+     * @param pool pool that runs fan-out queries
+     * @throws IllegalArgumentException if shardCount is not positive or pool is null
+     */
+    public ShardedProjectTracker(int shardCount, ForkJoinPool pool) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.shards = new ProjectTracker[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ProjectTracker();
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Adds a new project to its shard
+     * @param project project to add
+     * @throws IllegalArgumentException if project is null
+     */
+    public void addProject(Project project) {
+        if (project == null) {
+            throw new IllegalArgumentException("Project cannot be null");
+        }
+        ProjectTracker shard = shardFor(project);
+        synchronized (shard) {
+            shard.addProject(project);
+        }
+    }
+
+    /**
+     * Updates an existing project, moving it if its class name changed shards.
+     * A move locks both shards in shard order and adds the new project before
+     * removing the old one, so a failed add leaves the old project in place.
+     * It runs under the move lock, so a fan-out that overlaps it is retried
+     * rather than listing the project twice.
+     * @param oldProject project to update
+     * @param newProject updated project data
+     * @return true if the project was found and updated
+     * @throws IllegalArgumentException if either project is null
+     */
+    public boolean updateProject(Project oldProject, Project newProject) {
+        if (oldProject == null || newProject == null) {
+            throw new IllegalArgumentException("Projects cannot be null");
+        }
+        int fromIndex = shardIndex(oldProject);
+        int toIndex = shardIndex(newProject);
+        ProjectTracker from = shards[fromIndex];
+        ProjectTracker to = shards[toIndex];
+        if (from == to) {
+            synchronized (from) {
+                return from.updateProject(oldProject, newProject);
+            }
+        }
+        ProjectTracker first = shards[Math.min(fromIndex, toIndex)];
+        ProjectTracker second = shards[Math.max(fromIndex, toIndex)];
+        long stamp = moves.writeLock();
+        try {
+            synchronized (first) {
+                synchronized (second) {
+                    if (from.snapshot().getActiveProjects().indexOf(oldProject) == -1) {
+                        return false;
+                    }
+                    to.addProject(newProject);
+                    return from.deleteProject(oldProject);
+                }
+            }
+        } finally {
+            moves.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Deletes a project from its shard
+     * @param project project to delete
+     * @return true if project was found and deleted
+     */
+    public boolean deleteProject(Project project) {
+        if (project == null) {
+            return false;
+        }
+        ProjectTracker shard = shardFor(project);
+        synchronized (shard) {
+            return shard.deleteProject(project);
+        }
+    }
+
+    /**
+     * Marks a project as completed within its shard
+     * @param project project to mark as completed
+     * @return true if the project was found and completed
+     */
+    public boolean markProjectCompleted(Project project) {
+        if (project == null) {
+            return false;
+        }
+        ProjectTracker shard = shardFor(project);
+        synchronized (shard) {
+            return shard.markProjectCompleted(project);
+        }
+    }
+
+    /**
+     * Gets all active projects, shard by shard
+     * @return list of active projects
+     */
+    public List<Project> getProjects() {
+        return concat(fanOut(ProjectTracker::getProjects));
+    }
+
+    /**
+     * Gets all completed projects, shard by shard
+     * @return list of completed projects
+     */
+    public List<Project> getCompletedProjects() {
+        return concat(fanOut(ProjectTracker::getCompletedProjects));
+    }
+
+    /**
+     * Filters projects by priority level on all shards in parallel
+     * @param priority priority level to filter by
+     * @return list of projects with specified priority
+     */
+    public List<Project> filterByPriority(Project.Priority priority) {
+        return concat(fanOut(shard -> shard.filterByPriority(priority)));
+    }
+
+    /**
+     * Gets projects due within specified days on all shards in parallel
+     * @param days number of days
+     * @return list of projects due within specified days
+     */
+    public List<Project> getProjectsDueWithin(int days) {
+        return concat(fanOut(shard -> shard.getProjectsDueWithin(days)));
+    }
+
+    /**
+     * Gets overdue projects on all shards in parallel
+     * @return list of overdue projects
+     */
+    public List<Project> getOverdueProjects() {
+        return concat(fanOut(ProjectTracker::getOverdueProjects));
+    }
+
+    /**
+     * Searches projects by class name on all shards in parallel
+     * @param searchTerm search term
+     * @return list of matching projects
+     */
+    public List<Project> searchByClassName(String searchTerm) {
+        return concat(fanOut(shard -> shard.searchByClassName(searchTerm)));
+    }
+
+    /**
+     * Runs a composed query on all shards in parallel. Ordered results are
+     * merged; the limit is applied to each shard and again to the merged list.
+     * @param query query to run
+     * @return matching projects
+     */
+    public List<Project> query(ProjectQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query cannot be null");
+        }
+        List<List<Project>> parts = fanOut(shard -> shard.query(query));
+        List<Project> results = query.getOrder() == ProjectCursor.Order.INSERTION
+            ? concat(parts)
+            : merge(parts, comparatorFor(query.getOrder()));
+        return results.size() > query.getLimit()
+            ? new ArrayList<>(results.subList(0, query.getLimit()))
+            : results;
+    }
+
+    /**
+     * Gets all active projects sorted by due date, merged from the shards
+     * @return sorted list of active projects
+     */
+    public List<Project> getProjectsSortedByDueDate() {
+        return merge(fanOut(shard -> shard.getProjectsSortedBy(ProjectCursor.Order.DUE_DATE)),
+            comparatorFor(ProjectCursor.Order.DUE_DATE));
+    }
+
+    /**
+     * Gets all active projects sorted by priority, merged from the shards
+     * @return sorted list of active projects
+     */
+    public List<Project> getProjectsSortedByPriority() {
+        return merge(fanOut(shard -> shard.getProjectsSortedBy(ProjectCursor.Order.PRIORITY)),
+            comparatorFor(ProjectCursor.Order.PRIORITY));
+    }
+
+    /**
+     * Gets total number of projects (active and completed)
+     * @return total number of projects
+     */
+    public int getTotalProjects() {
+        int total = 0;
+        for (int count : counts(ProjectTracker::getTotalProjects)) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets number of active projects
+     * @return number of active projects
+     */
+    public int getActiveProjectCount() {
+        int total = 0;
+        for (int count : counts(ProjectTracker::getActiveProjectCount)) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets number of completed projects
+     * @return number of completed projects
+     */
+    public int getCompletedProjectCount() {
+        int total = 0;
+        for (int count : counts(ProjectTracker::getCompletedProjectCount)) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the number of shards
+     * @return number of shards
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Picks the shard that owns a project's class name
+     */
+    private ProjectTracker shardFor(Project project) {
+        return shards[shardIndex(project)];
+    }
+
+    private int shardIndex(Project project) {
+        int hash = project.getClassName().hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, shards.length);
+    }
+
+    private int[] counts(Function<ProjectTracker, Integer> count) {
+        return withoutMoves(() -> {
+            int[] result = new int[shards.length];
+            for (int i = 0; i < shards.length; i++) {
+                result[i] = count.apply(shards[i]);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Runs an operation on every shard in parallel. Shard reads are served
+     * from each shard's published snapshot, so fan-outs never block writers.
+     * @return per-shard results in shard order
+     */
+    private List<List<Project>> fanOut(Function<ProjectTracker, List<Project>> operation) {
+        return withoutMoves(() -> {
+            List<List<Project>> results = new ArrayList<>(Collections.nCopies(shards.length, null));
+            pool.invoke(new ShardTask(operation, results, 0, shards.length));
+            return results;
+        });
+    }
+
+    /**
+     * Runs a read across shards so that no cross-shard move overlaps it. The
+     * read first runs optimistically; if a move overlapped, it runs once more
+     * holding the read lock, which only waits for moves, never for other writes.
+     */
+    private <T> T withoutMoves(Supplier<T> read) {
+        long stamp = moves.tryOptimisticRead();
+        if (stamp != 0) {
+            T result = read.get();
+            if (moves.validate(stamp)) {
+                return result;
+            }
+        }
+        stamp = moves.readLock();
+        try {
+            return read.get();
+        } finally {
+            moves.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Fork-join task that splits the shard range in halves until one shard remains
+     */
+    private final class ShardTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Function<ProjectTracker, List<Project>> operation;
+        private final transient List<List<Project>> results;
+        private final int from;
+        private final int to;
+
+        ShardTask(Function<ProjectTracker, List<Project>> operation, List<List<Project>> results, int from, int to) {
+            this.operation = operation;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                results.set(from, operation.apply(shards[from]));
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ShardTask(operation, results, from, mid),
+                new ShardTask(operation, results, mid, to));
+        }
+    }
+
+    private static List<Project> concat(List<List<Project>> parts) {
+        int total = 0;
+        for (List<Project> part : parts) {
+            total += part.size();
+        }
+        List<Project> result = new ArrayList<>(total);
+        for (List<Project> part : parts) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    /**
+     * K-way merge of sorted lists; ties are taken from the lower shard first
+     */
+    private static List<Project> merge(List<List<Project>> parts, Comparator<Project> comparator) {
+        int total = 0;
+        for (List<Project> part : parts) {
+            total += part.size();
+        }
+        List<Project> result = new ArrayList<>(total);
+        // Each entry is {shard, position}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, parts.size()), (a, b) -> {
+            int c = comparator.compare(parts.get(a[0]).get(a[1]), parts.get(b[0]).get(b[1]));
+            return c != 0 ? c : Integer.compare(a[0], b[0]);
+        });
+        for (int i = 0; i < parts.size(); i++) {
+            if (!parts.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<Project> part = parts.get(head[0]);
+            result.add(part.get(head[1]));
+            if (++head[1] < part.size()) {
+                heads.add(head);
+            }
+        }
+        return result;
+    }
+
+    private static Comparator<Project> comparatorFor(ProjectCursor.Order order) {
+        if (order == ProjectCursor.Order.DUE_DATE) {
+            return Comparator.comparing(Project::getDueDate);
+        }
+        return Comparator.comparing(Project::getPriority);
+    }
+}
@@ -0,0 +1,61 @@
+package ProjectTracker;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Notification describing one committed change to a tracker: a single
+ * mutation, a whole batch, a reorder or an undo/redo. Listeners that keep
+ * derived state should apply the mutations in order, or rebuild from the
+ * snapshot when isReset() is true.
+ */
+public final class TrackerChange {
+    private final List<ProjectMutation> mutations;
+    private final boolean reordered;
+    private final boolean reset;
+    private final TrackerSnapshot snapshot;
+
+    /**
+     * Constructs a change notification
+     * @param mutations applied mutations in order
+     * @param reordered true if active projects were reordered
+     * @param reset true if the state was replaced wholesale, as by undo, redo or a sort
+     * @param snapshot version published by the change
+     */
+    TrackerChange(List<ProjectMutation> mutations, boolean reordered, boolean reset, TrackerSnapshot snapshot) {
+        this.mutations = Collections.unmodifiableList(mutations);
+        this.reordered = reordered;
+        this.reset = reset;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Gets the applied mutations in the order they were applied
+     * @return unmodifiable list of mutations
+     */
+    public List<ProjectMutation> getMutations() {
+        return mutations;
+    }
+
+    public boolean isReordered() {
+        return reordered;
+    }
+
+    /**
+     * Checks if the change replaced the whole state, so derived state must be rebuilt
+     * @return true for undo, redo, sorts and reloads
+     */
+    public boolean isReset() {
+        return reset;
+    }
+
+    /**
+     * Gets the version published by this change
+     * @return snapshot after the change
+     */
+    public TrackerSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
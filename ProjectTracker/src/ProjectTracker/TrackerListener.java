@@ -0,0 +1,17 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Receives one notification per committed tracker change. Listeners are
+ * called on the writing thread while the tracker lock is held, in commit
+ * order, so they should hand off slow work.
+ */
+public interface TrackerListener {
+
+    /**
+     * Called after a change has been committed and published
+     * @param change description of the change
+     */
+    void trackerChanged(TrackerChange change);
+}
@@ -0,0 +1,53 @@
+package ProjectTracker;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Read access to one tracker version. A read view keeps its snapshot for as
+ * long as it is open, however many changes writers publish meanwhile;
+ * closing it drops the view's reference, so the version is reclaimed by the
+ * garbage collector once nothing else holds it. Use it in try-with-resources
+ * around a report or export.
+ */
+public final class TrackerReadView implements AutoCloseable {
+    private volatile TrackerSnapshot snapshot;
+    private final long version;
+
+    /**
+     * Constructs a read view over a snapshot
+     * @param snapshot snapshot to read from
+     */
+    TrackerReadView(TrackerSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.version = snapshot.getVersion();
+    }
+
+    /**
+     * Gets the snapshot this view reads from
+     * @return snapshot this view reads from
+     * @throws IllegalStateException if the view has been closed
+     */
+    public TrackerSnapshot getSnapshot() {
+        TrackerSnapshot current = snapshot;
+        if (current == null) {
+            throw new IllegalStateException("Read view is closed");
+        }
+        return current;
+    }
+
+    /**
+     * Gets the version number this view reads
+     * @return version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Releases the snapshot; closing twice has no effect
+     */
+    @Override
+    public void close() {
+        snapshot = null;
+    }
+}
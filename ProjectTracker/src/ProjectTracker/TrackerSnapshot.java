@@ -0,0 +1,422 @@
+package ProjectTracker;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Immutable, versioned point-in-time view of a ProjectTracker's lists.
+ * Snapshots share structure with the tracker through PersistentVector, so
+ * taking one is O(1) no matter how many projects are tracked, and every
+ * query on a snapshot sees one consistent version while writers carry on.
+ * The projects in a snapshot are the tracker's frozen copies, so nothing
+ * done to the tracker or to a caller's Project objects changes a snapshot.
+ */
+public final class TrackerSnapshot {
+    private final PersistentVector<Project> activeProjects;
+    private final PersistentVector<Project> completedProjects;
+    private final ProjectIndex index;
+    private final int totalProjects;
+    private final long version;
+    private final int modCount;
+    private final CompletedArchive archive;
+    private final int archivedCount;
+    private final RecurrenceSchedule schedule;
+
+    /**
+     * Constructs a snapshot; its oldest completed projects may live in an archive
+     * @param activeProjects active projects at snapshot time
+     * @param completedProjects completed projects still in memory at snapshot time
+     * @param index query index over the active projects
+     * @param totalProjects total project count at snapshot time, archived ones included
+     * @param version version number the tracker published this snapshot as
+     * @param modCount tracker modification count that page cursors check against
+     * @param archive archive holding the older completed projects, or null
+     * @param archivedCount how many archived projects belong to this version
+     * @param schedule recurring project templates at snapshot time
+     */
+    TrackerSnapshot(PersistentVector<Project> activeProjects, PersistentVector<Project> completedProjects,
+                    ProjectIndex index, int totalProjects, long version, int modCount, CompletedArchive archive,
+                    int archivedCount, RecurrenceSchedule schedule) {
+        this.activeProjects = activeProjects;
+        this.completedProjects = completedProjects;
+        this.index = index;
+        this.totalProjects = totalProjects;
+        this.version = version;
+        this.modCount = modCount;
+        this.archive = archive;
+        this.archivedCount = archivedCount;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Gets the version number of this snapshot; later snapshots have larger numbers
+     * @return version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the query index over this version's active projects
+     * @return index
+     */
+    ProjectIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the tracker modification count this version was published at
+     * @return modification count
+     */
+    int getModCount() {
+        return modCount;
+    }
+
+    /**
+     * Gets the active projects as a persistent vector
+     * @return active projects
+     */
+    public PersistentVector<Project> getActiveProjects() {
+        return activeProjects;
+    }
+
+    /**
+     * Gets the completed projects still held in memory as a persistent vector;
+     * archived projects are not included
+     * @return in-memory completed projects
+     */
+    public PersistentVector<Project> getCompletedProjectVector() {
+        return completedProjects;
+    }
+
+    /**
+     * Copies the active projects into a list
+     * @return list of active projects
+     */
+    public List<Project> getProjects() {
+        return toList(activeProjects);
+    }
+
+    /**
+     * Gets the completed projects, archived ones first. Without an archive
+     * this is a copy; with one it is a read-only list that streams archived
+     * projects from disk as it is walked.
+     * @return list of completed projects
+     */
+    public List<Project> getCompletedProjects() {
+        if (archivedCount == 0) {
+            return toList(completedProjects);
+        }
+        List<Project> archived = archive.view(archivedCount);
+        return new AbstractList<Project>() {
+            @Override
+            public Project get(int index) {
+                return index < archivedCount ? archived.get(index) : completedProjects.get(index - archivedCount);
+            }
+
+            @Override
+            public int size() {
+                return archivedCount + completedProjects.size();
+            }
+        };
+    }
+
+    /**
+     * Passes every completed project to an action, archived ones first,
+     * reading the archive sequentially one block at a time
+     * @param action action to run for each project
+     */
+    void forEachCompleted(Consumer<? super Project> action) {
+        if (archivedCount > 0) {
+            archive.forEach(archivedCount, action);
+        }
+        completedProjects.forEach(action);
+    }
+
+    /**
+     * Gets the archived completed projects that belong to this version
+     * @return lazy read-only list, empty without an archive
+     */
+    List<Project> getArchivedProjects() {
+        return archivedCount == 0 ? Collections.emptyList() : archive.view(archivedCount);
+    }
+
+    /**
+     * Gets the recurring project templates of this version
+     * @return unmodifiable list of templates in the order they were added
+     */
+    public List<RecurringProject> getRecurringProjects() {
+        return schedule.getTemplates();
+    }
+
+    RecurrenceSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Gets how many completed projects of this version are archived
+     * @return archived project count
+     */
+    public int getArchivedProjectCount() {
+        return archivedCount;
+    }
+
+    public int getTotalProjects() {
+        return totalProjects;
+    }
+
+    public int getActiveProjectCount() {
+        return activeProjects.size();
+    }
+
+    public int getCompletedProjectCount() {
+        return archivedCount + completedProjects.size();
+    }
+
+    /**
+     * Gets all active projects in a sorted order; ties keep storage order
+     * @param order order of the listing
+     * @return sorted list of active projects
+     */
+    public List<Project> getProjectsSortedBy(ProjectCursor.Order order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        List<Project> projectList = getProjects();
+        if (order == ProjectCursor.Order.DUE_DATE) {
+            projectList.sort((p1, p2) -> p1.getDueDate().compareTo(p2.getDueDate()));
+        } else if (order == ProjectCursor.Order.PRIORITY) {
+            projectList.sort((p1, p2) -> p1.getPriority().compareTo(p2.getPriority()));
+        }
+        return projectList;
+    }
+
+    /**
+     * Filters active projects by priority level
+     * @param priority priority level to filter by
+     * @return list of projects with specified priority
+     */
+    public List<Project> filterByPriority(Project.Priority priority) {
+        List<Project> results = new ArrayList<>();
+        for (int i = 0; i < activeProjects.size(); i++) {
+            Project p = activeProjects.get(i);
+            if (p.getPriority() == priority) {
+                results.add(p);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Gets active projects due within specified days
+     * @param days number of days
+     * @return list of projects due within specified days
+     */
+    public List<Project> getProjectsDueWithin(int days) {
+        LocalDate cutoff = LocalDate.now().plusDays(days);
+        List<Project> results = new ArrayList<>();
+        for (int i = 0; i < activeProjects.size(); i++) {
+            Project p = activeProjects.get(i);
+            if (!p.getDueDate().isAfter(cutoff)) {
+                results.add(p);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Gets overdue active projects
+     * @return list of overdue projects
+     */
+    public List<Project> getOverdueProjects() {
+        List<Project> results = new ArrayList<>();
+        for (int i = 0; i < activeProjects.size(); i++) {
+            Project p = activeProjects.get(i);
+            if (p.isOverdue()) {
+                results.add(p);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Searches active projects by class name, ignoring case
+     * @param searchTerm search term
+     * @return list of matching projects
+     */
+    public List<Project> searchByClassName(String searchTerm) {
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        String term = searchTerm.toLowerCase();
+        ClassNameTable names = ClassNameTable.shared();
+        // Each distinct class name is tested once: 0 = unknown, 1 = match, 2 = no match
+        byte[] matches = new byte[names.size()];
+        List<Project> results = new ArrayList<>();
+        for (int i = 0; i < activeProjects.size(); i++) {
+            Project p = activeProjects.get(i);
+            int id = p.getClassNameId();
+            boolean match;
+            if (id < 0 || id >= matches.length) {
+                match = p.getLowerClassName().contains(term);
+            } else {
+                if (matches[id] == 0) {
+                    matches[id] = (byte) (names.lowerName(id).contains(term) ? 1 : 2);
+                }
+                match = matches[id] == 1;
+            }
+            if (match) {
+                results.add(p);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Searches active projects for class names within an edit distance of a
+     * term, ignoring case. Distances are computed only against the distinct
+     * class names visited in the BK-tree, never per project.
+     * @param searchTerm class name as typed, possibly misspelled
+     * @param maxDistance largest number of inserted, deleted or replaced characters
+     * @return list of matching projects
+     * @throws IllegalArgumentException if maxDistance is negative
+     */
+    public List<Project> searchByClassNameFuzzy(String searchTerm, int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Distance cannot be negative");
+        }
+        if (searchTerm == null || searchTerm.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        String term = searchTerm.trim();
+        boolean[] matches = ClassNameTable.shared().findWithin(term, maxDistance);
+        String lowerTerm = term.toLowerCase();
+        List<Project> results = new ArrayList<>();
+        for (int i = 0; i < activeProjects.size(); i++) {
+            Project p = activeProjects.get(i);
+            int id = p.getClassNameId();
+            // Names the table did not take are compared directly
+            if (id < 0 ? BKTree.distance(lowerTerm, p.getLowerClassName(), maxDistance) <= maxDistance
+                       : id < matches.length && matches[id]) {
+                results.add(p);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Gets active projects whose class name matches exactly
+     * @param className class name to match
+     * @return list of projects in the given class
+     */
+    public List<Project> filterByClassName(String className) {
+        List<Project> results = new ArrayList<>();
+        if (className == null) {
+            return results;
+        }
+        int id = ClassNameTable.shared().find(className);
+        for (int i = 0; i < activeProjects.size(); i++) {
+            Project p = activeProjects.get(i);
+            if (p.hasClassName(className, id)) {
+                results.add(p);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Groups active projects by class name, keeping classes in order of first appearance
+     * @return map from class name to the projects in that class
+     */
+    public Map<String, List<Project>> groupByClassName() {
+        ClassNameTable names = ClassNameTable.shared();
+        Map<String, List<Project>> groups = new LinkedHashMap<>();
+        List<List<Project>> byId = new ArrayList<>();
+        for (int i = 0; i < activeProjects.size(); i++) {
+            Project p = activeProjects.get(i);
+            int id = p.getClassNameId();
+            if (id < 0) {
+                groups.computeIfAbsent(p.getClassName(), name -> new ArrayList<>()).add(p);
+                continue;
+            }
+            while (byId.size() <= id) {
+                byId.add(null);
+            }
+            List<Project> group = byId.get(id);
+            if (group == null) {
+                group = new ArrayList<>();
+                byId.set(id, group);
+                groups.put(names.name(id), group);
+            }
+            group.add(p);
+        }
+        return groups;
+    }
+
+    /**
+     * Counts active projects whose due date and priority match a predicate.
+     * Allocates nothing per project.
+     * @param predicate predicate over due epoch day and priority ordinal
+     * @return number of matching projects
+     */
+    public int countMatching(ProjectFieldPredicate predicate) {
+        if (predicate == null) {
+            throw new IllegalArgumentException("Predicate cannot be null");
+        }
+        MatchCounter counter = new MatchCounter(predicate);
+        activeProjects.forEach(counter);
+        return counter.count;
+    }
+
+    /**
+     * Performs an action on every active project whose due date and priority
+     * match a predicate. Allocates nothing per project.
+     * @param predicate predicate over due epoch day and priority ordinal
+     * @param action action to perform on each match
+     */
+    public void forEachMatching(ProjectFieldPredicate predicate, Consumer<? super Project> action) {
+        if (predicate == null || action == null) {
+            throw new IllegalArgumentException("Predicate and action cannot be null");
+        }
+        activeProjects.forEach(p -> {
+            if (predicate.test(p.getDueEpochDay(), p.getPriority().ordinal())) {
+                action.accept(p);
+            }
+        });
+    }
+
+    /**
+     * Counting visitor for countMatching, allocated once per scan
+     */
+    private static final class MatchCounter implements Consumer<Project> {
+        private final ProjectFieldPredicate predicate;
+        int count;
+
+        MatchCounter(ProjectFieldPredicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void accept(Project p) {
+            if (predicate.test(p.getDueEpochDay(), p.getPriority().ordinal())) {
+                count++;
+            }
+        }
+    }
+
+    static List<Project> toList(PersistentVector<Project> vector) {
+        List<Project> list = new ArrayList<>(vector.size());
+        for (int i = 0; i < vector.size(); i++) {
+            list.add(vector.get(i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,360 @@
+package ProjectTracker;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * @author Abdul Chaudhary
+ *
+ * Per-day workload index over the time estimates of a tracker's active
+ * projects. It registers as a tracker listener and moves each project's
+ * estimated hours onto its due day as projects are added, updated,
+ * deleted and completed, so workload questions never re-parse estimates.
+ *
+ * Hours are kept in two sparse segment trees: one over epoch days that
+ * answers range sums, and one over Monday-based weeks that also keeps the
+ * largest week below each node. Nodes are only created for days that have
+ * held work, so any date LocalDate supports can be indexed, and updates and
+ * queries cost O(log n) in the span of representable days. The tracker's
+ * projects are frozen, so a new due date or estimate always arrives as an
+ * update and moves only that project's hours.
+ */
+public final class WorkloadCalendar implements TrackerListener, AutoCloseable {
+    private static final long MIN_DAY = LocalDate.MIN.toEpochDay();
+    private static final long MAX_DAY = LocalDate.MAX.toEpochDay();
+    private static final int MIN_COMPACTION = 1 << 16;
+
+    /**
+     * Sparse segment tree over a range of long keys. Every node holds the
+     * sum of its range and the largest single key value in it, with the
+     * leftmost key holding that value. Node 0 stands for an empty subtree
+     * and is never written.
+     */
+    private static final class SegmentTree {
+        private final long low;
+        private final long high;
+        private int[] left;
+        private int[] right;
+        private long[] sums;
+        private long[] maxValues;
+        private long[] maxKeys;
+        private int nodeCount;
+        private final int[] path = new int[64];
+        private long queryMax;
+        private long queryKey;
+
+        SegmentTree(long low, long high) {
+            this.low = low;
+            this.high = high;
+            clear();
+        }
+
+        void clear() {
+            left = new int[64];
+            right = new int[64];
+            sums = new long[64];
+            maxValues = new long[64];
+            maxKeys = new long[64];
+            nodeCount = 1;
+            newNode();
+        }
+
+        int nodeCount() {
+            return nodeCount - 1;
+        }
+
+        private int newNode() {
+            if (nodeCount == sums.length) {
+                int capacity = nodeCount * 2;
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                sums = Arrays.copyOf(sums, capacity);
+                maxValues = Arrays.copyOf(maxValues, capacity);
+                maxKeys = Arrays.copyOf(maxKeys, capacity);
+            }
+            return nodeCount++;
+        }
+
+        /**
+         * Adds delta to the value of one key and fixes the nodes above it
+         */
+        void add(long key, long delta) {
+            int node = 1;
+            long from = low;
+            long to = high;
+            int depth = 0;
+            while (from < to) {
+                path[depth++] = node;
+                long mid = from + (to - from) / 2;
+                if (key <= mid) {
+                    if (left[node] == 0) {
+                        int child = newNode();
+                        left[node] = child;
+                    }
+                    node = left[node];
+                    to = mid;
+                } else {
+                    if (right[node] == 0) {
+                        int child = newNode();
+                        right[node] = child;
+                    }
+                    node = right[node];
+                    from = mid + 1;
+                }
+            }
+            sums[node] += delta;
+            maxValues[node] = sums[node];
+            maxKeys[node] = key;
+            while (depth > 0) {
+                int parent = path[--depth];
+                int l = left[parent];
+                int r = right[parent];
+                // Node 0 reads as sum 0 and maximum 0; ties go left
+                int best = r == 0 || l != 0 && maxValues[l] >= maxValues[r] ? l : r;
+                sums[parent] = sums[l] + sums[r];
+                maxValues[parent] = maxValues[best];
+                maxKeys[parent] = maxKeys[best];
+            }
+        }
+
+        long sum(long from, long to) {
+            return sum(1, low, high, from, to);
+        }
+
+        private long sum(int node, long nodeFrom, long nodeTo, long from, long to) {
+            if (node == 0 || to < nodeFrom || nodeTo < from) {
+                return 0;
+            }
+            if (from <= nodeFrom && nodeTo <= to) {
+                return sums[node];
+            }
+            long mid = nodeFrom + (nodeTo - nodeFrom) / 2;
+            return sum(left[node], nodeFrom, mid, from, to) + sum(right[node], mid + 1, nodeTo, from, to);
+        }
+
+        /**
+         * Finds the largest key value in a range; the result is left in
+         * queryMax and queryKey, with queryMax 0 when the range holds nothing
+         */
+        void max(long from, long to) {
+            queryMax = 0;
+            queryKey = from;
+            max(1, low, high, from, to);
+        }
+
+        private void max(int node, long nodeFrom, long nodeTo, long from, long to) {
+            if (node == 0 || to < nodeFrom || nodeTo < from || maxValues[node] <= queryMax) {
+                return;
+            }
+            if (from <= nodeFrom && nodeTo <= to) {
+                queryMax = maxValues[node];
+                queryKey = maxKeys[node];
+                return;
+            }
+            long mid = nodeFrom + (nodeTo - nodeFrom) / 2;
+            max(left[node], nodeFrom, mid, from, to);
+            max(right[node], mid + 1, nodeTo, from, to);
+        }
+    }
+
+    /**
+     * Hours a project contributed and how many times it is in the list
+     */
+    private static final class Contribution {
+        final long day;
+        final long hours;
+        int count;
+
+        Contribution(long day, long hours) {
+            this.day = day;
+            this.hours = hours;
+        }
+    }
+
+    private final ProjectTracker tracker;
+    private final SegmentTree days;
+    private final SegmentTree weeks;
+    private final Map<Project, Contribution> contributions;
+    private boolean closed;
+
+    private WorkloadCalendar(ProjectTracker tracker) {
+        this.tracker = tracker;
+        this.days = new SegmentTree(MIN_DAY, MAX_DAY);
+        this.weeks = new SegmentTree(weekOf(MIN_DAY), weekOf(MAX_DAY));
+        this.contributions = new IdentityHashMap<>();
+    }
+
+    /**
+     * Indexes the workload of the tracker's active projects and keeps it in
+     * step with every later change until the calendar is closed
+     * @param tracker tracker to index
+     * @return attached calendar
+     * @throws IllegalArgumentException if tracker is null
+     */
+    public static WorkloadCalendar attach(ProjectTracker tracker) {
+        if (tracker == null) {
+            throw new IllegalArgumentException("Tracker cannot be null");
+        }
+        WorkloadCalendar calendar = new WorkloadCalendar(tracker);
+        synchronized (tracker) {
+            calendar.rebuild(tracker.snapshot().getActiveProjects());
+            tracker.addChangeListener(calendar);
+        }
+        return calendar;
+    }
+
+    /**
+     * Applies a committed change. Runs on the mutating thread inside the
+     * tracker's lock.
+     * @param change committed change
+     */
+    @Override
+    public synchronized void trackerChanged(TrackerChange change) {
+        if (closed || change.isReordered() && !change.isReset()) {
+            return;
+        }
+        if (change.isReset()) {
+            rebuild(change.getSnapshot().getActiveProjects());
+            return;
+        }
+        for (ProjectMutation mutation : change.getMutations()) {
+            switch (mutation.getType()) {
+                case ADD:
+                    addProject(mutation.getProject());
+                    break;
+                case UPDATE:
+                    removeProject(mutation.getProject());
+                    addProject(mutation.getReplacement());
+                    break;
+                default:
+                    removeProject(mutation.getProject());
+                    break;
+            }
+        }
+        if (days.nodeCount() > Math.max(MIN_COMPACTION, 128L * contributions.size())) {
+            rebuild(change.getSnapshot().getActiveProjects());
+        }
+    }
+
+    /**
+     * Sums the estimated hours of active projects due in a date range
+     * @param from first due date, inclusive
+     * @param to last due date, inclusive
+     * @return estimated hours due in the range
+     * @throws IllegalArgumentException if a date is null or from is after to
+     * @throws IllegalStateException if the calendar is closed
+     */
+    public synchronized long getEstimatedHours(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return days.sum(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Finds the Monday-to-Sunday week with the most estimated hours among the
+     * weeks that overlap a date range. Whole weeks are compared, including
+     * days just outside the range.
+     * @param from first date, inclusive
+     * @param to last date, inclusive
+     * @return Monday of the busiest week, earliest on ties, or null if no
+     *         hours are due in those weeks
+     * @throws IllegalArgumentException if a date is null or from is after to
+     * @throws IllegalStateException if the calendar is closed
+     */
+    public synchronized LocalDate getPeakWeek(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        weeks.max(weekOf(from.toEpochDay()), weekOf(to.toEpochDay()));
+        if (weeks.queryMax <= 0) {
+            return null;
+        }
+        return LocalDate.ofEpochDay(Math.max(MIN_DAY, weeks.queryKey * 7 - 3));
+    }
+
+    /**
+     * Checks whether the calendar has been closed
+     * @return true if closed
+     */
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        if (closed) {
+            throw new IllegalStateException("Calendar is closed");
+        }
+    }
+
+    private void rebuild(PersistentVector<Project> projects) {
+        days.clear();
+        weeks.clear();
+        contributions.clear();
+        projects.forEach(this::addProject);
+    }
+
+    private void addProject(Project project) {
+        Contribution contribution = contributions.get(project);
+        if (contribution == null) {
+            contribution = new Contribution(project.getDueEpochDay(), hours(project.getTimeEstimate()));
+            contributions.put(project, contribution);
+        }
+        contribution.count++;
+        apply(contribution, contribution.hours);
+    }
+
+    private void removeProject(Project project) {
+        Contribution contribution = contributions.get(project);
+        if (contribution == null) {
+            return;
+        }
+        if (--contribution.count == 0) {
+            contributions.remove(project);
+        }
+        apply(contribution, -contribution.hours);
+    }
+
+    private void apply(Contribution contribution, long delta) {
+        if (delta != 0) {
+            days.add(contribution.day, delta);
+            weeks.add(weekOf(contribution.day), delta);
+        }
+    }
+
+    /**
+     * Numbers weeks so that week 0 starts on Monday 12/29/1969
+     */
+    private static long weekOf(long epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    /**
+     * Parses a digits-only time estimate, saturating at Integer.MAX_VALUE
+     */
+    private static long hours(String estimate) {
+        long hours = 0;
+        for (int i = 0; i < estimate.length(); i++) {
+            hours = Math.min(Integer.MAX_VALUE, hours * 10 + (estimate.charAt(i) - '0'));
+        }
+        return hours;
+    }
+
+    /**
+     * Stops following the tracker and drops the index
+     */
+    @Override
+    public void close() {
+        tracker.removeChangeListener(this);
+        synchronized (this) {
+            closed = true;
+            days.clear();
+            weeks.clear();
+            contributions.clear();
+        }
+    }
+}
@@ -2,8 +2,39 @@ package ProjectTracker;
 
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import ProjectTracker.Project;
 import ProjectTracker.ProjectTracker;
 
@@ -186,4 +217,1141 @@ public class ProjectTrackerTest {
         assertEquals(1, tracker.getActiveProjectCount());
         assertEquals(1, tracker.getCompletedProjectCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(13)
+    @DisplayName("Test Paged Listing")
+    void testPagedListing() {
+        for (int i = 1; i <= 25; i++) {
+            Project project = new Project("Class " + i, String.format("12/%02d/2099", 26 - i), "Description");
+            tracker.addProject(project);
+        }
+
+        ProjectPage page = tracker.getFirstPage(ProjectCursor.Source.ACTIVE, ProjectCursor.Order.DUE_DATE, 10);
+        assertEquals(10, page.getProjects().size());
+        assertEquals("Class 25", page.getProjects().get(0).getClassName());
+        page = tracker.getNextPage(page.getNextCursor());
+        assertEquals("Class 15", page.getProjects().get(0).getClassName());
+        page = tracker.getNextPage(page.getNextCursor());
+        assertEquals(5, page.getProjects().size());
+        assertFalse(page.hasNext());
+
+        ProjectPage lastPage = tracker.getPage(ProjectCursor.Source.ACTIVE, ProjectCursor.Order.DUE_DATE, 2, 10);
+        assertEquals(page.getProjects(), lastPage.getProjects());
+
+        ProjectPage first = tracker.getFirstPage(ProjectCursor.Source.ACTIVE, ProjectCursor.Order.INSERTION, 10);
+        tracker.addProject(new Project("Late", "12/31/2099", "Description"));
+        assertThrows(ConcurrentModificationException.class,
+            () -> tracker.getNextPage(first.getNextCursor()));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("Test Cached Display String")
+    void testCachedDisplayString() {
+        Project project = new Project("Cached", "12/31/2099", "Description");
+        String first = project.getDisplayString();
+        assertSame(first, project.getDisplayString());
+        assertEquals(first, project.toString());
+
+        project.setPriority(Project.Priority.HIGH);
+        String updated = project.getDisplayString();
+        assertNotSame(first, updated);
+        assertTrue(updated.contains("Priority: HIGH"));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("Test Class Name Grouping")
+    void testClassNameGrouping() {
+        Project java1 = new Project("CIS152", "12/30/2099", "Lab 1");
+        Project python = new Project("CIS160", "12/30/2099", "Lab 1");
+        Project java2 = new Project("CIS152", "12/31/2099", "Lab 2");
+        tracker.addProject(java1);
+        tracker.addProject(python);
+        tracker.addProject(java2);
+
+        assertEquals(2, tracker.filterByClassName("CIS152").size());
+        assertEquals(0, tracker.filterByClassName("cis152").size());
+        assertEquals(3, tracker.searchByClassName("cis").size());
+        assertEquals(2, tracker.groupByClassName().size());
+        assertEquals(java1, new Project("CIS152", "12/30/2099", "Lab 1"));
+
+        // Names the table does not take are kept as plain strings
+        ClassNameTable table = new ClassNameTable(2);
+        assertEquals(0, table.intern("CIS152"));
+        assertEquals(1, table.intern("CIS160"));
+        assertEquals(-1, table.intern("CIS170"));
+        assertEquals(0, table.intern("CIS152"));
+        String longName = "CIS152 Data Structures " + "x".repeat(ClassNameTable.MAX_NAME_LENGTH);
+        Project seminar = new Project(longName, "12/31/2099", "Seminar");
+        tracker.addProject(seminar);
+        assertEquals(-1, seminar.getClassNameId());
+        assertEquals(longName, seminar.getClassName());
+        assertEquals(seminar, new Project(longName, "12/31/2099", "Seminar"));
+        assertEquals(List.of(seminar), tracker.filterByClassName(longName));
+        assertEquals(List.of(seminar), tracker.query(new ProjectQuery().inClass(longName)));
+        assertEquals(4, tracker.searchByClassName("cis").size());
+        assertEquals(3, tracker.groupByClassName().size());
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("Test Composed Query")
+    void testComposedQuery() {
+        for (int i = 1; i <= 20; i++) {
+            Project project = new Project(i % 2 == 0 ? "CIS152" : "MATH101",
+                String.format("11/%02d/2099", i), "Assignment " + i);
+            project.setPriority(i <= 3 ? Project.Priority.HIGH : Project.Priority.LOW);
+            tracker.addProject(project);
+        }
+
+        ProjectQuery query = new ProjectQuery()
+            .withPriority(Project.Priority.LOW)
+            .classNameContains("cis")
+            .dueBetween(LocalDate.of(2099, 11, 5), LocalDate.of(2099, 11, 12))
+            .orderBy(ProjectCursor.Order.DUE_DATE)
+            .limit(3);
+        List<Project> results = tracker.query(query);
+        assertEquals(3, results.size());
+        assertEquals("Assignment 6", results.get(0).getDescription());
+        assertEquals("Assignment 10", results.get(2).getDescription());
+        assertTrue(tracker.explain(query).startsWith("date"));
+
+        ProjectQuery high = new ProjectQuery().withPriority(Project.Priority.HIGH);
+        assertTrue(tracker.explain(high).startsWith("priority"));
+        assertEquals(3, tracker.query(high).size());
+        assertEquals(0, tracker.query(new ProjectQuery().inClass("Unknown Class")).size());
+
+        // Due days past the int range keep their order
+        LocalDate last = LocalDate.MAX;
+        tracker.addProject(new Project.Builder().className("MATH101").dueEpochDay(last.toEpochDay())
+            .description("Far future").priority(Project.Priority.LOW).build());
+        ProjectQuery farFuture = new ProjectQuery().dueBetween(LocalDate.of(2099, 11, 20), last)
+            .orderBy(ProjectCursor.Order.DUE_DATE);
+        assertEquals(List.of("Assignment 20", "Far future"),
+            tracker.query(farFuture).stream().map(Project::getDescription).collect(Collectors.toList()));
+
+        // The index follows every mutation, undo and sort without a rebuild
+        Random rng = new Random(30);
+        for (int step = 0; step < 400; step++) {
+            List<Project> active = tracker.getProjects();
+            int action = rng.nextInt(10);
+            if (action < 4 || active.isEmpty()) {
+                Project added = new Project("CIS" + rng.nextInt(5), String.format("10/%02d/2099", 1 + rng.nextInt(28)),
+                    "Step " + step);
+                added.setPriority(Project.Priority.values()[rng.nextInt(3)]);
+                tracker.addProject(added);
+            } else if (action < 6) {
+                Project replacement = new Project("CIS" + rng.nextInt(5), "10/15/2099", "Step " + step);
+                tracker.updateProject(active.get(rng.nextInt(active.size())), replacement);
+            } else if (action == 6) {
+                tracker.deleteProject(active.get(rng.nextInt(active.size())));
+            } else if (action == 7) {
+                tracker.markProjectCompleted(active.get(rng.nextInt(active.size())));
+            } else if (action == 8) {
+                tracker.undo();
+            } else {
+                tracker.sortProjects();
+            }
+            LocalDate from = LocalDate.of(2099, 10, 1 + rng.nextInt(20));
+            ProjectQuery random = new ProjectQuery().inClass("CIS" + rng.nextInt(5)).completed(false)
+                .dueBetween(from, from.plusDays(rng.nextInt(10)));
+            List<Project> expected = tracker.getProjects().stream()
+                .filter(p -> p.getClassName().equals(random.getClassName())
+                    && !p.getDueDate().isBefore(random.getDueFrom()) && !p.getDueDate().isAfter(random.getDueTo()))
+                .collect(Collectors.toList());
+            assertEquals(expected, tracker.query(random));
+            assertEquals(expected.size(), tracker.query(random.orderBy(ProjectCursor.Order.DUE_DATE)).size());
+        }
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("Test Sharded Tracker")
+    void testShardedTracker() {
+        ShardedProjectTracker sharded = new ShardedProjectTracker(4);
+        for (int i = 1; i <= 28; i++) {
+            Project project = new Project("Class " + (i % 7), String.format("10/%02d/2099", 29 - i), "Task " + i);
+            project.setPriority(Project.Priority.values()[i % 3]);
+            sharded.addProject(project);
+        }
+
+        assertEquals(28, sharded.getActiveProjectCount());
+        List<Project> byDate = sharded.getProjectsSortedByDueDate();
+        for (int i = 1; i < byDate.size(); i++) {
+            assertFalse(byDate.get(i).getDueDate().isBefore(byDate.get(i - 1).getDueDate()));
+        }
+        List<Project> byPriority = sharded.getProjectsSortedByPriority();
+        assertEquals(Project.Priority.HIGH, byPriority.get(0).getPriority());
+        assertEquals(Project.Priority.LOW, byPriority.get(27).getPriority());
+        assertEquals(4, sharded.searchByClassName("class 3").size());
+
+        Project moved = byDate.get(0);
+        sharded.updateProject(moved, new Project("Class 99", "10/01/2099", "Moved"));
+        assertEquals(1, sharded.searchByClassName("Class 99").size());
+
+        // Fan-outs that overlap a cross-shard move see the project exactly once
+        ShardedProjectTracker moving = new ShardedProjectTracker(4);
+        moving.addProject(new Project("Move 0", "10/01/2099", "Moving"));
+        Thread mover = new Thread(() -> {
+            for (int i = 1; i <= 2000; i++) {
+                moving.updateProject(new Project("Move " + (i - 1) % 8, "10/01/2099", "Moving"),
+                    new Project("Move " + i % 8, "10/01/2099", "Moving"));
+            }
+        });
+        mover.start();
+        while (mover.isAlive()) {
+            assertEquals(1, moving.getProjects().size());
+            assertEquals(1, moving.getActiveProjectCount());
+        }
+        assertEquals("Move 0", moving.getProjects().get(0).getClassName());
+        assertEquals(28, sharded.getActiveProjectCount());
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("Test Snapshot and Undo")
+    void testSnapshotAndUndo() {
+        Project first = new Project("First", "12/31/2099", "Description");
+        Project second = new Project("Second", "12/30/2099", "Description");
+        tracker.addProject(first);
+        tracker.addProject(second);
+        TrackerSnapshot snapshot = tracker.snapshot();
+
+        tracker.markProjectCompleted(first);
+        tracker.sortProjects();
+        assertEquals(2, snapshot.getActiveProjectCount());
+        assertEquals(first, snapshot.getProjects().get(0));
+
+        assertTrue(tracker.undo());
+        assertTrue(tracker.undo());
+        assertEquals(2, tracker.getActiveProjectCount());
+        assertEquals(0, tracker.getCompletedProjectCount());
+        assertFalse(first.isCompleted());
+
+        assertTrue(tracker.redo());
+        assertEquals(1, tracker.getCompletedProjectCount());
+        assertTrue(first.isCompleted());
+        tracker.deleteProject(second);
+        assertFalse(tracker.canRedo());
+
+        // Inserts and removals in the middle keep every older version intact
+        List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 5000; i++) {
+            expected.add(i);
+            vector = vector.add(i);
+        }
+        PersistentVector<Integer> original = vector;
+        for (int i = 0; i < 2000; i++) {
+            int index = (i * 7919) % expected.size();
+            if (i % 3 == 0) {
+                expected.add(index, -i);
+                vector = vector.add(index, -i);
+            } else {
+                expected.remove(index);
+                vector = vector.remove(index);
+            }
+        }
+        assertEquals(expected.size(), vector.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), vector.get(i));
+        }
+        assertEquals(5000, original.size());
+        assertEquals(Integer.valueOf(4321), original.get(4321));
+
+        // Removals at the end reach past the tail into the tree, then appends and inserts refill it
+        for (int i = 0; i < 100; i++) {
+            expected.remove(expected.size() - 1);
+            vector = vector.removeLast();
+        }
+        for (int i = 0; i < 100; i++) {
+            int index = i % 5 == 0 ? expected.size() - 3 : expected.size();
+            expected.add(index, 10000 + i);
+            vector = vector.add(index, 10000 + i);
+        }
+        PersistentVector.Transient<Integer> builder = vector.asTransient();
+        for (int i = 0; i < 70; i++) {
+            builder.add(20000 + i);
+        }
+        PersistentVector<Integer> extended = builder.persistent();
+        List<Integer> visited = new ArrayList<>();
+        extended.forEach(expected.size() - 10, expected.size() + 70, visited::add);
+        assertEquals(80, visited.size());
+        assertEquals(Integer.valueOf(20069), visited.get(79));
+        assertEquals(expected.size(), vector.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), vector.get(i));
+            assertEquals(expected.get(i), extended.get(i));
+        }
+        assertEquals(expected.indexOf(10095), vector.indexOf(10095));
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("Test Read View")
+    void testReadView() throws InterruptedException {
+        Project report = new Project("Report", "12/31/2099", "Description");
+        tracker.addProject(report);
+        TrackerReadView closed;
+        try (TrackerReadView view = tracker.openReadView()) {
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    tracker.addProject(new Project("Writer", "12/31/2099", "Task " + i));
+                }
+            });
+            writer.start();
+            writer.join();
+            tracker.markProjectCompleted(report);
+
+            // The view's version keeps its own copy of the project
+            Project viewed = view.getSnapshot().getProjects().get(0);
+            assertEquals(1, view.getSnapshot().getActiveProjectCount());
+            assertFalse(viewed.isCompleted());
+            assertTrue(tracker.getCompletedProjects().get(0).isCompleted());
+            assertThrows(IllegalStateException.class, () -> viewed.setPriority(Project.Priority.HIGH));
+            assertEquals(500, tracker.getActiveProjectCount());
+            assertTrue(tracker.snapshot().getVersion() > view.getVersion());
+            closed = view;
+        }
+        assertThrows(IllegalStateException.class, closed::getSnapshot);
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("Test Batch Mutations")
+    void testBatchMutations() {
+        Project existing = new Project("Existing", "12/31/2099", "Description");
+        tracker.addProject(existing);
+        List<TrackerChange> changes = new ArrayList<>();
+        tracker.addChangeListener(changes::add);
+
+        Project added = new Project("Added", "12/31/2099", "Description");
+        Project replacement = new Project("Replaced", "12/31/2099", "Description");
+        tracker.batch(Arrays.asList(
+            ProjectMutation.add(added),
+            ProjectMutation.update(existing, replacement),
+            ProjectMutation.complete(added)));
+
+        assertEquals(1, changes.size());
+        assertEquals(3, changes.get(0).getMutations().size());
+        assertEquals(1, tracker.getActiveProjectCount());
+        assertEquals(replacement, tracker.getProjects().get(0));
+        assertEquals(1, tracker.getCompletedProjectCount());
+        assertTrue(added.isCompleted());
+        assertEquals(2, tracker.getTotalProjects());
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.batch(Arrays.asList(
+            ProjectMutation.delete(replacement),
+            ProjectMutation.delete(replacement))));
+        assertEquals(1, tracker.getActiveProjectCount());
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("Test HTTP Server")
+    void testHttpServer() throws Exception {
+        ProjectTrackerServer server = new ProjectTrackerServer(tracker,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + server.getPort();
+            String body = "{\"className\":\"Web\",\"dueDate\":\"12/31/2099\",\"description\":\"Say \\\"hi\\\"\",\"priority\":\"high\"}";
+            HttpResponse<String> created = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/projects"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(201, created.statusCode());
+            assertEquals("Say \"hi\"", tracker.getProjects().get(0).getDescription());
+            assertEquals(Project.Priority.HIGH, tracker.getProjects().get(0).getPriority());
+
+            HttpResponse<String> listed = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/projects?priority=HIGH&sort=dueDate")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, listed.statusCode());
+            assertTrue(listed.body().startsWith("[{\"className\":\"Web\""));
+
+            HttpResponse<String> completed = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/projects/complete"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, completed.statusCode());
+            assertTrue(completed.body().contains("\"completed\":true"));
+            assertEquals(1, tracker.getCompletedProjectCount());
+
+            HttpResponse<String> completedAgain = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/projects/complete"))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, completedAgain.statusCode());
+            assertEquals(1, tracker.getCompletedProjectCount());
+
+            HttpResponse<String> missing = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/projects"))
+                .method("DELETE", HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, missing.statusCode());
+
+            HttpResponse<String> invalid = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/projects"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"className\":\"Web\"}")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, invalid.statusCode());
+
+            // Deep nesting is rejected before the recursive reader can overflow the stack
+            HttpResponse<String> nested = client.send(HttpRequest.newBuilder(
+                URI.create(base + "/projects"))
+                .POST(HttpRequest.BodyPublishers.ofString("{\"a\":" + "[".repeat(1 << 20))).build(),
+                HttpResponse.BodyHandlers.ofString());
+            assertEquals(400, nested.statusCode());
+            assertEquals(1, ProjectJson.parseObject("{\"a\":" + "[".repeat(ProjectJson.MAX_DEPTH - 1)
+                + "]".repeat(ProjectJson.MAX_DEPTH - 1) + "}").size());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("Test Journal Group Commit")
+    void testJournalGroupCommit() throws Exception {
+        Path file = Files.createTempFile("tracker", ".journal");
+        try {
+            ProjectJournal journal = ProjectJournal.open(tracker, file, ProjectJournal.Durability.TIME_BOUNDED, 5);
+            Project first = new Project("Journal", "12/31/2099", "First");
+            Project second = new Project("Journal", "06/30/2099", "Second");
+            second.setPriority(Project.Priority.HIGH);
+            tracker.addProject(first);
+            tracker.addProject(second);
+            tracker.markProjectCompleted(first);
+            tracker.sortProjects();
+            tracker.addProject(new Project("Journal", "01/31/2099", "Third"));
+            RecurringProject weekly = new RecurringProject("Journal",
+                LocalDate.now().plusDays(1).format(DATE_FORMATTER), "Weekly", Project.Priority.LOW,
+                Recurrence.weekly().times(10));
+            tracker.addRecurringProject(weekly);
+            assertEquals(2, tracker.getProjectsDueWithin(10).size());
+            long durable = journal.whenDurable().get(5, TimeUnit.SECONDS);
+            assertTrue(durable >= 5);
+            journal.close();
+
+            Files.write(file, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+            ProjectTracker recovered = new ProjectTracker();
+            try (ProjectJournal reopened = ProjectJournal.open(recovered, file,
+                    ProjectJournal.Durability.EVERY_WRITE, 0)) {
+                assertEquals(tracker.getProjects(), recovered.getProjects());
+                assertEquals(tracker.getCompletedProjects(), recovered.getCompletedProjects());
+                assertEquals(Project.Priority.HIGH, recovered.getProjects().get(0).getPriority());
+                assertTrue(recovered.getCompletedProjects().get(0).isCompleted());
+                // Templates replay with their occurrence counts, so nothing is made twice
+                assertEquals(1, recovered.getRecurringProjects().size());
+                assertEquals(weekly.toString(), recovered.getRecurringProjects().get(0).toString());
+                assertEquals(2, recovered.getProjectsDueWithin(10).size());
+                assertEquals(3, recovered.getProjectsDueWithin(15).size());
+                recovered.deleteProject(second);
+                reopened.whenDurable().get(5, TimeUnit.SECONDS);
+            }
+            ProjectTracker again = new ProjectTracker();
+            ProjectJournal.open(again, file, ProjectJournal.Durability.EVERY_WRITE, 0).close();
+            assertEquals(1 + 3, again.getActiveProjectCount());
+            assertEquals(2 + 3, again.getTotalProjects());
+            assertEquals(1, again.getRecurringProjects().size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("Test Project Builder")
+    void testProjectBuilder() {
+        assertEquals(LocalDate.of(2099, 12, 31).toEpochDay(), Project.parseEpochDay("12/31/2099"));
+        assertEquals(LocalDate.of(2096, 2, 29).toEpochDay(), Project.parseEpochDay("02/30/2096"));
+        assertEquals(Project.INVALID_DATE, Project.parseEpochDay("2099-12-31"));
+        assertEquals(Project.INVALID_DATE, Project.parseEpochDay("13/01/2099"));
+
+        Project built = new Project.Builder()
+            .className("Builder")
+            .dueDate("12/31/2099")
+            .description("Built")
+            .priority(Project.Priority.HIGH)
+            .timeEstimate("4")
+            .build();
+        assertEquals(new Project("Builder", "12/31/2099", "Built"), built);
+        assertEquals(Project.Priority.HIGH, built.getPriority());
+        assertEquals("4", built.getTimeEstimate());
+
+        Project.Builder builder = new Project.Builder().className("Builder").description("Late");
+        assertEquals(Project.Validation.PAST_DUE_DATE, builder.dueDate("01/01/2000").validate());
+        assertEquals(Project.Validation.INVALID_DATE, builder.dueDate("1/1/2099").validate());
+        assertEquals(Project.Validation.INVALID_TIME_ESTIMATE,
+            builder.dueDate("01/01/2099").timeEstimate("-1").validate());
+
+        long future = LocalDate.now().plusDays(10).toEpochDay();
+        List<Project> created = new ArrayList<>();
+        Project.Validation[] results = Project.createBatch(
+            new String[] {"A", " ", "C"},
+            new long[] {future, future, future - 100},
+            new String[] {"One", "Two", "Three"},
+            created);
+        assertArrayEquals(new Project.Validation[] {Project.Validation.VALID,
+            Project.Validation.EMPTY_CLASS_NAME, Project.Validation.PAST_DUE_DATE}, results);
+        assertEquals(1, created.size());
+        assertEquals("A", created.get(0).getClassName());
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("Test Completed Archive")
+    void testCompletedArchive() throws Exception {
+        Path directory = Files.createTempDirectory("archive");
+        try {
+            try (CompletedArchive archive = CompletedArchive.open(directory)) {
+                tracker.attachArchive(archive);
+                long today = LocalDate.now().toEpochDay();
+                for (int i = 0; i < 150; i++) {
+                    Project p = new Project.Builder().className("Archive").dueEpochDay(today + 1 + (i * 37) % 50)
+                        .description("Done " + i).build();
+                    tracker.addProject(p);
+                    tracker.markProjectCompleted(p);
+                }
+                tracker.addProject(new Project("Archive", "12/31/2099", "Active"));
+
+                assertEquals(150, tracker.archiveCompleted(0));
+                assertEquals(150, tracker.getCompletedProjectCount());
+                assertEquals(151, tracker.getTotalProjects());
+                assertEquals(0, tracker.snapshot().getCompletedProjectVector().size());
+                assertEquals(3, archive.getBlockCount());
+
+                List<Project> completed = tracker.getCompletedProjects();
+                assertEquals(150, completed.size());
+                assertEquals("Done 0", completed.get(0).getDescription());
+                assertEquals("Done 149", completed.get(149).getDescription());
+                assertTrue(completed.get(70).isCompleted());
+                assertEquals(150, tracker.query(new ProjectQuery().completed(true)).size());
+                assertEquals(150, tracker.getFirstPage(ProjectCursor.Source.COMPLETED,
+                    ProjectCursor.Order.INSERTION, 200).getTotalCount());
+
+                // Sorted pages read the archive's keys in one pass and match a full stable sort
+                List<Project> expected = new ArrayList<>(completed);
+                expected.sort(Comparator.comparing(Project::getDueDate));
+                List<Project> paged = new ArrayList<>();
+                ProjectPage page = tracker.getFirstPage(ProjectCursor.Source.COMPLETED, ProjectCursor.Order.DUE_DATE, 40);
+                paged.addAll(page.getProjects());
+                while (page.getNextCursor() != null) {
+                    page = tracker.getNextPage(page.getNextCursor());
+                    paged.addAll(page.getProjects());
+                }
+                assertEquals(150, paged.size());
+                for (int i = 0; i < 150; i++) {
+                    assertEquals(expected.get(i).getDescription(), paged.get(i).getDescription());
+                }
+
+                // Archived projects are frozen copies like every other stored project
+                Project archived = completed.get(5);
+                assertThrows(IllegalStateException.class, () -> archived.setDescription("Changed"));
+                assertThrows(IllegalStateException.class, () -> paged.get(0).setDescription("Changed"));
+                assertEquals("Done 5", tracker.getCompletedProjects().get(5).getDescription());
+            }
+
+            ProjectTracker reopened = new ProjectTracker();
+            try (CompletedArchive archive = CompletedArchive.open(directory)) {
+                reopened.attachArchive(archive);
+                assertEquals(150, reopened.getCompletedProjectCount());
+                assertEquals("Done 99", reopened.getCompletedProjects().get(99).getDescription());
+
+                // A failed append publishes nothing and leaves nothing behind on disk
+                List<Project> broken = new ArrayList<>(reopened.getCompletedProjects().subList(0, 100));
+                broken.add(null);
+                long diskBytes = archive.getDiskBytes();
+                assertThrows(NullPointerException.class, () -> archive.append(broken));
+                assertEquals(150, archive.size());
+                assertEquals(3, archive.getBlockCount());
+                assertEquals(diskBytes, archive.getDiskBytes());
+                archive.append(broken.subList(0, 10));
+                assertEquals(160, archive.size());
+                assertEquals("Done 9", archive.get(159).getDescription());
+            }
+            try (CompletedArchive archive = CompletedArchive.open(directory)) {
+                assertEquals(160, archive.size());
+                assertEquals("Done 149", archive.get(149).getDescription());
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("Test Allocation-Free Scans")
+    void testAllocationFreeScans() {
+        List<ProjectMutation> seed = new ArrayList<>();
+        long today = LocalDate.now().toEpochDay();
+        Project.Priority[] priorities = Project.Priority.values();
+        for (int i = 0; i < 20000; i++) {
+            seed.add(ProjectMutation.add(new Project.Builder().className("Scan").dueEpochDay(today + i % 60)
+                .description("Scan " + i).priority(priorities[i % 3]).build()));
+        }
+        tracker.batch(seed);
+        long cutoff = today + 30;
+        ProjectFieldPredicate urgentHigh = (day, priority) -> day < cutoff && priority == 0;
+
+        int expected = 0;
+        for (Project p : tracker.getProjects()) {
+            if (p.getDueEpochDay() < cutoff && p.getPriority() == Project.Priority.HIGH) {
+                expected++;
+            }
+        }
+        int[] visited = new int[1];
+        Consumer<Project> visit = p -> visited[0]++;
+        for (int i = 0; i < 50; i++) {
+            assertEquals(expected, tracker.countMatching(urgentHigh));
+            tracker.forEachMatching(urgentHigh, visit);
+        }
+        assertEquals(50 * expected, visited[0]);
+
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 10; i++) {
+            tracker.countMatching(urgentHigh);
+            tracker.forEachMatching(urgentHigh, visit);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        // 400,000 projects visited; only a few objects per scan are allowed
+        assertTrue(allocated < 16 * 1024, "Allocated " + allocated + " bytes");
+    }
+
+    @Test
+    @Order(29)
+    @DisplayName("Test Primitive Dynamic Arrays")
+    void testPrimitiveDynamicArrays() {
+        IntDynamicArray ints = new IntDynamicArray();
+        for (int i = 0; i < 100; i++) {
+            ints.add((i * 37) % 100);
+        }
+        assertEquals(100, ints.size());
+        assertTrue(ints.capacity() >= 100);
+        ints.sort();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, ints.get(i));
+        }
+        assertEquals(42, ints.binarySearch(42));
+        assertEquals(4950, ints.sum());
+        assertEquals(100, ints.addSorted(99));
+        assertEquals(99, ints.get(100));
+
+        while (ints.size() > 5) {
+            ints.removeLast();
+        }
+        assertTrue(ints.capacity() < 100);
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, ints.toArray());
+        ints.add(2, 9);
+        assertEquals(2, ints.indexOf(9));
+        assertEquals(9, ints.remove(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.get(5));
+
+        LongDynamicArray longs = new LongDynamicArray(0);
+        longs.addAll(new long[] {5L << 40, 1L, 3L << 33});
+        longs.sort();
+        assertArrayEquals(new long[] {1L, 3L << 33, 5L << 40}, longs.toArray());
+        assertTrue(longs.contains(3L << 33));
+        assertEquals(-2, longs.binarySearch(2L));
+        long[] total = new long[1];
+        longs.forEach(v -> total[0] += v);
+        assertEquals(longs.sum(), total[0]);
+        longs.trimToSize();
+        assertEquals(3, longs.capacity());
+        assertThrows(IllegalStateException.class, () -> new LongDynamicArray().removeLast());
+    }
+
+    @Test
+    @Order(30)
+    @DisplayName("Test Full-Text Index")
+    void testFullTextIndex() {
+        Project lab = new Project("Chemistry", "12/31/2099", "Titration lab report, lab notebook");
+        Project essay = new Project("English", "12/31/2099", "Essay on the lab of Dr. Moreau");
+        Project quiz = new Project("Chemistry", "12/31/2099", "Quiz on titration curves");
+        tracker.addProject(lab);
+        tracker.addProject(essay);
+        try (ProjectTextIndex index = ProjectTextIndex.attach(tracker)) {
+            tracker.addProject(quiz);
+            assertEquals(3, index.size());
+
+            List<Project> labs = index.search("LAB", ProjectTextIndex.Match.ANY, 10);
+            assertEquals(List.of(lab, essay), labs);
+            assertEquals(List.of(lab), index.search("lab titration", ProjectTextIndex.Match.ALL, 10));
+            assertEquals(3, index.search("lab titration", ProjectTextIndex.Match.ANY, 10).size());
+            assertEquals(2, index.search("chemistry", ProjectTextIndex.Match.ANY, 10).size());
+            assertEquals(1, index.search("lab titration", ProjectTextIndex.Match.ANY, 1).size());
+            assertTrue(index.search("lab missing", ProjectTextIndex.Match.ALL, 10).isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> index.search("lab", ProjectTextIndex.Match.ANY, 0));
+
+            Project revised = new Project("English", "12/31/2099", "Essay on Frankenstein");
+            tracker.updateProject(essay, revised);
+            assertEquals(List.of(lab), index.search("lab", ProjectTextIndex.Match.ANY, 10));
+            assertEquals(List.of(revised), index.search("frankenstein", ProjectTextIndex.Match.ANY, 10));
+            tracker.markProjectCompleted(quiz);
+            tracker.deleteProject(lab);
+            assertTrue(index.search("titration", ProjectTextIndex.Match.ANY, 10).isEmpty());
+            tracker.undo();
+            assertEquals(List.of(lab), index.search("titration", ProjectTextIndex.Match.ANY, 10));
+
+            Project poetry = new Project("English", "12/31/2099", "Poetry portfolio");
+            tracker.updateProject(revised, poetry);
+            assertEquals(List.of(poetry), index.search("portfolio", ProjectTextIndex.Match.ANY, 10));
+            poetry.setDescription("Sonnet sequence");
+            assertTrue(index.search("sonnet", ProjectTextIndex.Match.ANY, 10).isEmpty());
+
+            String[] words = {"alpha", "beta", "gamma", "delta", "omega", "sigma", "kappa", "theta"};
+            List<ProjectMutation> adds = new ArrayList<>();
+            for (int i = 0; i < 20000; i++) {
+                adds.add(ProjectMutation.add(new Project("Bulk " + (i % 50), "12/31/2099",
+                    words[i % 8] + " " + words[(i / 8) % 8] + " item" + i)));
+            }
+            tracker.batch(adds);
+            assertEquals(20002, index.size());
+            assertEquals(List.of(tracker.getProjects().get(2 + 12345)),
+                index.search("item12345", ProjectTextIndex.Match.ALL, 5));
+            assertEquals(626, index.search("alpha gamma", ProjectTextIndex.Match.ALL, 5000).size());
+            long start = System.nanoTime();
+            for (int i = 0; i < 200; i++) {
+                index.search("bulk 7 item" + i, ProjectTextIndex.Match.ALL, 10);
+            }
+            long perQuery = (System.nanoTime() - start) / 200;
+            assertTrue(perQuery < 5_000_000, "Query took " + perQuery + " ns");
+        }
+    }
+
+    @Test
+    @Order(31)
+    @DisplayName("Test Fuzzy Class Name Search")
+    void testFuzzyClassNameSearch() {
+        Project cis = new Project("CIS152-Fuzzy", "12/31/2099", "Data structures");
+        Project math = new Project("MATH160-Fuzzy", "12/31/2099", "Calculus");
+        Project upper = new Project("cis152-FUZZY", "12/31/2099", "Same course, other case");
+        tracker.addProject(cis);
+        tracker.addProject(math);
+        tracker.addProject(upper);
+
+        assertEquals(List.of(cis, upper), tracker.searchByClassNameFuzzy("CIS125-Fuzzy", 2));
+        assertEquals(List.of(cis, upper), tracker.searchByClassNameFuzzy("cs152-fuzzy", 1));
+        assertTrue(tracker.searchByClassNameFuzzy("CIS125-Fuzzy", 1).isEmpty());
+        assertEquals(List.of(math), tracker.searchByClassNameFuzzy("MATH160-Fuzzy", 0));
+        assertTrue(tracker.searchByClassNameFuzzy(" ", 2).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> tracker.searchByClassNameFuzzy("CIS", -1));
+
+        BKTree tree = new BKTree();
+        Random random = new Random(45);
+        String[] words = new String[5000];
+        for (int i = 0; i < words.length; i++) {
+            char[] chars = new char[6 + random.nextInt(4)];
+            for (int c = 0; c < chars.length; c++) {
+                chars[c] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(chars);
+            tree.add(words[i], i);
+        }
+        for (int q = 0; q < 20; q++) {
+            String query = words[random.nextInt(words.length)].substring(1) + "x";
+            IntDynamicArray found = new IntDynamicArray();
+            int computed = tree.search(query, 2, found);
+            assertTrue(computed < words.length, "Computed " + computed + " distances");
+            Set<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < words.length; i++) {
+                if (BKTree.distance(query, words[i], Integer.MAX_VALUE) <= 2) {
+                    expected.add(i);
+                }
+            }
+            Set<Integer> actual = new TreeSet<>();
+            found.forEach(actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    @Order(32)
+    @DisplayName("Test Recurring Projects")
+    void testRecurringProjects() {
+        LocalDate first = LocalDate.now().plusDays(1);
+        RecurringProject weekly = new RecurringProject("CIS152", first.format(DATE_FORMATTER),
+            "Weekly lab", Project.Priority.HIGH, Recurrence.weekly());
+        RecurringProject monthly = new RecurringProject("MATH160", first.format(DATE_FORMATTER),
+            "Problem set", Project.Priority.LOW, Recurrence.every(1, Recurrence.Unit.MONTHS).times(3));
+        tracker.addRecurringProject(weekly);
+        tracker.addRecurringProject(monthly);
+        assertEquals(List.of(weekly, monthly), tracker.getRecurringProjects());
+        assertEquals(0, tracker.getActiveProjectCount());
+        assertThrows(IllegalArgumentException.class, () -> tracker.addRecurringProject(weekly));
+
+        assertTrue(tracker.getOverdueProjects().isEmpty());
+        assertEquals(0, tracker.getActiveProjectCount());
+
+        List<Project> dueSoon = tracker.getProjectsDueWithin(15);
+        assertEquals(3 + 1, dueSoon.size());
+        assertEquals(4, tracker.getActiveProjectCount());
+        assertEquals(4, tracker.getProjectsDueWithin(15).size());
+        assertEquals("Weekly lab", dueSoon.get(0).getDescription());
+        assertEquals(Project.Priority.HIGH, dueSoon.get(0).getPriority());
+
+        // A year of weekly labs but only three problem sets
+        List<Project> year = tracker.getProjectsDueWithin(365);
+        assertEquals(53 + 3, year.size());
+        assertEquals(first.plusMonths(2), tracker.query(new ProjectQuery().inClass("MATH160")
+            .orderBy(ProjectCursor.Order.DUE_DATE)).get(2).getDueDate());
+
+        tracker.removeRecurringProject(weekly);
+        assertEquals(List.of(monthly), tracker.getRecurringProjects());
+        assertEquals(year.size(), tracker.getProjectsDueWithin(1000).size());
+        assertTrue(tracker.undo());
+        assertEquals(List.of(weekly, monthly), tracker.getRecurringProjects());
+
+        ProjectTracker fresh = new ProjectTracker();
+        fresh.addRecurringProject(weekly);
+        List<Project> sorted = fresh.getProjectsSortedBy(ProjectCursor.Order.DUE_DATE);
+        assertEquals(1, sorted.size());
+        assertEquals(first, sorted.get(0).getDueDate());
+        assertEquals(1, fresh.getProjectsSortedBy(ProjectCursor.Order.DUE_DATE).size());
+        assertEquals(2, fresh.query(new ProjectQuery().dueBetween(first, first.plusDays(7))).size());
+        assertTrue(fresh.undo());
+        assertTrue(fresh.getRecurringProjects().isEmpty());
+        assertEquals(0, fresh.getProjectsDueWithin(30).size());
+
+        // Far windows stop at the horizon, and creating occurrences leaves open cursors valid
+        ProjectTracker far = new ProjectTracker();
+        for (int i = 0; i < 3; i++) {
+            far.addProject(new Project("Far", "12/31/2099", "Stored " + i));
+        }
+        ProjectPage page = far.getFirstPage(ProjectCursor.Source.ACTIVE, ProjectCursor.Order.INSERTION, 2);
+        far.addRecurringProject(weekly);
+        long weeks = (ProjectTracker.RECURRENCE_HORIZON_DAYS - 1) / 7 + 1;
+        assertEquals(3 + weeks, far.getProjectsDueWithin(Integer.MAX_VALUE).size());
+        assertEquals(3 + weeks, far.getActiveProjectCount());
+        assertEquals(3 + weeks, far.query(new ProjectQuery().dueBetween(first, LocalDate.MAX)).size());
+        assertEquals(0, far.getEstimatedHours(first, LocalDate.MAX));
+        assertEquals(3 + weeks, far.getActiveProjectCount());
+        ProjectPage next = far.getNextPage(page.getNextCursor());
+        assertEquals("Stored 2", next.getProjects().get(0).getDescription());
+        assertEquals(3 + weeks, next.getTotalCount());
+    }
+
+    @Test
+    @Order(33)
+    @DisplayName("Test Streaming JSON Export and Import")
+    void testStreamingJsonExportImport() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            Project p = new Project("Café " + (i % 7), "12/31/2099",
+                "Notes \"" + i + "\"\n\u00e9t\u00e9 \ud83d\udcda " + "x".repeat(i % 40));
+            p.setPriority(Project.Priority.values()[i % 3]);
+            p.setTimeEstimate(String.valueOf(i % 12));
+            tracker.addProject(p);
+            if (i % 5 == 0) {
+                tracker.markProjectCompleted(p);
+            }
+        }
+        LocalDate first = LocalDate.now().plusDays(1);
+        tracker.addRecurringProject(new RecurringProject("Café 1", first.format(DATE_FORMATTER), "Weekly \"lab\"",
+            Project.Priority.HIGH, Recurrence.weekly().times(20).until(first.plusYears(1))));
+        tracker.addRecurringProject(new RecurringProject("Café 2", first.format(DATE_FORMATTER), "Monthly",
+            Project.Priority.LOW, Recurrence.every(2, Recurrence.Unit.MONTHS)));
+        assertEquals(2 + 1, tracker.getProjectsDueWithin(8).size());
+        Path file = Files.createTempFile("tracker", ".json");
+        try {
+            for (boolean gzip : new boolean[] {false, true}) {
+                try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ProjectTrackerJson.export(tracker, out, gzip);
+                }
+                ProjectTracker copy = new ProjectTracker();
+                copy.addProject(new Project("Old", "12/31/2099", "Replaced by the import"));
+                try (FileChannel in = FileChannel.open(file)) {
+                    assertEquals(tracker.getTotalProjects(), ProjectTrackerJson.importInto(copy, in, gzip));
+                }
+                assertEquals(tracker.getProjects(), copy.getProjects());
+                assertEquals(tracker.getCompletedProjects(), copy.getCompletedProjects());
+                assertEquals(tracker.getTotalProjects(), copy.getTotalProjects());
+                // Templates round trip with their occurrence counts, so no occurrence is made twice
+                assertEquals(tracker.getRecurringProjects().toString(), copy.getRecurringProjects().toString());
+                assertEquals(tracker.getProjectsDueWithin(60).size(), copy.getProjectsDueWithin(60).size());
+                assertEquals(tracker.getProjects(), copy.getProjects());
+                Project sample = copy.getProjects().get(1234);
+                assertEquals(tracker.getProjects().get(1234).getDescription(), sample.getDescription());
+                assertEquals(tracker.getProjects().get(1234).getPriority(), sample.getPriority());
+                assertEquals(tracker.getProjects().get(1234).getTimeEstimate(), sample.getTimeEstimate());
+                assertTrue(copy.getCompletedProjects().get(7).isCompleted());
+                assertFalse(copy.undo());
+            }
+
+            Files.writeString(file,
+                "{\"format\":1,\"extra\":{\"a\":[1,{\"b\":null}]},\"active\":[{\"className\":\"A\","
+                + "\"dueDate\":\"01/02/2020\",\"description\":\"Old\",\"overdue\":true}],\"completed\":[]}");
+            ProjectTracker loaded = new ProjectTracker();
+            try (FileChannel in = FileChannel.open(file)) {
+                assertEquals(1, ProjectTrackerJson.importInto(loaded, in, false));
+            }
+            assertTrue(loaded.getProjects().get(0).isOverdue());
+            assertTrue(loaded.getRecurringProjects().isEmpty());
+
+            Files.writeString(file, "{\"active\":[{\"className\":\"A\",\"dueDate\":\"13/45/2020\"}]}");
+            try (FileChannel in = FileChannel.open(file)) {
+                IOException e = assertThrows(IOException.class,
+                    () -> ProjectTrackerJson.importInto(loaded, in, false));
+                assertTrue(e.getMessage().startsWith("Invalid JSON"));
+            }
+            assertEquals(1, loaded.getActiveProjectCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    @Order(34)
+    @DisplayName("Test Growth Policies and Memory Reports")
+    void testGrowthPoliciesAndMemoryReports() {
+        DynamicArray<Integer> doubling = new DynamicArray<>();
+        for (int i = 0; i < 1000; i++) {
+            doubling.add(i);
+        }
+        MemoryReport report = doubling.memoryReport();
+        assertEquals(1280, doubling.capacity());
+        assertEquals(7, report.getResizeCount());
+        assertEquals(1270L * MemoryReport.REFERENCE_BYTES, report.getBytesCopied());
+        assertEquals(280L * MemoryReport.REFERENCE_BYTES, report.getSlackBytes());
+
+        DynamicArray<Integer> chunked = new DynamicArray<>(10, GrowthPolicy.chunked(100));
+        DynamicArray<Integer> reserve = new DynamicArray<>(10, GrowthPolicy.fixedReserve(5));
+        DynamicArray<Integer> oneAndAHalf = new DynamicArray<>(10, GrowthPolicy.ONE_AND_A_HALF);
+        for (int i = 0; i < 1000; i++) {
+            chunked.add(i);
+            reserve.add(i);
+            oneAndAHalf.add(i);
+        }
+        assertEquals(1010, chunked.capacity());
+        assertTrue(reserve.capacity() <= 1005);
+        assertTrue(oneAndAHalf.capacity() < 1500);
+        assertTrue(oneAndAHalf.memoryReport().getResizeCount() > report.getResizeCount());
+        while (chunked.size() > 700) {
+            chunked.remove(chunked.size() - 1);
+        }
+        assertTrue(chunked.capacity() - chunked.size() < 200);
+        while (reserve.size() > 10) {
+            reserve.remove(reserve.size() - 1);
+        }
+        assertTrue(reserve.capacity() <= 20);
+        assertThrows(IllegalArgumentException.class, () -> GrowthPolicy.geometric(1.0));
+        assertThrows(IllegalArgumentException.class, () -> new DynamicArray<Integer>(10, null));
+
+        IntDynamicArray ints = new IntDynamicArray(10, GrowthPolicy.chunked(64));
+        ints.addAll(new int[100]);
+        assertEquals(128, ints.capacity());
+        assertEquals(28L * 4, ints.memoryReport().getSlackBytes());
+
+        MemoryReport combined = report.plus(ints.memoryReport());
+        assertEquals(1100, combined.getSize());
+        assertEquals(report.getSlackBytes() + 28L * 4, combined.getSlackBytes());
+        assertEquals(report.getResizeCount() + ints.memoryReport().getResizeCount(), combined.getResizeCount());
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("Test Workload Calendar")
+    void testWorkloadCalendar() {
+        LocalDate monday = LocalDate.of(2099, 6, 1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        Project first = workload("CIS152", monday, "5");
+        Project second = workload("CIS152", monday.plusDays(2), "3");
+        Project busy = workload("MATH160", monday.plusDays(8), "10");
+        tracker.addProject(first);
+        tracker.addProject(second);
+        tracker.addProject(busy);
+        tracker.addProject(workload("MATH160", monday.plusDays(15), "4"));
+        tracker.addProject(workload("ENG101", monday.plusDays(3), "0"));
+        tracker.addProject(workload("ENG101", LocalDate.of(9999, 12, 31), "7"));
+
+        assertEquals(8, tracker.getEstimatedHours(monday, monday.plusDays(6)));
+        assertEquals(10, tracker.getEstimatedHours(monday.plusDays(7), monday.plusDays(13)));
+        assertEquals(22, tracker.getEstimatedHours(monday, monday.plusDays(20)));
+        assertEquals(29, tracker.getEstimatedHours(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(monday.plusDays(7), tracker.getPeakWeek(monday, monday.plusDays(20)));
+        assertEquals(monday, tracker.getPeakWeek(monday.plusDays(4), monday.plusDays(4)));
+        assertNull(tracker.getPeakWeek(monday.plusDays(21), monday.plusDays(60)));
+
+        tracker.updateProject(busy, workload("MATH160", monday.plusDays(8), "1"));
+        assertEquals(monday, tracker.getPeakWeek(monday, monday.plusDays(20)));
+        tracker.markProjectCompleted(first);
+        assertEquals(3, tracker.getEstimatedHours(monday, monday.plusDays(6)));
+        assertEquals(monday.plusDays(14), tracker.getPeakWeek(monday, monday.plusDays(20)));
+        tracker.undo();
+        assertEquals(8, tracker.getEstimatedHours(monday, monday.plusDays(6)));
+
+        Project longer = workload("CIS152", monday.plusDays(2), "30");
+        tracker.updateProject(second, longer);
+        assertEquals(35, tracker.getEstimatedHours(monday, monday.plusDays(6)));
+        tracker.updateProject(longer, workload("CIS152", monday.plusDays(9), "30"));
+        assertEquals(31, tracker.getEstimatedHours(monday.plusDays(7), monday.plusDays(13)));
+        longer.setTimeEstimate("99");
+        assertEquals(31, tracker.getEstimatedHours(monday.plusDays(7), monday.plusDays(13)));
+
+        assertThrows(IllegalArgumentException.class, () -> tracker.getEstimatedHours(monday.plusDays(1), monday));
+        assertThrows(IllegalArgumentException.class, () -> tracker.getPeakWeek(null, monday));
+
+        ProjectTracker random = new ProjectTracker();
+        Random rng = new Random(49);
+        for (int i = 0; i < 500; i++) {
+            random.addProject(workload("Load", monday.plusDays(rng.nextInt(365)), String.valueOf(rng.nextInt(20))));
+        }
+        for (int i = 0; i < 50; i++) {
+            LocalDate from = monday.plusDays(rng.nextInt(365));
+            LocalDate to = from.plusDays(rng.nextInt(60));
+            long expected = random.getProjects().stream()
+                .filter(p -> !p.getDueDate().isBefore(from) && !p.getDueDate().isAfter(to))
+                .mapToLong(p -> Long.parseLong(p.getTimeEstimate()))
+                .sum();
+            assertEquals(expected, random.getEstimatedHours(from, to));
+        }
+        LocalDate peak = random.getPeakWeek(monday, monday.plusDays(364));
+        long peakHours = random.getEstimatedHours(peak, peak.plusDays(6));
+        for (int week = 0; week < 52; week++) {
+            LocalDate start = monday.plusWeeks(week);
+            assertTrue(random.getEstimatedHours(start, start.plusDays(6)) <= peakHours);
+        }
+    }
+
+    private static Project workload(String className, LocalDate dueDate, String hours) {
+        return new Project.Builder()
+            .className(className)
+            .dueEpochDay(dueDate.toEpochDay())
+            .description("Workload " + hours)
+            .timeEstimate(hours)
+            .build();
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("Test Merkle Digest Sync")
+    void testMerkleDigestSync() throws Exception {
+        ProjectTracker remote = new ProjectTracker();
+        for (int i = 0; i < 2000; i++) {
+            tracker.addProject(new Project("CIS" + (i % 40), "12/31/2099", "Synced " + i));
+            remote.addProject(new Project("CIS" + (i % 40), "12/31/2099", "Synced " + i));
+        }
+        ProjectDigest local = tracker.getDigest();
+        assertEquals(2000, local.size());
+        assertEquals(remote.getDigest().getRootHash(), local.getRootHash());
+        assertEquals(local.getRootHash(), local.getHash(0, 0));
+        assertTrue(local.diff(remote.getDigest()).isEmpty());
+
+        List<Project> remoteProjects = remote.getProjects();
+        remote.deleteProject(remoteProjects.get(10));
+        remote.deleteProject(remoteProjects.get(20));
+        Project changed = new Project("CIS30", "12/31/2099", "Synced 30");
+        changed.setPriority(Project.Priority.HIGH);
+        remote.updateProject(remoteProjects.get(30), changed);
+        remote.updateProject(remoteProjects.get(40), new Project.Builder()
+            .className("CIS0").dueDate("12/31/2099").description("Synced 40").timeEstimate("12").build());
+        for (int i = 0; i < 3; i++) {
+            remote.addProject(new Project("NEW", "12/31/2099", "Remote only " + i));
+        }
+
+        List<ProjectMutation> changes = local.diff(remote.getDigest());
+        assertEquals(7, changes.size());
+        assertEquals(2, changes.stream().filter(m -> m.getType() == ProjectMutation.Type.DELETE).count());
+        assertEquals(2, changes.stream().filter(m -> m.getType() == ProjectMutation.Type.UPDATE).count());
+        assertEquals(3, changes.stream().filter(m -> m.getType() == ProjectMutation.Type.ADD).count());
+        assertEquals(7, tracker.syncWith(remote.getDigest()));
+        assertEquals(remote.getDigest().getRootHash(), local.getRootHash());
+        assertEquals(new HashSet<>(remote.getProjects()), new HashSet<>(tracker.getProjects()));
+        int index = tracker.getProjects().indexOf(changed);
+        assertEquals(Project.Priority.HIGH, tracker.getProjects().get(index).getPriority());
+        assertNotSame(changed, tracker.getProjects().get(index));
+        long rootHash = local.getRootHash();
+        changed.setTimeEstimate("7");
+        assertEquals(rootHash, local.getRootHash());
+        assertEquals(0, tracker.syncWith(remote.getDigest()));
+        tracker.undo();
+        assertNotEquals(remote.getDigest().getRootHash(), local.getRootHash());
+        tracker.redo();
+        assertEquals(remote.getDigest().getRootHash(), local.getRootHash());
+
+        // Equal copies that differ are replaced as a group
+        Project twin = new Project("Twin", "12/31/2099", "Copied twice");
+        Project otherTwin = new Project("Twin", "12/31/2099", "Copied twice");
+        otherTwin.setTimeEstimate("5");
+        tracker.addProject(twin);
+        tracker.addProject(otherTwin);
+        remote.addProject(new Project("Twin", "12/31/2099", "Copied twice"));
+        tracker.markProjectCompleted(tracker.getProjects().get(0));
+        assertEquals(4, tracker.syncWith(remote.getDigest()));
+        assertEquals(remote.getDigest().getRootHash(), local.getRootHash());
+        assertEquals(2002, local.size());
+
+        // A digest built from an exported file matches the live one
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ProjectTrackerJson.export(remote, Channels.newChannel(bytes), false);
+        ProjectTracker loaded = new ProjectTracker();
+        ProjectTrackerJson.importInto(loaded, Channels.newChannel(
+            new ByteArrayInputStream(bytes.toByteArray())), false);
+        ProjectDigest file = ProjectDigest.of(loaded.getProjects());
+        assertEquals(remote.getDigest().getRootHash(), file.getRootHash());
+        int bucket = 0;
+        while (file.getBucket(bucket).isEmpty()) {
+            bucket++;
+        }
+        assertEquals(file.getHash(ProjectDigest.BUCKET_BITS, bucket), local.getHash(ProjectDigest.BUCKET_BITS, bucket));
+        assertThrows(IllegalArgumentException.class, () -> file.getHash(1, 2));
+        local.close();
+        assertThrows(IllegalStateException.class, local::getRootHash);
+        assertTrue(tracker.getDigest().diff(file).isEmpty());
+    }
+
+    @Test
+    @Order(37)
+    @DisplayName("Test Deterministic Load Generator Run")
+    void testLoadGeneratorRun() throws Exception {
+        String[] args = {"--projects", "200", "--threads", "1", "--warmup", "0", "--ops", "500",
+            "--classes", "10", "--seed", "7"};
+        ProjectTrackerLoadGenerator generator = new ProjectTrackerLoadGenerator(ProjectTrackerLoadGenerator.Options.parse(args));
+        generator.populate();
+        ProjectTrackerLoadGenerator.Report report = generator.run();
+
+        long adds = report.getOperationCount("add");
+        long updates = report.getOperationCount("update");
+        long deletes = report.getOperationCount("delete");
+        long completes = report.getOperationCount("complete");
+        long queries = report.getOperationCount("query");
+        assertEquals(500, report.getOperationCount());
+        assertEquals(500, adds + updates + deletes + completes + queries);
+        assertTrue(adds > 0 && updates > 0 && deletes > 0 && completes > 0 && queries > 0);
+        assertThrows(IllegalArgumentException.class, () -> report.getOperationCount("merge"));
+
+        ProjectTracker loaded = generator.getTracker();
+        assertEquals(200 + adds - deletes - completes, loaded.getActiveProjectCount());
+        assertEquals(completes, loaded.getCompletedProjectCount());
+        assertEquals(loaded.getActiveProjectCount() + loaded.getCompletedProjectCount(), loaded.getTotalProjects());
+        assertEquals(loaded.getActiveProjectCount(), loaded.query(new ProjectQuery().completed(false)).size());
+        assertEquals(loaded.getCompletedProjectCount(), loaded.query(new ProjectQuery().completed(true)).size());
+        int byPriority = 0;
+        for (Project.Priority priority : Project.Priority.values()) {
+            byPriority += loaded.filterByPriority(priority).size();
+        }
+        assertEquals(loaded.getActiveProjectCount(), byPriority);
+        assertTrue(loaded.getProjects().stream().noneMatch(Project::isCompleted));
+        assertTrue(loaded.getCompletedProjects().stream().allMatch(Project::isCompleted));
+
+        ProjectTrackerLoadGenerator again = new ProjectTrackerLoadGenerator(ProjectTrackerLoadGenerator.Options.parse(args));
+        again.populate();
+        ProjectTrackerLoadGenerator.Report repeat = again.run();
+        assertEquals(adds, repeat.getOperationCount("add"));
+        assertEquals(deletes, repeat.getOperationCount("delete"));
+        assertEquals(completes, repeat.getOperationCount("complete"));
+        assertEquals(loaded.getActiveProjectCount(), again.getTracker().getActiveProjectCount());
+    }
+}